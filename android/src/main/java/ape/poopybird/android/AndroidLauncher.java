@@ -13,6 +13,7 @@ public class AndroidLauncher extends AndroidApplication {
         super.onCreate(savedInstanceState);
         AndroidApplicationConfiguration configuration = new AndroidApplicationConfiguration();
         configuration.useImmersiveMode = true; // Recommended, but not required.
+        configuration.useGL30 = true; // Falls back to GLES 2 on devices without GLES 3.
         initialize(new Main(), configuration);
     }
 }
\ No newline at end of file
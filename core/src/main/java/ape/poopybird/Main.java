@@ -1,6 +1,12 @@
 package ape.poopybird;
 
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.graphics.g3d.utils.DefaultShaderProvider;
+import com.badlogic.gdx.graphics.g3d.utils.ShaderProvider;
+import ape.poopybird.entities.BirdReplay;
+import ape.poopybird.graphics.FlatShaderProvider;
+import ape.poopybird.graphics.FrameReadback;
+import ape.poopybird.graphics.TextureCopyReadback;
 import ape.poopybird.screens.SplashScreen;
 
 /**
@@ -9,8 +15,33 @@ import ape.poopybird.screens.SplashScreen;
  */
 public class Main extends Game {
 
+    // The last finished run, replayed as a ghost bird when the same bird is picked again
+    private BirdReplay lastReplay;
+
+    // 3D shaders live as long as the game, so each one is compiled once (warmed up on the splash)
+    private ShaderProvider flatShaders;
+    private ShaderProvider defaultShaders;
+
+    // Screenshot and clip readback, which a backend may do better than plain GL can
+    private final FrameReadback.Factory frameReadbacks;
+
+    public Main() {
+        this(new FrameReadback.Factory() {
+            @Override
+            public FrameReadback create() {
+                return new TextureCopyReadback();
+            }
+        });
+    }
+
+    public Main(FrameReadback.Factory frameReadbacks) {
+        this.frameReadbacks = frameReadbacks;
+    }
+
     @Override
     public void create() {
+        flatShaders = new FlatShaderProvider();
+        defaultShaders = new DefaultShaderProvider();
         setScreen(new SplashScreen(this));
     }
 
@@ -20,5 +51,27 @@ public class Main extends Game {
         if (getScreen() != null) {
             getScreen().dispose();
         }
+        flatShaders.dispose();
+        defaultShaders.dispose();
+    }
+
+    public ShaderProvider getFlatShaders() {
+        return flatShaders;
+    }
+
+    public ShaderProvider getDefaultShaders() {
+        return defaultShaders;
+    }
+
+    public FrameReadback createFrameReadback() {
+        return frameReadbacks.create();
+    }
+
+    public BirdReplay getLastReplay() {
+        return lastReplay;
+    }
+
+    public void setLastReplay(BirdReplay lastReplay) {
+        this.lastReplay = lastReplay;
     }
 }
@@ -4,116 +4,94 @@ import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector3;
 
+/**
+ * One bird in a {@link BirdFlock}. The flock owns the simulation state; this adds the model
+ * instances (one per level of detail) and a vector-based view for rendering and the HUD.
+ */
 public class Bird {
-    private final BirdType type;
+    private final BirdFlock flock;
+    private final int index;
     private final Vector3 position;
     private final Vector3 velocity;
-    private ModelInstance modelInstance;
-    private float currentCooldown;
-    private float cooldownMultiplier;
-    private float time;
-    private float wingAngle;
-    private float flapSpeed;
-
-    public Bird(BirdType type) {
-        this.type = type;
-        this.position = new Vector3(0, type.getMinHeight(), 0);
-        this.velocity = new Vector3();
-        this.currentCooldown = 0;
-        this.cooldownMultiplier = 1f;
-        this.time = 0;
-        this.wingAngle = 0;
-        this.flapSpeed = 8f;
-    }
-
-    public void update(float delta, Vector3 inputDirection, Vector3 windVelocity) {
-        time += delta;
-
-        // Update cooldown
-        if (currentCooldown > 0) {
-            currentCooldown -= delta;
-            if (currentCooldown < 0) currentCooldown = 0;
-        }
-
-        // Calculate effective velocity
-        velocity.set(inputDirection).scl(type.getBaseVelocity()).add(windVelocity);
+    private ModelInstance[] modelInstances;
+    private int lodLevel;
 
-        // Update position
-        position.x += velocity.x * delta;
-        position.z += velocity.z * delta;
-
-        // Height oscillation
-        float heightRange = type.getMaxHeight() - type.getMinHeight();
-        position.y = type.getMinHeight() + heightRange / 2f * (1f + MathUtils.sin(time * 0.5f));
-
-        // Wing flapping animation
-        wingAngle = MathUtils.sin(time * flapSpeed) * 30f;
-
-        // Update model instance position if set
-        if (modelInstance != null) {
-            modelInstance.transform.setToTranslation(position);
-            modelInstance.transform.rotate(Vector3.Y, getRotationAngle());
-        }
+    public Bird(BirdFlock flock, int index) {
+        this.flock = flock;
+        this.index = index;
+        this.position = new Vector3();
+        this.velocity = new Vector3();
     }
 
     public boolean canPoop() {
-        return currentCooldown <= 0;
-    }
-
-    public Poop poop() {
-        if (!canPoop()) return null;
-
-        currentCooldown = type.getCooldown() * cooldownMultiplier;
-        return new Poop(new Vector3(position), new Vector3(velocity));
+        return flock.getCooldown(index) <= 0;
     }
 
     public float getRotationAngle() {
-        if (velocity.len2() < 0.01f) return 0;
-        return MathUtils.atan2(velocity.x, velocity.z) * MathUtils.radiansToDegrees;
+        float vx = flock.getVelocityX(index);
+        float vz = flock.getVelocityZ(index);
+        if (vx * vx + vz * vz < 0.01f) return 0;
+        return MathUtils.atan2(vx, vz) * MathUtils.radiansToDegrees;
     }
 
-    public void applyCooldownReduction(float reduction) {
-        cooldownMultiplier = Math.max(0.3f, cooldownMultiplier - reduction);
+    public BirdFlock getFlock() {
+        return flock;
     }
 
-    public void resetCooldownMultiplier() {
-        cooldownMultiplier = 1f;
+    public int getIndex() {
+        return index;
     }
 
     public BirdType getType() {
-        return type;
+        return flock.getType(index);
     }
 
     public Vector3 getPosition() {
-        return position;
+        return position.set(flock.getX(index), flock.getY(index), flock.getZ(index));
     }
 
     public Vector3 getVelocity() {
-        return velocity;
+        return velocity.set(flock.getVelocityX(index), 0, flock.getVelocityZ(index));
     }
 
     public float getCurrentCooldown() {
-        return currentCooldown;
+        return flock.getCooldown(index);
     }
 
     public float getCooldownProgress() {
+        BirdType type = getType();
         if (type.getCooldown() <= 0) return 1f;
-        return 1f - (currentCooldown / (type.getCooldown() * cooldownMultiplier));
+        return 1f - (flock.getCooldown(index) / (type.getCooldown() * flock.getCooldownMultiplier(index)));
     }
 
     public float getWingAngle() {
-        return wingAngle;
+        return flock.getWingAngle(index);
+    }
+
+    public int getScore() {
+        return flock.getScore(index);
     }
 
+    /**
+     * The instance for the current level of detail. All levels share one transform.
+     */
     public ModelInstance getModelInstance() {
-        return modelInstance;
+        return modelInstances[lodLevel];
+    }
+
+    public void setModelInstances(ModelInstance[] modelInstances) {
+        this.modelInstances = modelInstances;
+    }
+
+    public int getLodLevel() {
+        return lodLevel;
     }
 
-    public void setModelInstance(ModelInstance modelInstance) {
-        this.modelInstance = modelInstance;
+    public void setLodLevel(int lodLevel) {
+        this.lodLevel = lodLevel;
     }
 
     public float getHeight() {
-        return position.y;
+        return flock.getY(index);
     }
 }
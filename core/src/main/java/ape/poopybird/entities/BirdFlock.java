@@ -0,0 +1,315 @@
+package ape.poopybird.entities;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import ape.poopybird.physics.Wind;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Every bird in the world, stored as parallel primitive arrays and updated as one batch.
+ *
+ * Each bird is driven by a player, a bot or a replay. Drivers only write the per-bird input
+ * (direction and poop request); {@link #update} then moves every bird, runs cooldowns and
+ * drops poops in a single pass. {@link Bird} is a handle onto one slot.
+ */
+public class BirdFlock {
+    public static final byte CONTROL_PLAYER = 0;
+    public static final byte CONTROL_BOT = 1;
+    public static final byte CONTROL_REPLAY = 2;
+
+    private static final float FLAP_SPEED = 8f;
+    private static final float MIN_COOLDOWN_MULTIPLIER = 0.3f;
+
+    private int count;
+
+    // Per-bird constants
+    private final BirdType[] types;
+    private final byte[] control;
+    private final float[] minHeight;
+    private final float[] heightRange;
+    private final float[] baseVelocity;
+    private final float[] baseCooldown;
+    private final float[] poopDrag;
+    private final BirdReplay[] replays;
+
+    // Per-bird simulation state
+    private final float[] x;
+    private final float[] y;
+    private final float[] z;
+    private final float[] vx;
+    private final float[] vz;
+    private final float[] cooldown;
+    private final float[] cooldownMultiplier;
+    private final float[] time;
+    private final float[] wingAngle;
+    private final int[] score;
+    private final int[] botTarget;
+    private final int[] replayCursor;
+
+    // Per-bird input for the current tick
+    private final float[] inputX;
+    private final float[] inputZ;
+    private final boolean[] poopRequested;
+    private final boolean[] pooped;
+
+    private final Vector3 localWind;
+
+    public BirdFlock(int capacity) {
+        this.types = new BirdType[capacity];
+        this.control = new byte[capacity];
+        this.minHeight = new float[capacity];
+        this.heightRange = new float[capacity];
+        this.baseVelocity = new float[capacity];
+        this.baseCooldown = new float[capacity];
+        this.poopDrag = new float[capacity];
+        this.replays = new BirdReplay[capacity];
+
+        this.x = new float[capacity];
+        this.y = new float[capacity];
+        this.z = new float[capacity];
+        this.vx = new float[capacity];
+        this.vz = new float[capacity];
+        this.cooldown = new float[capacity];
+        this.cooldownMultiplier = new float[capacity];
+        this.time = new float[capacity];
+        this.wingAngle = new float[capacity];
+        this.score = new int[capacity];
+        this.botTarget = new int[capacity];
+        this.replayCursor = new int[capacity];
+
+        this.inputX = new float[capacity];
+        this.inputZ = new float[capacity];
+        this.poopRequested = new boolean[capacity];
+        this.pooped = new boolean[capacity];
+
+        this.localWind = new Vector3();
+    }
+
+    /**
+     * Add a bird at a ground position, flying at its type's minimum height.
+     *
+     * @return the bird's index
+     */
+    public int add(BirdType type, byte controlledBy, float startX, float startZ) {
+        int i = count++;
+        types[i] = type;
+        control[i] = controlledBy;
+        minHeight[i] = type.getMinHeight();
+        heightRange[i] = type.getMaxHeight() - type.getMinHeight();
+        baseVelocity[i] = type.getBaseVelocity();
+        baseCooldown[i] = type.getCooldown();
+        poopDrag[i] = type.getPoopDrag();
+
+        x[i] = startX;
+        y[i] = type.getMinHeight();
+        z[i] = startZ;
+        cooldownMultiplier[i] = 1f;
+        botTarget[i] = -1;
+        return i;
+    }
+
+    public int addReplay(BirdType type, BirdReplay replay) {
+        int i = add(type, CONTROL_REPLAY, 0, 0);
+        replays[i] = replay;
+        return i;
+    }
+
+    public void setInput(int bird, float directionX, float directionZ, boolean poop) {
+        inputX[bird] = directionX;
+        inputZ[bird] = directionZ;
+        poopRequested[bird] = poop;
+    }
+
+    /**
+     * Feed replay-driven birds their recorded input for this tick.
+     */
+    public void applyReplays() {
+        for (int i = 0; i < count; i++) {
+            if (control[i] != CONTROL_REPLAY) continue;
+
+            BirdReplay replay = replays[i];
+            int cursor = replayCursor[i];
+            if (cursor < replay.size()) {
+                setInput(i, replay.getX(cursor), replay.getZ(cursor), replay.getPoop(cursor));
+                replayCursor[i] = cursor + 1;
+            } else {
+                setInput(i, 0, 0, false);
+            }
+        }
+    }
+
+    /**
+     * Move every bird, tick cooldowns and drop requested poops into {@code poopsOut}.
+     */
+    public void update(float delta, Wind wind, Array<Poop> poopsOut) {
+        for (int i = 0; i < count; i++) {
+            time[i] += delta;
+
+            // Update cooldown
+            float c = cooldown[i] - delta;
+            cooldown[i] = c > 0 ? c : 0;
+
+            // Effective velocity: steering plus the wind where the bird is
+            wind.sample(x[i], z[i], localWind);
+            vx[i] = inputX[i] * baseVelocity[i] + localWind.x;
+            vz[i] = inputZ[i] * baseVelocity[i] + localWind.z;
+
+            // Update position
+            x[i] += vx[i] * delta;
+            z[i] += vz[i] * delta;
+
+            // Height oscillation
+            y[i] = minHeight[i] + heightRange[i] / 2f * (1f + MathUtils.sin(time[i] * 0.5f));
+
+            // Wing flapping animation
+            wingAngle[i] = MathUtils.sin(time[i] * FLAP_SPEED) * 30f;
+
+            // Poop
+            pooped[i] = false;
+            if (poopRequested[i] && cooldown[i] <= 0) {
+                cooldown[i] = baseCooldown[i] * cooldownMultiplier[i];
+                Poop poop = new Poop(new Vector3(x[i], y[i], z[i]), new Vector3(vx[i], 0, vz[i]), poopDrag[i]);
+                poop.setOwner(i);
+                poopsOut.add(poop);
+                pooped[i] = true;
+            }
+        }
+    }
+
+    /**
+     * Index of the closest bird within {@code radius} of a point, or -1.
+     */
+    public int findNearest(float px, float py, float pz, float radius) {
+        int nearest = -1;
+        float best = radius * radius;
+        for (int i = 0; i < count; i++) {
+            float dx = x[i] - px;
+            float dy = y[i] - py;
+            float dz = z[i] - pz;
+            float d2 = dx * dx + dy * dy + dz * dz;
+            if (d2 < best) {
+                best = d2;
+                nearest = i;
+            }
+        }
+        return nearest;
+    }
+
+    public void applyCooldownReduction(int bird, float reduction) {
+        cooldownMultiplier[bird] = Math.max(MIN_COOLDOWN_MULTIPLIER, cooldownMultiplier[bird] - reduction);
+    }
+
+    public void resetCooldownMultiplier(int bird) {
+        cooldownMultiplier[bird] = 1f;
+    }
+
+    public void addScore(int bird, int points) {
+        score[bird] += points;
+    }
+
+    public void writeState(ByteBuffer out) {
+        out.putShort((short) count);
+        for (int i = 0; i < count; i++) {
+            out.putFloat(x[i]).putFloat(y[i]).putFloat(z[i]);
+            out.putFloat(vx[i]).putFloat(vz[i]);
+            out.putFloat(cooldown[i]);
+            out.putFloat(cooldownMultiplier[i]);
+            out.putFloat(time[i]);
+            out.putFloat(wingAngle[i]);
+            out.putInt(score[i]);
+            out.putShort((short) botTarget[i]);
+            out.putInt(replayCursor[i]);
+        }
+    }
+
+    /**
+     * Restore bird state written by {@link #writeState}. The flock's membership (types and
+     * drivers) is fixed for a game, so only simulation state is read.
+     */
+    public void readState(ByteBuffer in) {
+        int written = in.getShort();
+        if (written != count) {
+            throw new IllegalStateException("Snapshot has " + written + " birds, flock has " + count);
+        }
+        for (int i = 0; i < count; i++) {
+            x[i] = in.getFloat();
+            y[i] = in.getFloat();
+            z[i] = in.getFloat();
+            vx[i] = in.getFloat();
+            vz[i] = in.getFloat();
+            cooldown[i] = in.getFloat();
+            cooldownMultiplier[i] = in.getFloat();
+            time[i] = in.getFloat();
+            wingAngle[i] = in.getFloat();
+            score[i] = in.getInt();
+            botTarget[i] = in.getShort();
+            replayCursor[i] = in.getInt();
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public BirdType getType(int bird) {
+        return types[bird];
+    }
+
+    public byte getControl(int bird) {
+        return control[bird];
+    }
+
+    public float getX(int bird) {
+        return x[bird];
+    }
+
+    public float getY(int bird) {
+        return y[bird];
+    }
+
+    public float getZ(int bird) {
+        return z[bird];
+    }
+
+    public float getVelocityX(int bird) {
+        return vx[bird];
+    }
+
+    public float getVelocityZ(int bird) {
+        return vz[bird];
+    }
+
+    public float getCooldown(int bird) {
+        return cooldown[bird];
+    }
+
+    public float getCooldownMultiplier(int bird) {
+        return cooldownMultiplier[bird];
+    }
+
+    public float getWingAngle(int bird) {
+        return wingAngle[bird];
+    }
+
+    public float getPoopDrag(int bird) {
+        return poopDrag[bird];
+    }
+
+    public int getScore(int bird) {
+        return score[bird];
+    }
+
+    public boolean hasPooped(int bird) {
+        return pooped[bird];
+    }
+
+    public int getBotTarget(int bird) {
+        return botTarget[bird];
+    }
+
+    public void setBotTarget(int bird, int target) {
+        botTarget[bird] = target;
+    }
+}
@@ -0,0 +1,58 @@
+package ape.poopybird.entities;
+
+import com.badlogic.gdx.utils.BooleanArray;
+import com.badlogic.gdx.utils.FloatArray;
+
+/**
+ * A recorded sequence of per-tick bird inputs, used to drive a bird as a ghost.
+ */
+public class BirdReplay {
+    private final BirdType birdType;
+    private final FloatArray inputX;
+    private final FloatArray inputZ;
+    private final BooleanArray poop;
+
+    public BirdReplay(BirdType birdType) {
+        this.birdType = birdType;
+        this.inputX = new FloatArray();
+        this.inputZ = new FloatArray();
+        this.poop = new BooleanArray();
+    }
+
+    public void record(float x, float z, boolean pooped) {
+        inputX.add(x);
+        inputZ.add(z);
+        poop.add(pooped);
+    }
+
+    /**
+     * Drop everything recorded from {@code tick} on, e.g. after rewinding.
+     */
+    public void truncate(int tick) {
+        if (tick < inputX.size) {
+            inputX.size = tick;
+            inputZ.size = tick;
+            poop.size = tick;
+        }
+    }
+
+    public int size() {
+        return inputX.size;
+    }
+
+    public float getX(int tick) {
+        return inputX.get(tick);
+    }
+
+    public float getZ(int tick) {
+        return inputZ.get(tick);
+    }
+
+    public boolean getPoop(int tick) {
+        return poop.get(tick);
+    }
+
+    public BirdType getBirdType() {
+        return birdType;
+    }
+}
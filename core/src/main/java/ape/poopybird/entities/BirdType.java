@@ -1,5 +1,7 @@
 package ape.poopybird.entities;
 
+import ape.poopybird.util.Constants;
+
 public enum BirdType {
     SPARROW("Sparrow", 8f, 12f, 15f, 1.5f, 1, 0.8f, 0.5f, 0.3f),
     PIGEON("Pigeon", 10f, 16f, 18f, 1.2f, 2, 0.9f, 0.6f, 0.5f),
@@ -67,6 +69,14 @@ public enum BirdType {
         return colorHue;
     }
 
+    /**
+     * Quadratic drag coefficient of this bird's poop. Bigger birds drop heavier poops
+     * that the air (and the wind) push around less.
+     */
+    public float getPoopDrag() {
+        return Constants.POOP_DRAG / scale;
+    }
+
     public String getDifficultyLabel() {
         switch (difficulty) {
             case 1: return "Easy";
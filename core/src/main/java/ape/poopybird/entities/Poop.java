@@ -4,29 +4,48 @@ import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.math.Vector3;
 import ape.poopybird.util.Constants;
 
+import java.nio.ByteBuffer;
+
 public class Poop {
     private final Vector3 position;
     private final Vector3 velocity;
     private final Vector3 startPosition;
+    private final float dragCoefficient;
+    private int owner;
     private ModelInstance modelInstance;
     private boolean landed;
     private float landingTime;
     private static final float SPLAT_DURATION = 0.5f;
 
     public Poop(Vector3 startPosition, Vector3 inheritedVelocity) {
+        this(startPosition, inheritedVelocity, Constants.POOP_DRAG);
+    }
+
+    public Poop(Vector3 startPosition, Vector3 inheritedVelocity, float dragCoefficient) {
         this.startPosition = new Vector3(startPosition);
+        this.dragCoefficient = dragCoefficient;
         this.position = new Vector3(startPosition);
         this.velocity = new Vector3(inheritedVelocity.x, 0, inheritedVelocity.z);
         this.landed = false;
         this.landingTime = 0;
     }
 
-    public void update(float delta) {
+    public void update(float delta, Vector3 windVelocity) {
         if (landed) {
             landingTime += delta;
             return;
         }
 
+        // Quadratic drag against the poop's velocity relative to the local wind
+        float airX = velocity.x - windVelocity.x;
+        float airY = velocity.y;
+        float airZ = velocity.z - windVelocity.z;
+        float airSpeed = (float) Math.sqrt(airX * airX + airY * airY + airZ * airZ);
+        float drag = Math.min(1f, dragCoefficient * airSpeed * delta);
+        velocity.x -= airX * drag;
+        velocity.y -= airY * drag;
+        velocity.z -= airZ * drag;
+
         // Apply gravity
         velocity.y -= Constants.GRAVITY * delta;
 
@@ -89,4 +108,42 @@ public class Poop {
     public float getLandingZ() {
         return position.z;
     }
+
+    public float getDragCoefficient() {
+        return dragCoefficient;
+    }
+
+    /**
+     * Index of the bird in its {@link BirdFlock} that dropped this poop.
+     */
+    public int getOwner() {
+        return owner;
+    }
+
+    public void setOwner(int owner) {
+        this.owner = owner;
+    }
+
+    public void writeState(ByteBuffer out) {
+        out.putFloat(dragCoefficient);
+        out.putShort((short) owner);
+        out.putFloat(startPosition.x).putFloat(startPosition.y).putFloat(startPosition.z);
+        out.putFloat(position.x).putFloat(position.y).putFloat(position.z);
+        out.putFloat(velocity.x).putFloat(velocity.y).putFloat(velocity.z);
+        out.put((byte) (landed ? 1 : 0));
+        out.putFloat(landingTime);
+    }
+
+    public static Poop fromState(ByteBuffer in) {
+        float dragCoefficient = in.getFloat();
+        int owner = in.getShort();
+        Vector3 start = new Vector3(in.getFloat(), in.getFloat(), in.getFloat());
+        Poop poop = new Poop(start, Vector3.Zero, dragCoefficient);
+        poop.owner = owner;
+        poop.position.set(in.getFloat(), in.getFloat(), in.getFloat());
+        poop.velocity.set(in.getFloat(), in.getFloat(), in.getFloat());
+        poop.landed = in.get() != 0;
+        poop.landingTime = in.getFloat();
+        return poop;
+    }
 }
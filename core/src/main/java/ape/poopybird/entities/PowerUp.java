@@ -4,6 +4,8 @@ import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector3;
 
+import java.nio.ByteBuffer;
+
 public class PowerUp {
     public enum Type {
         COOLDOWN_REDUCTION("Speed Boost", 0.3f),
@@ -65,19 +67,8 @@ public class PowerUp {
         }
     }
 
-    public boolean checkCollection(Vector3 birdPosition, float collectRadius) {
-        if (collected) return false;
-
-        float dx = birdPosition.x - position.x;
-        float dy = birdPosition.y - position.y;
-        float dz = birdPosition.z - position.z;
-        float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
-
-        if (distance < collectRadius) {
-            collected = true;
-            return true;
-        }
-        return false;
+    public void collect() {
+        collected = true;
     }
 
     public boolean shouldRemove() {
@@ -107,4 +98,27 @@ public class PowerUp {
     public void setModelInstance(ModelInstance modelInstance) {
         this.modelInstance = modelInstance;
     }
+
+    public void writeState(ByteBuffer out) {
+        out.put((byte) type.ordinal());
+        out.putFloat(position.x).putFloat(position.z);
+        out.putFloat(bobTime);
+        out.putFloat(rotationAngle);
+        out.put((byte) (collected ? 1 : 0));
+        out.putFloat(lifetime);
+    }
+
+    /**
+     * Rebuild a power-up from {@link #writeState}. The constructor consumes random numbers,
+     * so callers restoring a whole world should restore the RNG afterwards.
+     */
+    public static PowerUp fromState(ByteBuffer in) {
+        Type type = Type.values()[in.get()];
+        PowerUp powerUp = new PowerUp(type, in.getFloat(), in.getFloat());
+        powerUp.bobTime = in.getFloat();
+        powerUp.rotationAngle = in.getFloat();
+        powerUp.collected = in.get() != 0;
+        powerUp.lifetime = in.getFloat();
+        return powerUp;
+    }
 }
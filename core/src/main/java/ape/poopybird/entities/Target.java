@@ -4,15 +4,20 @@ import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector3;
 
+import java.nio.ByteBuffer;
+
 public class Target {
     private final TargetType type;
     private final Vector3 position;
     private final Vector3 velocity;
     private ModelInstance modelInstance;
+    private int lodLevel;
     private boolean hit;
     private float hitTime;
     private int lastHitScore;
     private String lastHitZone;
+    private float lastHitDistance;
+    private int spawnCandidate;
     private static final float HIT_DISPLAY_DURATION = 1.5f;
 
     public Target(TargetType type, float x, float z) {
@@ -23,9 +28,10 @@ public class Target {
         this.hitTime = 0;
         this.lastHitScore = 0;
         this.lastHitZone = "";
+        this.spawnCandidate = -1;
 
         // Give some targets random movement
-        if (type == TargetType.PERSON) {
+        if (!type.isStatic()) {
             float angle = MathUtils.random(360f);
             float speed = MathUtils.random(1f, 3f);
             velocity.x = MathUtils.cosDeg(angle) * speed;
@@ -81,6 +87,7 @@ public class Target {
             hitTime = 0;
             lastHitScore = score;
             lastHitZone = type.getZoneForDistance(distance);
+            lastHitDistance = distance;
         }
         return score;
     }
@@ -112,4 +119,51 @@ public class Target {
     public void setModelInstance(ModelInstance modelInstance) {
         this.modelInstance = modelInstance;
     }
+
+    public int getLodLevel() {
+        return lodLevel;
+    }
+
+    public void setLodLevel(int lodLevel) {
+        this.lodLevel = lodLevel;
+    }
+
+    /**
+     * Index of the spawn candidate this target was placed at, or -1 if placed freely.
+     */
+    public int getSpawnCandidate() {
+        return spawnCandidate;
+    }
+
+    public void setSpawnCandidate(int spawnCandidate) {
+        this.spawnCandidate = spawnCandidate;
+    }
+
+    public void writeState(ByteBuffer out) {
+        out.put((byte) type.ordinal());
+        out.putFloat(position.x).putFloat(position.z);
+        out.putFloat(velocity.x).putFloat(velocity.z);
+        out.put((byte) (hit ? 1 : 0));
+        out.putFloat(hitTime);
+        out.putShort((short) lastHitScore);
+        out.putFloat(lastHitDistance);
+        out.putShort((short) spawnCandidate);
+    }
+
+    /**
+     * Rebuild a target from {@link #writeState}. Note that the constructor may consume
+     * random numbers, so callers restoring a whole world should restore the RNG afterwards.
+     */
+    public static Target fromState(ByteBuffer in) {
+        TargetType type = TargetType.values()[in.get()];
+        Target target = new Target(type, in.getFloat(), in.getFloat());
+        target.velocity.set(in.getFloat(), 0, in.getFloat());
+        target.hit = in.get() != 0;
+        target.hitTime = in.getFloat();
+        target.lastHitScore = in.getShort();
+        target.lastHitDistance = in.getFloat();
+        target.spawnCandidate = in.getShort();
+        target.lastHitZone = target.lastHitScore > 0 ? type.getZoneForDistance(target.lastHitDistance) : "";
+        return target;
+    }
 }
@@ -75,4 +75,11 @@ public enum TargetType {
     public float getModelHeight() {
         return modelHeight;
     }
+
+    /**
+     * Whether targets of this type stay where they spawned, facing the same way.
+     */
+    public boolean isStatic() {
+        return this != PERSON;
+    }
 }
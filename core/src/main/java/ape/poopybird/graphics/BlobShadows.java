@@ -0,0 +1,179 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Soft round shadows on the ground under objects, in place of a shadow map.
+ *
+ * Each frame the caller adds a shadow per object between {@link #begin} and {@link #render};
+ * they are written into one reused vertex array as flat textured quads and drawn in a single
+ * call, darkening whatever opaque ground was drawn before them.
+ */
+public class BlobShadows implements Disposable {
+    private static final int FLOATS_PER_VERTEX = 6; // position, texture coordinates, alpha
+    private static final int TEXTURE_SIZE = 64;
+
+    private static final String VERTEX_SHADER =
+        "attribute vec3 a_position;\n" +
+        "attribute vec2 a_texCoord0;\n" +
+        "attribute float a_alpha;\n" +
+        "uniform mat4 u_projViewTrans;\n" +
+        "varying vec2 v_texCoord;\n" +
+        "varying float v_alpha;\n" +
+        "void main() {\n" +
+        "    v_texCoord = a_texCoord0;\n" +
+        "    v_alpha = a_alpha;\n" +
+        "    gl_Position = u_projViewTrans * vec4(a_position, 1.0);\n" +
+        "}\n";
+
+    private static final String FRAGMENT_SHADER =
+        "#ifdef GL_ES\n" +
+        "precision mediump float;\n" +
+        "#endif\n" +
+        "uniform sampler2D u_texture;\n" +
+        "varying vec2 v_texCoord;\n" +
+        "varying float v_alpha;\n" +
+        "void main() {\n" +
+        "    gl_FragColor = vec4(0.0, 0.0, 0.0, texture2D(u_texture, v_texCoord).a * v_alpha);\n" +
+        "}\n";
+
+    private final int capacity;
+    private final float shadowY;
+    private final float[] vertices;
+    private final Mesh mesh;
+    private final Texture texture;
+    private final ShaderProgram shader;
+
+    private Camera camera;
+    private int count;
+
+    /**
+     * @param shadowY height the shadows lie at, just above the ground
+     */
+    public BlobShadows(int capacity, float shadowY) {
+        this.capacity = capacity;
+        this.shadowY = shadowY;
+
+        shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        if (!shader.isCompiled()) {
+            throw new GdxRuntimeException("Shadow shader failed to compile: " + shader.getLog());
+        }
+
+        vertices = new float[capacity * 4 * FLOATS_PER_VERTEX];
+        short[] indices = new short[capacity * 6];
+        for (int i = 0; i < capacity; i++) {
+            int v = i * 4;
+            indices[i * 6] = (short) v;
+            indices[i * 6 + 1] = (short) (v + 1);
+            indices[i * 6 + 2] = (short) (v + 2);
+            indices[i * 6 + 3] = (short) (v + 2);
+            indices[i * 6 + 4] = (short) (v + 3);
+            indices[i * 6 + 5] = (short) v;
+        }
+        mesh = new Mesh(false, capacity * 4, indices.length, VertexAttribute.Position(),
+            VertexAttribute.TexCoords(0), new VertexAttribute(VertexAttributes.Usage.Generic, 1, "a_alpha"));
+        mesh.setIndices(indices);
+
+        texture = createTexture();
+    }
+
+    /**
+     * A blob that is darkest in the middle and fades smoothly to nothing at the edge.
+     */
+    private static Texture createTexture() {
+        Pixmap pixmap = new Pixmap(TEXTURE_SIZE, TEXTURE_SIZE, Pixmap.Format.RGBA8888);
+        pixmap.setBlending(Pixmap.Blending.None);
+        float half = TEXTURE_SIZE / 2f;
+        for (int y = 0; y < TEXTURE_SIZE; y++) {
+            for (int x = 0; x < TEXTURE_SIZE; x++) {
+                float dx = (x + 0.5f - half) / half;
+                float dy = (y + 0.5f - half) / half;
+                float falloff = MathUtils.clamp(1f - (float) Math.sqrt(dx * dx + dy * dy), 0f, 1f);
+                int alpha = (int) (falloff * falloff * (3f - 2f * falloff) * 255);
+                pixmap.drawPixel(x, y, alpha); // black, so the alpha byte is the whole colour
+            }
+        }
+        Texture texture = new Texture(pixmap);
+        texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        pixmap.dispose();
+        return texture;
+    }
+
+    public void begin(Camera camera) {
+        this.camera = camera;
+        count = 0;
+    }
+
+    /**
+     * Add a shadow centred under a point; skipped once full or when off screen.
+     */
+    public void add(float x, float z, float radius, float alpha) {
+        if (count >= capacity || alpha <= 0f) return;
+        if (!camera.frustum.sphereInFrustum(x, shadowY, z, radius)) return;
+
+        int o = count * 4 * FLOATS_PER_VERTEX;
+        o = corner(o, x - radius, z + radius, 0f, 0f, alpha);
+        o = corner(o, x + radius, z + radius, 1f, 0f, alpha);
+        o = corner(o, x + radius, z - radius, 1f, 1f, alpha);
+        corner(o, x - radius, z - radius, 0f, 1f, alpha);
+        count++;
+    }
+
+    private int corner(int o, float x, float z, float u, float v, float alpha) {
+        vertices[o] = x;
+        vertices[o + 1] = shadowY;
+        vertices[o + 2] = z;
+        vertices[o + 3] = u;
+        vertices[o + 4] = v;
+        vertices[o + 5] = alpha;
+        return o + FLOATS_PER_VERTEX;
+    }
+
+    /**
+     * Draw every shadow added since {@link #begin} in one call.
+     */
+    public void render() {
+        if (count == 0) return;
+        mesh.updateVertices(0, vertices, 0, count * 4 * FLOATS_PER_VERTEX);
+
+        GL20 gl = Gdx.gl20;
+        gl.glEnable(GL20.GL_DEPTH_TEST);
+        gl.glDepthFunc(GL20.GL_LEQUAL);
+        gl.glDepthMask(false);
+        gl.glDisable(GL20.GL_CULL_FACE);
+        gl.glEnable(GL20.GL_BLEND);
+        gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+
+        texture.bind(0);
+        shader.bind();
+        shader.setUniformMatrix("u_projViewTrans", camera.combined);
+        shader.setUniformi("u_texture", 0);
+        mesh.render(shader, GL20.GL_TRIANGLES, 0, count * 6);
+
+        gl.glDepthMask(true);
+        gl.glDisable(GL20.GL_BLEND);
+        gl.glDisable(GL20.GL_DEPTH_TEST);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public void dispose() {
+        mesh.dispose();
+        texture.dispose();
+        shader.dispose();
+    }
+}
@@ -0,0 +1,501 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.DirectionalLightsAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix3;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * GLES2 fallback for {@link InstancedRenderer}: small meshes are transformed on the CPU and
+ * streamed into one vertex buffer per material, drawn with a single call per material.
+ *
+ * Each material's buffers are split into {@link #RING_SEGMENTS} segments used round-robin, one
+ * per segment-sized chunk of a frame's geometry. Whenever the ring wraps the buffers are
+ * orphaned, so the driver hands over fresh storage rather than let an upload overwrite data the
+ * GPU may still be drawing from, however many chunks a frame has.
+ */
+public class DynamicBatcher implements EntityRenderer {
+    /** Models with more vertices than this aren't worth transforming on the CPU. */
+    public static final int MAX_MODEL_VERTICES = 512;
+
+    private static final int RING_SEGMENTS = 3;
+    private static final int SEGMENT_VERTICES = 8192;
+    private static final int SEGMENT_INDICES = SEGMENT_VERTICES * 3;
+    private static final int FLOATS_PER_VERTEX = 7; // world position, world normal, packed colour
+
+    private static final String VERTEX_SHADER =
+        "attribute vec3 a_position;\n" +
+        "attribute vec4 a_color;\n" +
+        "uniform mat4 u_projViewTrans;\n" +
+        "varying vec4 v_color;\n" +
+        "#ifdef normalFlag\n" +
+        "attribute vec3 a_normal;\n" +
+        "uniform vec3 u_lightDirection;\n" +
+        "uniform vec3 u_lightColor;\n" +
+        "uniform vec3 u_ambient;\n" +
+        "varying vec3 v_light;\n" +
+        "#endif\n" +
+        "void main() {\n" +
+        "    v_color = a_color;\n" +
+        "#ifdef normalFlag\n" +
+        "    v_light = u_ambient + u_lightColor * max(0.0, dot(normalize(a_normal), -u_lightDirection));\n" +
+        "#endif\n" +
+        "    gl_Position = u_projViewTrans * vec4(a_position, 1.0);\n" +
+        "}\n";
+
+    private static final String FRAGMENT_SHADER =
+        "#ifdef GL_ES\n" +
+        "precision mediump float;\n" +
+        "#endif\n" +
+        "uniform vec4 u_diffuse;\n" +
+        "varying vec4 v_color;\n" +
+        "#ifdef normalFlag\n" +
+        "varying vec3 v_light;\n" +
+        "#endif\n" +
+        "void main() {\n" +
+        "    vec4 color = u_diffuse * v_color;\n" +
+        "#ifdef normalFlag\n" +
+        "    color.rgb *= v_light;\n" +
+        "#endif\n" +
+        "    gl_FragColor = color;\n" +
+        "}\n";
+
+    private final ShaderProgram shader;
+    private final ShaderProgram bakedShader;
+    private final Array<Stream> streams;
+    private final ObjectMap<Material, Stream> streamsByMaterial;
+    private final ObjectMap<Material, Stream> bakedStreamsByMaterial;
+    private final Array<Array<Piece>> models;
+    private final FloatBuffer vertexUpload;
+    private final ShortBuffer indexUpload;
+    private int drawCalls;
+    private int instanceCount;
+
+    public DynamicBatcher() {
+        shader = compile("#define normalFlag\n");
+        bakedShader = compile("");
+        streams = new Array<>();
+        streamsByMaterial = new ObjectMap<>();
+        bakedStreamsByMaterial = new ObjectMap<>();
+        models = new Array<>();
+        vertexUpload = BufferUtils.newFloatBuffer(SEGMENT_VERTICES * FLOATS_PER_VERTEX);
+        indexUpload = BufferUtils.newShortBuffer(SEGMENT_INDICES);
+    }
+
+    private static ShaderProgram compile(String prefix) {
+        ShaderProgram program = new ShaderProgram(prefix + VERTEX_SHADER, prefix + FRAGMENT_SHADER);
+        if (!program.isCompiled()) {
+            throw new GdxRuntimeException("Batcher shader failed to compile: " + program.getLog());
+        }
+        return program;
+    }
+
+    @Override
+    public int register(Model model) {
+        Array<Piece> pieces = new Array<>();
+        int vertexCount = 0;
+        for (int i = 0; i < model.nodes.size; i++) {
+            vertexCount += collectPieces(model.nodes.get(i), pieces);
+        }
+        if (vertexCount > MAX_MODEL_VERTICES || pieces.size == 0) {
+            return -1;
+        }
+
+        // Baked models look the same material-wise but skip lighting, so they stream separately
+        boolean lit = !LightBaker.isBaked(model);
+        ObjectMap<Material, Stream> byMaterial = lit ? streamsByMaterial : bakedStreamsByMaterial;
+        for (int i = 0; i < pieces.size; i++) {
+            Piece piece = pieces.get(i);
+            Stream stream = byMaterial.get(piece.material);
+            if (stream == null) {
+                stream = new Stream(piece.material, lit);
+                byMaterial.put(piece.material, stream);
+                streams.add(stream);
+            }
+            piece.stream = stream;
+        }
+        models.add(pieces);
+        return models.size - 1;
+    }
+
+    private int collectPieces(Node node, Array<Piece> pieces) {
+        int vertexCount = 0;
+        for (int i = 0; i < node.parts.size; i++) {
+            NodePart nodePart = node.parts.get(i);
+            if (nodePart.meshPart.primitiveType != GL20.GL_TRIANGLES) continue;
+
+            Piece piece = new Piece(nodePart.meshPart, node.globalTransform, nodePart.material);
+            pieces.add(piece);
+            vertexCount += piece.vertexCount;
+        }
+        for (Node child : node.getChildren()) {
+            vertexCount += collectPieces(child, pieces);
+        }
+        return vertexCount;
+    }
+
+    @Override
+    public void begin() {
+        for (int i = 0; i < streams.size; i++) {
+            streams.get(i).clear();
+        }
+        instanceCount = 0;
+    }
+
+    @Override
+    public void add(int model, Matrix4 transform) {
+        Array<Piece> pieces = models.get(model);
+        for (int i = 0; i < pieces.size; i++) {
+            pieces.get(i).append(transform);
+        }
+        instanceCount++;
+    }
+
+    @Override
+    public void render(Camera camera, Environment environment) {
+        drawCalls = 0;
+
+        GL20 gl = Gdx.gl20;
+        gl.glEnable(GL20.GL_DEPTH_TEST);
+        gl.glDepthFunc(GL20.GL_LEQUAL);
+        gl.glDepthMask(true);
+        gl.glEnable(GL20.GL_CULL_FACE);
+        gl.glCullFace(GL20.GL_BACK);
+
+        shader.bind();
+        shader.setUniformMatrix("u_projViewTrans", camera.combined);
+        setLights(environment);
+        drawStreams(shader, true);
+
+        bakedShader.bind();
+        bakedShader.setUniformMatrix("u_projViewTrans", camera.combined);
+        drawStreams(bakedShader, false);
+
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+        gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, 0);
+        gl.glDisable(GL20.GL_CULL_FACE);
+        gl.glDisable(GL20.GL_DEPTH_TEST);
+    }
+
+    private void drawStreams(ShaderProgram program, boolean lit) {
+        int position = program.getAttributeLocation("a_position");
+        int normal = lit ? program.getAttributeLocation("a_normal") : -1;
+        int color = program.getAttributeLocation("a_color");
+        program.enableVertexAttribute(position);
+        if (lit) program.enableVertexAttribute(normal);
+        program.enableVertexAttribute(color);
+
+        for (int i = 0; i < streams.size; i++) {
+            Stream stream = streams.get(i);
+            if (stream.lit == lit) {
+                drawCalls += stream.draw(program, position, normal, color);
+            }
+        }
+
+        program.disableVertexAttribute(position);
+        if (lit) program.disableVertexAttribute(normal);
+        program.disableVertexAttribute(color);
+    }
+
+    private void setLights(Environment environment) {
+        ColorAttribute ambient = environment.get(ColorAttribute.class, ColorAttribute.AmbientLight);
+        if (ambient != null) {
+            shader.setUniformf("u_ambient", ambient.color.r, ambient.color.g, ambient.color.b);
+        } else {
+            shader.setUniformf("u_ambient", 0f, 0f, 0f);
+        }
+
+        DirectionalLightsAttribute lights = environment.get(DirectionalLightsAttribute.class,
+            DirectionalLightsAttribute.Type);
+        if (lights != null && lights.lights.size > 0) {
+            DirectionalLight light = lights.lights.first();
+            shader.setUniformf("u_lightDirection", light.direction);
+            shader.setUniformf("u_lightColor", light.color.r, light.color.g, light.color.b);
+        } else {
+            shader.setUniformf("u_lightColor", 0f, 0f, 0f);
+        }
+    }
+
+    @Override
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    @Override
+    public int getInstanceCount() {
+        return instanceCount;
+    }
+
+    @Override
+    public void dispose() {
+        shader.dispose();
+        bakedShader.dispose();
+        for (int i = 0; i < streams.size; i++) {
+            streams.get(i).dispose();
+        }
+        streams.clear();
+        streamsByMaterial.clear();
+        bakedStreamsByMaterial.clear();
+        models.clear();
+    }
+
+    /**
+     * One mesh part in model space with its node transform baked in, compacted to just the
+     * vertices its indices use.
+     */
+    private static class Piece {
+        private final float[] positions;
+        private final float[] normals;
+        private final float[] colors;
+        private final short[] indices;
+        private final int vertexCount;
+        private final Material material;
+        private Stream stream;
+
+        Piece(MeshPart meshPart, Matrix4 partTransform, Material material) {
+            this.material = material;
+
+            Mesh mesh = meshPart.mesh;
+            VertexReader reader = new VertexReader(mesh);
+            short[] meshIndices = new short[meshPart.size];
+            mesh.getIndices(meshPart.offset, meshPart.size, meshIndices, 0);
+
+            // Renumber the used vertices from zero
+            IntIntMap remap = new IntIntMap();
+            IntArray used = new IntArray();
+            indices = new short[meshIndices.length];
+            for (int i = 0; i < meshIndices.length; i++) {
+                int source = meshIndices[i] & 0xFFFF;
+                int local = remap.get(source, -1);
+                if (local < 0) {
+                    local = used.size;
+                    remap.put(source, local);
+                    used.add(source);
+                }
+                indices[i] = (short) local;
+            }
+
+            // Compact meshes carry their dequantisation in the node transform, so apply it here
+            Matrix3 normalTransform = new Matrix3().set(partTransform).inv().transpose();
+            Vector3 position = new Vector3();
+            Vector3 normal = new Vector3();
+            vertexCount = used.size;
+            positions = new float[vertexCount * 3];
+            normals = new float[vertexCount * 3];
+            colors = new float[vertexCount];
+            for (int v = 0; v < vertexCount; v++) {
+                int source = used.get(v);
+                reader.getPosition(source, position).mul(partTransform);
+                reader.getNormal(source, normal).mul(normalTransform).nor();
+                positions[v * 3] = position.x;
+                positions[v * 3 + 1] = position.y;
+                positions[v * 3 + 2] = position.z;
+                normals[v * 3] = normal.x;
+                normals[v * 3 + 1] = normal.y;
+                normals[v * 3 + 2] = normal.z;
+                colors[v] = reader.getColorBits(source);
+            }
+        }
+
+        void append(Matrix4 transform) {
+            float[] m = transform.val;
+            float[] out = stream.reserve(vertexCount, indices.length);
+            int vertex = stream.vertexCount;
+            int o = vertex * FLOATS_PER_VERTEX;
+            for (int v = 0; v < vertexCount; v++) {
+                float x = positions[v * 3];
+                float y = positions[v * 3 + 1];
+                float z = positions[v * 3 + 2];
+                out[o++] = m[Matrix4.M00] * x + m[Matrix4.M01] * y + m[Matrix4.M02] * z + m[Matrix4.M03];
+                out[o++] = m[Matrix4.M10] * x + m[Matrix4.M11] * y + m[Matrix4.M12] * z + m[Matrix4.M13];
+                out[o++] = m[Matrix4.M20] * x + m[Matrix4.M21] * y + m[Matrix4.M22] * z + m[Matrix4.M23];
+
+                // Normals only need the rotation and scale; the shader renormalizes
+                float nx = normals[v * 3];
+                float ny = normals[v * 3 + 1];
+                float nz = normals[v * 3 + 2];
+                out[o++] = m[Matrix4.M00] * nx + m[Matrix4.M01] * ny + m[Matrix4.M02] * nz;
+                out[o++] = m[Matrix4.M10] * nx + m[Matrix4.M11] * ny + m[Matrix4.M12] * nz;
+                out[o++] = m[Matrix4.M20] * nx + m[Matrix4.M21] * ny + m[Matrix4.M22] * nz;
+                out[o++] = colors[v];
+            }
+            stream.appendIndices(indices, vertexCount);
+        }
+    }
+
+    /**
+     * Pre-transformed geometry for one material, and its ring of GPU buffers.
+     */
+    private class Stream {
+        private final Color color;
+        private final boolean lit;
+        private final int vertexBuffer;
+        private final int indexBuffer;
+        private int segment;
+
+        // This frame's geometry, split into chunks that each fit one segment
+        private float[] vertices;
+        private short[] indices;
+        private int vertexCount;
+        private int indexCount;
+        private final IntArray chunkVertexStart;
+        private final IntArray chunkIndexStart;
+
+        Stream(Material material, boolean lit) {
+            this.lit = lit;
+            ColorAttribute diffuse = material.get(ColorAttribute.class, ColorAttribute.Diffuse);
+            this.color = diffuse != null ? new Color(diffuse.color) : new Color(Color.WHITE);
+            this.vertices = new float[SEGMENT_VERTICES * FLOATS_PER_VERTEX];
+            this.indices = new short[SEGMENT_INDICES];
+            this.chunkVertexStart = new IntArray();
+            this.chunkIndexStart = new IntArray();
+
+            GL20 gl = Gdx.gl20;
+            vertexBuffer = gl.glGenBuffer();
+            gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, vertexBuffer);
+            indexBuffer = gl.glGenBuffer();
+            gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, indexBuffer);
+            allocate();
+            gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+            gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, 0);
+        }
+
+        /**
+         * Give both bound buffers new storage; storage the GPU is still reading stays alive
+         * until it's done.
+         */
+        private void allocate() {
+            GL20 gl = Gdx.gl20;
+            gl.glBufferData(GL20.GL_ARRAY_BUFFER, RING_SEGMENTS * SEGMENT_VERTICES * FLOATS_PER_VERTEX * 4,
+                null, GL20.GL_DYNAMIC_DRAW);
+            gl.glBufferData(GL20.GL_ELEMENT_ARRAY_BUFFER, RING_SEGMENTS * SEGMENT_INDICES * 2,
+                null, GL20.GL_DYNAMIC_DRAW);
+        }
+
+        void clear() {
+            vertexCount = 0;
+            indexCount = 0;
+            chunkVertexStart.clear();
+            chunkIndexStart.clear();
+            chunkVertexStart.add(0);
+            chunkIndexStart.add(0);
+        }
+
+        /**
+         * Make room for a piece, starting a new chunk if it won't fit in the current one.
+         *
+         * @return the vertex array to write into at {@link #vertexCount}
+         */
+        float[] reserve(int pieceVertices, int pieceIndices) {
+            int chunk = chunkVertexStart.size - 1;
+            if (vertexCount - chunkVertexStart.get(chunk) + pieceVertices > SEGMENT_VERTICES
+                || indexCount - chunkIndexStart.get(chunk) + pieceIndices > SEGMENT_INDICES) {
+                chunkVertexStart.add(vertexCount);
+                chunkIndexStart.add(indexCount);
+            }
+
+            int neededFloats = (vertexCount + pieceVertices) * FLOATS_PER_VERTEX;
+            if (neededFloats > vertices.length) {
+                float[] grown = new float[Math.max(neededFloats, vertices.length * 2)];
+                System.arraycopy(vertices, 0, grown, 0, vertexCount * FLOATS_PER_VERTEX);
+                vertices = grown;
+            }
+            if (indexCount + pieceIndices > indices.length) {
+                short[] grown = new short[Math.max(indexCount + pieceIndices, indices.length * 2)];
+                System.arraycopy(indices, 0, grown, 0, indexCount);
+                indices = grown;
+            }
+            return vertices;
+        }
+
+        void appendIndices(short[] pieceIndices, int pieceVertices) {
+            int base = vertexCount - chunkVertexStart.peek();
+            for (int i = 0; i < pieceIndices.length; i++) {
+                indices[indexCount + i] = (short) (base + pieceIndices[i]);
+            }
+            indexCount += pieceIndices.length;
+            vertexCount += pieceVertices;
+        }
+
+        /**
+         * Upload and draw this frame's chunks, each into the next ring segment, orphaning the
+         * buffers each time the ring wraps.
+         *
+         * @return the number of draw calls issued
+         */
+        int draw(ShaderProgram program, int positionLocation, int normalLocation, int colorLocation) {
+            if (indexCount == 0) return 0;
+
+            GL20 gl = Gdx.gl20;
+            gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, vertexBuffer);
+            gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, indexBuffer);
+            program.setUniformf("u_diffuse", color);
+
+            int draws = 0;
+            for (int chunk = 0; chunk < chunkVertexStart.size; chunk++) {
+                int firstVertex = chunkVertexStart.get(chunk);
+                int firstIndex = chunkIndexStart.get(chunk);
+                int lastVertex = chunk + 1 < chunkVertexStart.size ? chunkVertexStart.get(chunk + 1) : vertexCount;
+                int lastIndex = chunk + 1 < chunkIndexStart.size ? chunkIndexStart.get(chunk + 1) : indexCount;
+                int chunkIndices = lastIndex - firstIndex;
+                if (chunkIndices == 0) continue;
+
+                if (segment == RING_SEGMENTS) {
+                    allocate();
+                    segment = 0;
+                }
+                int vertexOffset = segment * SEGMENT_VERTICES * FLOATS_PER_VERTEX * 4;
+                int indexOffset = segment * SEGMENT_INDICES * 2;
+                segment++;
+
+                vertexUpload.clear();
+                vertexUpload.put(vertices, firstVertex * FLOATS_PER_VERTEX, (lastVertex - firstVertex) * FLOATS_PER_VERTEX);
+                vertexUpload.flip();
+                gl.glBufferSubData(GL20.GL_ARRAY_BUFFER, vertexOffset, vertexUpload.limit() * 4, vertexUpload);
+
+                indexUpload.clear();
+                indexUpload.put(indices, firstIndex, chunkIndices);
+                indexUpload.flip();
+                gl.glBufferSubData(GL20.GL_ELEMENT_ARRAY_BUFFER, indexOffset, chunkIndices * 2, indexUpload);
+
+                int stride = FLOATS_PER_VERTEX * 4;
+                program.setVertexAttribute(positionLocation, 3, GL20.GL_FLOAT, false, stride, vertexOffset);
+                if (normalLocation >= 0) {
+                    program.setVertexAttribute(normalLocation, 3, GL20.GL_FLOAT, false, stride, vertexOffset + 12);
+                }
+                program.setVertexAttribute(colorLocation, 4, GL20.GL_UNSIGNED_BYTE, true, stride, vertexOffset + 24);
+                gl.glDrawElements(GL20.GL_TRIANGLES, chunkIndices, GL20.GL_UNSIGNED_SHORT, indexOffset);
+                draws++;
+            }
+            return draws;
+        }
+
+        void dispose() {
+            Gdx.gl20.glDeleteBuffer(vertexBuffer);
+            Gdx.gl20.glDeleteBuffer(indexBuffer);
+        }
+    }
+}
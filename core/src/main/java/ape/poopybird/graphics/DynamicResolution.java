@@ -0,0 +1,246 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.nio.IntBuffer;
+
+/**
+ * Renders the 3D scene into an offscreen buffer at a fraction of the window size, trading
+ * sharpness for fill rate, and stretches it back over the window.
+ *
+ * The fraction follows a moving average of frame time against a budget: it drops quickly in
+ * proportion to an overrun and climbs back slowly while frames fit, and is only changed every
+ * {@link #ADJUST_INTERVAL} seconds so the average can settle in between. The buffer is always
+ * window sized and only a corner of it is drawn into, so changing the scale never reallocates.
+ *
+ * Where desktop GL has timer queries, the time is the GPU's for the scene, read back a few
+ * frames late from a small ring of queries so reading never stalls; a frame held up on the CPU
+ * then doesn't cost resolution. GL ES has no timer queries, so there the time is measured
+ * between frames, which is the GPU's when fill rate is the limit, since presenting waits for it.
+ */
+public class DynamicResolution implements Disposable {
+    private static final float ADJUST_INTERVAL = 0.5f;
+    private static final float AVERAGE_WEIGHT = 0.1f; // of each new frame in the moving average
+    private static final float HEADROOM = 1.05f; // frames this close to the budget still count as fitting
+    private static final float STEP_UP = 0.05f;
+    private static final float HITCH = 4f; // frames are counted as at most this many budgets long
+    private static final int GL_TIME_ELAPSED = 0x88BF; // ARB_timer_query, not in libGDX's GL30
+    private static final int QUERIES = 4; // frames the GPU may be behind before one goes untimed
+
+    private final float minScale;
+    private final float maxScale;
+    private final float budget;
+    private final float[] history;
+    private final TextureRegion region;
+    private final Matrix4 projection;
+    private final Matrix4 savedProjection;
+
+    // GPU timing; queries is null when there are no timer queries
+    private final IntBuffer queries;
+    private final IntBuffer queryResult;
+    private final boolean[] queryPending;
+    private int queryNext;
+    private int queryOldest;
+    private boolean queryRunning;
+
+    private FrameBuffer frameBuffer;
+    private float scale;
+    private float averageFrameTime;
+    private float sinceAdjust;
+    private int historyNext;
+    private int historyCount;
+    private int scaledWidth;
+    private int scaledHeight;
+
+    /**
+     * @param budget      target frame time in seconds
+     * @param historySize scale samples kept for telemetry, one per adjustment
+     */
+    public DynamicResolution(float minScale, float maxScale, float budget, int historySize) {
+        this.minScale = minScale;
+        this.maxScale = maxScale;
+        this.budget = budget;
+        this.history = new float[historySize];
+        this.region = new TextureRegion();
+        this.projection = new Matrix4();
+        this.savedProjection = new Matrix4();
+        this.scale = maxScale;
+        this.averageFrameTime = budget;
+
+        if (hasTimerQueries()) {
+            queries = BufferUtils.newIntBuffer(QUERIES);
+            Gdx.gl30.glGenQueries(QUERIES, queries);
+            queryResult = BufferUtils.newIntBuffer(1);
+            queryPending = new boolean[QUERIES];
+        } else {
+            queries = null;
+            queryResult = null;
+            queryPending = null;
+        }
+        resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+    }
+
+    private static boolean hasTimerQueries() {
+        return Gdx.gl30 != null && Gdx.app.getType() == Application.ApplicationType.Desktop
+            && (Gdx.graphics.getGLVersion().isVersionEqualToOrHigher(3, 3)
+                || Gdx.graphics.supportsExtension("GL_ARB_timer_query"));
+    }
+
+    public void resize(int width, int height) {
+        if (frameBuffer != null) frameBuffer.dispose();
+        frameBuffer = new FrameBuffer(Pixmap.Format.RGB888, Math.max(1, width), Math.max(1, height), true);
+        frameBuffer.getColorBufferTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+    }
+
+    /**
+     * Fold the latest frame time into the average, rescale if due, and start drawing into the
+     * scaled part of the buffer.
+     *
+     * @param delta time since the last frame, used when the GPU can't be timed
+     */
+    public void begin(float delta) {
+        float frameTime = queries != null ? collectGpuTime() : delta;
+        if (frameTime >= 0f) {
+            // One-off hitches such as loading shouldn't drag the scale to the floor
+            averageFrameTime += (Math.min(frameTime, budget * HITCH) - averageFrameTime) * AVERAGE_WEIGHT;
+        }
+        sinceAdjust += delta;
+        if (sinceAdjust >= ADJUST_INTERVAL) {
+            sinceAdjust = 0f;
+            adjust();
+        }
+
+        scaledWidth = Math.max(1, Math.round(frameBuffer.getWidth() * scale));
+        scaledHeight = Math.max(1, Math.round(frameBuffer.getHeight() * scale));
+        frameBuffer.begin();
+        Gdx.gl.glViewport(0, 0, scaledWidth, scaledHeight);
+
+        // If the GPU is so far behind that every query is still out, this frame goes untimed
+        if (queries != null && !queryPending[queryNext]) {
+            Gdx.gl30.glBeginQuery(GL_TIME_ELAPSED, queries.get(queryNext));
+            queryRunning = true;
+        }
+    }
+
+    /**
+     * GPU time of the most recent scene whose query has finished, in seconds, or -1 if none
+     * has finished since the last call.
+     */
+    private float collectGpuTime() {
+        float latest = -1f;
+        while (queryPending[queryOldest]) {
+            int query = queries.get(queryOldest);
+            queryResult.clear();
+            Gdx.gl30.glGetQueryObjectuiv(query, GL30.GL_QUERY_RESULT_AVAILABLE, queryResult);
+            if (queryResult.get(0) == 0) break;
+            queryResult.clear();
+            Gdx.gl30.glGetQueryObjectuiv(query, GL30.GL_QUERY_RESULT, queryResult);
+            latest = (queryResult.get(0) & 0xFFFFFFFFL) / 1e9f;
+            queryPending[queryOldest] = false;
+            queryOldest = (queryOldest + 1) % QUERIES;
+        }
+        return latest;
+    }
+
+    private void adjust() {
+        if (averageFrameTime > budget * HEADROOM) {
+            // Fill rate goes with area, so each side shrinks by the square root of the overrun
+            scale *= (float) Math.sqrt(budget / averageFrameTime);
+        } else {
+            scale += STEP_UP;
+        }
+        scale = MathUtils.clamp(scale, minScale, maxScale);
+
+        history[historyNext] = scale;
+        historyNext = (historyNext + 1) % history.length;
+        historyCount = Math.min(historyCount + 1, history.length);
+    }
+
+    /**
+     * Stop drawing into the buffer and stretch what was drawn over the whole window.
+     */
+    public void end(SpriteBatch batch) {
+        if (queryRunning) {
+            Gdx.gl30.glEndQuery(GL_TIME_ELAPSED);
+            queryPending[queryNext] = true;
+            queryNext = (queryNext + 1) % QUERIES;
+            queryRunning = false;
+        }
+        frameBuffer.end();
+
+        int width = Gdx.graphics.getWidth();
+        int height = Gdx.graphics.getHeight();
+        region.setTexture(frameBuffer.getColorBufferTexture());
+        region.setRegion(0, 0, scaledWidth, scaledHeight);
+        region.flip(false, true); // framebuffer textures are upside down
+
+        savedProjection.set(batch.getProjectionMatrix());
+        batch.setProjectionMatrix(projection.setToOrtho2D(0, 0, width, height));
+        batch.disableBlending();
+        batch.begin();
+        batch.draw(region, 0, 0, width, height);
+        batch.end();
+        batch.enableBlending();
+        batch.setProjectionMatrix(savedProjection);
+    }
+
+    /**
+     * Fraction of the window's width and height the scene is currently drawn at.
+     */
+    public float getScale() {
+        return scale;
+    }
+
+    /**
+     * Moving average of frame time in seconds that the scale is chosen from: the GPU's if
+     * {@link #isGpuTimed}, otherwise the whole frame's.
+     */
+    public float getAverageFrameTime() {
+        return averageFrameTime;
+    }
+
+    public boolean isGpuTimed() {
+        return queries != null;
+    }
+
+    public float getBudget() {
+        return budget;
+    }
+
+    /**
+     * Copy the scale chosen at each recent adjustment into {@code out}, oldest first.
+     *
+     * @return how many were written
+     */
+    public int getHistory(float[] out) {
+        int n = Math.min(historyCount, out.length);
+        int start = historyNext - n;
+        for (int i = 0; i < n; i++) {
+            out[i] = history[(start + i + history.length) % history.length];
+        }
+        return n;
+    }
+
+    public int getHistorySize() {
+        return history.length;
+    }
+
+    @Override
+    public void dispose() {
+        frameBuffer.dispose();
+        if (queries != null) {
+            Gdx.gl30.glDeleteQueries(QUERIES, queries);
+        }
+    }
+}
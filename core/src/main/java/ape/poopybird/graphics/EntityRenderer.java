@@ -0,0 +1,34 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Draws many copies of a few models in a handful of draw calls, bypassing ModelBatch.
+ *
+ * Callers register models once, then each frame call {@link #begin()}, {@link #add} a world
+ * transform per visible copy, and {@link #render}.
+ */
+public interface EntityRenderer extends Disposable {
+
+    /**
+     * Register a model.
+     *
+     * @return the id to pass to {@link #add}, or -1 if this renderer can't draw the model and it
+     * should go through ModelBatch instead
+     */
+    int register(Model model);
+
+    void begin();
+
+    void add(int model, Matrix4 transform);
+
+    void render(Camera camera, Environment environment);
+
+    int getDrawCalls();
+
+    int getInstanceCount();
+}
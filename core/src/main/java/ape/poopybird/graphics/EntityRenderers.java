@@ -0,0 +1,19 @@
+package ape.poopybird.graphics;
+
+/**
+ * Picks the {@link EntityRenderer} for the current GL context.
+ */
+public final class EntityRenderers {
+    private EntityRenderers() {}
+
+    /**
+     * Hardware instancing when the context has GL3 / GLES3, otherwise CPU-side dynamic batching
+     * of small meshes, which works on any GLES2 device.
+     */
+    public static EntityRenderer create() {
+        if (InstancedRenderer.isSupported()) {
+            return new InstancedRenderer();
+        }
+        return new DynamicBatcher();
+    }
+}
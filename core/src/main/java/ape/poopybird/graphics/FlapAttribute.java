@@ -0,0 +1,49 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Attribute;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.FloatAttribute;
+
+/**
+ * Wing flap angle of one model instance, in degrees, for {@link FlatShader} to fold the wings
+ * by on the GPU.
+ *
+ * Wing vertices carry a {@link #hinge()} attribute: x is the direction they fold in (1 for the
+ * right wing, -1 for the left, 0 for vertices that don't move) and y the model-space x of the
+ * hinge line, which runs along the body's Z axis. A positive angle lifts both wingtips.
+ */
+public class FlapAttribute extends FloatAttribute {
+    public static final String Alias = "flapAngle";
+    public static final long Type = register(Alias);
+
+    public static final String HINGE_ALIAS = "a_hinge";
+
+    public FlapAttribute(float degrees) {
+        super(Type, degrees);
+    }
+
+    public static VertexAttribute hinge() {
+        return new VertexAttribute(VertexAttributes.Usage.Generic, 2, HINGE_ALIAS);
+    }
+
+    /**
+     * Set the flap angle of an instance, adding the attribute to its material the first time.
+     */
+    public static void set(ModelInstance instance, float degrees) {
+        Material material = instance.materials.first();
+        FlapAttribute attribute = (FlapAttribute) material.get(Type);
+        if (attribute == null) {
+            material.set(new FlapAttribute(degrees));
+        } else {
+            attribute.value = degrees;
+        }
+    }
+
+    @Override
+    public Attribute copy() {
+        return new FlapAttribute(value);
+    }
+}
@@ -0,0 +1,205 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Attributes;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.Shader;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.DirectionalLightsAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.shaders.BaseShader;
+import com.badlogic.gdx.graphics.g3d.shaders.DefaultShader;
+import com.badlogic.gdx.graphics.g3d.utils.RenderContext;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Minimal shader for the untextured, opaque origami models: diffuse times vertex colour, lit
+ * per vertex by the ambient light and the first directional light. The fragment shader only
+ * writes the interpolated colour. Meshes without normals have their lighting baked into the
+ * vertex colours (see {@link LightBaker}) and get a variant that skips lighting altogether.
+ * Meshes with wing hinges fold them by the instance's {@link FlapAttribute}.
+ *
+ * Lights are uploaded once per environment per frame rather than per renderable.
+ */
+public class FlatShader extends BaseShader {
+    private static final String VERTEX_SHADER =
+        "attribute vec3 a_position;\n" +
+        "#ifdef normalFlag\n" +
+        "attribute vec3 a_normal;\n" +
+        "uniform mat3 u_normalMatrix;\n" +
+        "uniform vec3 u_ambient;\n" +
+        "uniform vec3 u_lightDirection;\n" +
+        "uniform vec3 u_lightColor;\n" +
+        "#endif\n" +
+        "#ifdef vertexColorFlag\n" +
+        "attribute vec4 a_color;\n" +
+        "#endif\n" +
+        "#ifdef flapFlag\n" +
+        "attribute vec2 a_hinge;\n" +
+        "uniform float u_flapAngle;\n" +
+        "#endif\n" +
+        "uniform mat4 u_projViewTrans;\n" +
+        "uniform mat4 u_worldTrans;\n" +
+        "uniform vec4 u_diffuse;\n" +
+        "varying vec4 v_color;\n" +
+        "void main() {\n" +
+        "    vec4 color = u_diffuse;\n" +
+        "#ifdef vertexColorFlag\n" +
+        "    color *= a_color;\n" +
+        "#endif\n" +
+        "    vec3 position = a_position;\n" +
+        "#ifdef normalFlag\n" +
+        "    vec3 normal = a_normal;\n" +
+        "#endif\n" +
+        "#ifdef flapFlag\n" +
+        "    // Fold about the hinge line x = a_hinge.y, which runs along Z\n" +
+        "    float angle = u_flapAngle * a_hinge.x;\n" +
+        "    float c = cos(angle);\n" +
+        "    float s = sin(angle);\n" +
+        "    vec2 arm = vec2(position.x - a_hinge.y, position.y);\n" +
+        "    position.xy = vec2(a_hinge.y + arm.x * c - arm.y * s, arm.x * s + arm.y * c);\n" +
+        "#ifdef normalFlag\n" +
+        "    normal.xy = vec2(normal.x * c - normal.y * s, normal.x * s + normal.y * c);\n" +
+        "#endif\n" +
+        "#endif\n" +
+        "#ifdef normalFlag\n" +
+        "    normal = normalize(u_normalMatrix * normal);\n" +
+        "    vec3 light = u_ambient + u_lightColor * max(0.0, dot(normal, -u_lightDirection));\n" +
+        "    color.rgb *= light;\n" +
+        "#endif\n" +
+        "    v_color = color;\n" +
+        "    gl_Position = u_projViewTrans * u_worldTrans * vec4(position, 1.0);\n" +
+        "}\n";
+
+    private static final String FRAGMENT_SHADER =
+        "#ifdef GL_ES\n" +
+        "precision lowp float;\n" +
+        "#endif\n" +
+        "varying vec4 v_color;\n" +
+        "void main() {\n" +
+        "    gl_FragColor = v_color;\n" +
+        "}\n";
+
+    private static final Setter diffuse = new LocalSetter() {
+        @Override
+        public void set(BaseShader shader, int inputID, Renderable renderable, Attributes combinedAttributes) {
+            ColorAttribute attribute = (ColorAttribute) combinedAttributes.get(ColorAttribute.Diffuse);
+            shader.set(inputID, attribute != null ? attribute.color : Color.WHITE);
+        }
+    };
+
+    private static final Setter flapAngle = new LocalSetter() {
+        @Override
+        public void set(BaseShader shader, int inputID, Renderable renderable, Attributes combinedAttributes) {
+            FlapAttribute attribute = (FlapAttribute) combinedAttributes.get(FlapAttribute.Type);
+            shader.set(inputID, attribute != null ? attribute.value * MathUtils.degreesToRadians : 0f);
+        }
+    };
+
+    private final long attributesMask;
+    private final boolean lit;
+    private final int ambient;
+    private final int lightDirection;
+    private final int lightColor;
+    private Renderable initRenderable;
+    private Environment boundEnvironment;
+
+    /**
+     * Whether a renderable is plain enough for this shader.
+     */
+    public static boolean supports(Renderable renderable) {
+        return renderable.material == null || !renderable.material.has(BlendingAttribute.Type)
+            && !renderable.material.has(TextureAttribute.Diffuse);
+    }
+
+    public FlatShader(Renderable renderable) {
+        attributesMask = renderable.meshPart.mesh.getVertexAttributes().getMask();
+        initRenderable = renderable;
+
+        register(new Uniform("u_projViewTrans"), DefaultShader.Setters.projViewTrans);
+        register(new Uniform("u_worldTrans"), DefaultShader.Setters.worldTrans);
+        register(new Uniform("u_normalMatrix"), DefaultShader.Setters.normalMatrix);
+        register(new Uniform("u_diffuse"), diffuse);
+        register(new Uniform("u_flapAngle"), flapAngle);
+        ambient = register(new Uniform("u_ambient"));
+        lightDirection = register(new Uniform("u_lightDirection"));
+        lightColor = register(new Uniform("u_lightColor"));
+
+        VertexAttributes attributes = renderable.meshPart.mesh.getVertexAttributes();
+        lit = attributes.findByUsage(VertexAttributes.Usage.Normal) != null;
+        String prefix = "";
+        if (lit) prefix += "#define normalFlag\n";
+        if (attributes.findByUsage(VertexAttributes.Usage.ColorPacked) != null) prefix += "#define vertexColorFlag\n";
+        if (VertexReader.findAlias(attributes, FlapAttribute.HINGE_ALIAS) != null) prefix += "#define flapFlag\n";
+        program = new ShaderProgram(prefix + VERTEX_SHADER, prefix + FRAGMENT_SHADER);
+    }
+
+    @Override
+    public void init() {
+        init(program, initRenderable);
+        initRenderable = null;
+    }
+
+    @Override
+    public int compareTo(Shader other) {
+        return 0;
+    }
+
+    @Override
+    public boolean canRender(Renderable renderable) {
+        return renderable.meshPart.mesh.getVertexAttributes().getMask() == attributesMask && supports(renderable);
+    }
+
+    @Override
+    public void begin(Camera camera, RenderContext context) {
+        super.begin(camera, context);
+        context.setDepthTest(GL20.GL_LEQUAL);
+        context.setDepthMask(true);
+        context.setCullFace(GL20.GL_BACK);
+        context.setBlending(false, GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        boundEnvironment = null;
+    }
+
+    @Override
+    public void render(Renderable renderable, Attributes combinedAttributes) {
+        if (lit && renderable.environment != boundEnvironment) {
+            bindLights(renderable.environment);
+            boundEnvironment = renderable.environment;
+        }
+        super.render(renderable, combinedAttributes);
+    }
+
+    private void bindLights(Environment environment) {
+        ColorAttribute ambientLight = environment != null
+            ? environment.get(ColorAttribute.class, ColorAttribute.AmbientLight) : null;
+        if (ambientLight != null) {
+            set(ambient, ambientLight.color.r, ambientLight.color.g, ambientLight.color.b);
+        } else {
+            set(ambient, 0f, 0f, 0f);
+        }
+
+        DirectionalLightsAttribute lights = environment != null
+            ? environment.get(DirectionalLightsAttribute.class, DirectionalLightsAttribute.Type) : null;
+        if (lights != null && lights.lights.size > 0) {
+            DirectionalLight light = lights.lights.first();
+            set(lightDirection, light.direction);
+            set(lightColor, light.color.r, light.color.g, light.color.b);
+        } else {
+            set(lightDirection, 0f, -1f, 0f);
+            set(lightColor, 0f, 0f, 0f);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        program.dispose();
+        super.dispose();
+    }
+}
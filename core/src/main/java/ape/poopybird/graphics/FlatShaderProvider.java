@@ -0,0 +1,21 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.Shader;
+import com.badlogic.gdx.graphics.g3d.shaders.DefaultShader;
+import com.badlogic.gdx.graphics.g3d.utils.BaseShaderProvider;
+
+/**
+ * Hands out {@link FlatShader}s, falling back to libGDX's default shader for anything textured
+ * or blended.
+ */
+public class FlatShaderProvider extends BaseShaderProvider {
+
+    @Override
+    protected Shader createShader(Renderable renderable) {
+        if (FlatShader.supports(renderable)) {
+            return new FlatShader(renderable);
+        }
+        return new DefaultShader(renderable);
+    }
+}
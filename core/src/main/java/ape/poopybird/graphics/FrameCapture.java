@@ -0,0 +1,282 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Screenshots and frame-by-frame clips of the finished window, captured without stalling the
+ * render thread.
+ *
+ * A captured frame goes into one of a ring of {@link FrameReadback} slots on the GPU. It is
+ * only read back to the CPU {@code ringSize - 1} frames later, by which time the GPU has long
+ * finished drawing it, so the read doesn't wait on the frame in flight. The pixels go into one
+ * of a fixed pool of pixmaps and are encoded and written on a background thread, which hands
+ * the pixmap back when done; if every pixmap is still queued the frame is dropped rather than
+ * allocating or waiting.
+ *
+ * How much the read itself costs depends on the readback: with pixel buffer objects it is a
+ * copy out of memory the GPU already wrote, without them a synchronous glReadPixels of the whole
+ * frame. {@link #getLastCostMillis} shows which it is on the running machine.
+ */
+public class FrameCapture implements Disposable {
+    private final FrameReadback readback;
+    private final FileHandle directory;
+    private final int ringSize;
+    private final int poolSize;
+    private final int clipInterval;
+    private final boolean clipPng;
+
+    private final AsyncExecutor encoder;
+    private final ConcurrentLinkedQueue<Pixmap> freePixmaps;
+    private final AtomicInteger written;
+
+    // Only touched on the encoder thread
+    private final PixmapIO.PNG png;
+    private byte[] rawRow;
+
+    private boolean allocated;
+    private final long[] slotFrame;
+    private final boolean[] slotScreenshot;
+    private final int[] slotClip;
+    private volatile int width;
+    private volatile int height;
+    private int nextSlot;
+    private long frame;
+
+    private boolean recording;
+    private boolean screenshotRequested;
+    private int clipNumber;
+    private int dropped;
+    private long lastCostNanos;
+
+    /**
+     * @param ringSize     frames in flight on the GPU; each is read back this many frames minus one later
+     * @param poolSize     frames that may wait for encoding at once
+     * @param clipInterval record every this many frames while a clip is running
+     * @param clipPng      write clip frames as PNG rather than raw RGBA
+     */
+    public FrameCapture(FrameReadback readback, FileHandle directory, int ringSize, int poolSize, int clipInterval,
+                        boolean clipPng) {
+        this.readback = readback;
+        this.directory = directory;
+        this.ringSize = ringSize;
+        this.poolSize = poolSize;
+        this.clipInterval = clipInterval;
+        this.clipPng = clipPng;
+
+        encoder = new AsyncExecutor(1, "FrameCapture");
+        freePixmaps = new ConcurrentLinkedQueue<>();
+        written = new AtomicInteger();
+        png = new PixmapIO.PNG();
+        png.setFlipY(true); // GL rows run bottom to top
+
+        slotFrame = new long[ringSize];
+        slotScreenshot = new boolean[ringSize];
+        slotClip = new int[ringSize];
+        for (int i = 0; i < ringSize; i++) {
+            slotFrame[i] = -1;
+        }
+    }
+
+    /**
+     * Capture the next finished frame as a PNG.
+     */
+    public void requestScreenshot() {
+        screenshotRequested = true;
+    }
+
+    /**
+     * Start or stop recording a clip; each clip's frames are numbered files of their own.
+     */
+    public void setRecording(boolean recording) {
+        if (recording && !this.recording) {
+            clipNumber++;
+        }
+        this.recording = recording;
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Call once per frame after everything has been drawn to the window: reads back frames
+     * captured earlier and captures this one if asked to.
+     */
+    public void endFrame() {
+        long start = TimeUtils.nanoTime();
+        boolean wanted = screenshotRequested || recording && frame % clipInterval == 0;
+        if (!allocated && !wanted) {
+            frame++;
+            return;
+        }
+
+        // A window resize drops anything in flight; the buffers are rebuilt at the new size
+        int backWidth = Gdx.graphics.getBackBufferWidth();
+        int backHeight = Gdx.graphics.getBackBufferHeight();
+        if (!allocated || backWidth != width || backHeight != height) {
+            allocate(backWidth, backHeight);
+        }
+
+        for (int i = 0; i < ringSize; i++) {
+            if (slotFrame[i] >= 0 && frame - slotFrame[i] >= ringSize - 1) {
+                readBack(i);
+            }
+        }
+
+        if (wanted) {
+            int slot = nextSlot;
+            if (slotFrame[slot] >= 0) {
+                readBack(slot); // ring is full; only happens with a ring of one
+            }
+            readback.capture(slot);
+            slotFrame[slot] = frame;
+            slotScreenshot[slot] = screenshotRequested;
+            slotClip[slot] = clipNumber;
+            screenshotRequested = false;
+            nextSlot = (nextSlot + 1) % ringSize;
+        }
+
+        frame++;
+        lastCostNanos = TimeUtils.nanoTime() - start;
+    }
+
+    private void allocate(int newWidth, int newHeight) {
+        width = newWidth;
+        height = newHeight;
+        readback.allocate(ringSize, width, height);
+        allocated = true;
+        for (int i = 0; i < ringSize; i++) {
+            slotFrame[i] = -1;
+        }
+        nextSlot = 0;
+
+        // Pixmaps of the old size are disposed as the encoder hands them back
+        Pixmap pixmap;
+        while ((pixmap = freePixmaps.poll()) != null) {
+            pixmap.dispose();
+        }
+        for (int i = 0; i < poolSize; i++) {
+            freePixmaps.add(new Pixmap(width, height, Pixmap.Format.RGBA8888));
+        }
+    }
+
+    private void readBack(int slot) {
+        final long capturedFrame = slotFrame[slot];
+        final boolean screenshot = slotScreenshot[slot];
+        final int clip = slotClip[slot];
+        slotFrame[slot] = -1;
+
+        final Pixmap pixmap = freePixmaps.poll();
+        if (pixmap == null) {
+            dropped++;
+            return;
+        }
+
+        readback.read(slot, pixmap.getPixels());
+        pixmap.getPixels().position(0);
+
+        encoder.submit(new AsyncTask<Void>() {
+            @Override
+            public Void call() {
+                try {
+                    write(pixmap, screenshot, clip, capturedFrame);
+                    written.incrementAndGet();
+                } catch (IOException e) {
+                    Gdx.app.error("FrameCapture", "Couldn't write frame " + capturedFrame, e);
+                } finally {
+                    release(pixmap);
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Runs on the encoder thread. Screenshots are named by frame; clip frames by clip and frame.
+     * Raw frames are RGBA rows from the bottom of the image up, with the size in the file name.
+     */
+    private void write(Pixmap pixmap, boolean screenshot, int clip, long capturedFrame) throws IOException {
+        int w = pixmap.getWidth();
+        int h = pixmap.getHeight();
+        if (screenshot || clipPng) {
+            String name = screenshot
+                ? String.format("shot-%06d.png", capturedFrame)
+                : String.format("clip%03d-%06d.png", clip, capturedFrame);
+            png.write(directory.child(name), pixmap);
+            return;
+        }
+
+        FileHandle file = directory.child(String.format("clip%03d-%dx%d-%06d.rgba", clip, w, h, capturedFrame));
+        if (rawRow == null || rawRow.length != w * 4) {
+            rawRow = new byte[w * 4];
+        }
+        ByteBuffer pixels = pixmap.getPixels();
+        OutputStream out = file.write(false, 65536);
+        try {
+            for (int y = 0; y < h; y++) {
+                pixels.position(y * w * 4);
+                pixels.get(rawRow);
+                out.write(rawRow);
+            }
+        } finally {
+            out.close();
+            pixels.position(0);
+        }
+    }
+
+    private void release(Pixmap pixmap) {
+        if (pixmap.getWidth() == width && pixmap.getHeight() == height) {
+            freePixmaps.add(pixmap);
+        } else {
+            pixmap.dispose();
+        }
+    }
+
+    /**
+     * Render-thread time the last {@link #endFrame} took, in milliseconds.
+     */
+    public float getLastCostMillis() {
+        return lastCostNanos / 1000000f;
+    }
+
+    /**
+     * Frames encoded and written so far.
+     */
+    public int getWrittenCount() {
+        return written.get();
+    }
+
+    /**
+     * Frames lost because the encoder had every pixmap queued.
+     */
+    public int getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * Waits for queued frames to be written; frames still on the GPU are lost.
+     */
+    @Override
+    public void dispose() {
+        encoder.dispose();
+        png.dispose();
+        Pixmap pixmap;
+        while ((pixmap = freePixmaps.poll()) != null) {
+            pixmap.dispose();
+        }
+        readback.dispose();
+    }
+}
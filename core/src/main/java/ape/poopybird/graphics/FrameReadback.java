@@ -0,0 +1,37 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.utils.Disposable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * How {@link FrameCapture} gets finished frames off the GPU: each is captured into one of a
+ * number of slots and read back to the CPU some frames later, when the GPU has long finished
+ * with it.
+ *
+ * {@link TextureCopyReadback} works everywhere; a backend that can reach pixel buffer objects
+ * can supply one that never waits on the GPU at all.
+ */
+public interface FrameReadback extends Disposable {
+    /**
+     * (Re)create the slots for frames of a size, dropping anything they held.
+     */
+    void allocate(int slots, int width, int height);
+
+    /**
+     * Capture the window's current contents into a slot.
+     */
+    void capture(int slot);
+
+    /**
+     * Copy a slot's frame into {@code pixels} as RGBA rows from the bottom of the image up.
+     */
+    void read(int slot, ByteBuffer pixels);
+
+    /**
+     * Creates a readback once there is a GL context to create it in.
+     */
+    interface Factory {
+        FrameReadback create();
+    }
+}
@@ -0,0 +1,86 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Side views of a set of models, rendered once into the cells of one texture so distant copies
+ * can be drawn as flat camera-facing quads.
+ *
+ * Each cell frames the model's bounding sphere, so a quad showing cell {@code i} has to be
+ * {@code 2 * radius} wide and tall and centred on the bounds centre to line up with the model.
+ * Cells are laid out from the bottom-left, rows going up, as GL texture coordinates do.
+ */
+public class ImpostorAtlas implements Disposable {
+    private final FrameBuffer frameBuffer;
+    private final int columns;
+    private final int rows;
+
+    public ImpostorAtlas(Model[] models, ModelBounds[] bounds, Environment environment, int cellSize) {
+        // Power-of-two grid so the atlas can be mipmapped on GLES2
+        columns = MathUtils.nextPowerOfTwo(MathUtils.ceil((float) Math.sqrt(models.length)));
+        rows = MathUtils.nextPowerOfTwo(MathUtils.ceil((float) models.length / columns));
+        frameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, columns * cellSize, rows * cellSize, true);
+
+        OrthographicCamera camera = new OrthographicCamera();
+        ModelBatch modelBatch = new ModelBatch();
+        GL20 gl = Gdx.gl20;
+
+        frameBuffer.begin();
+        // Transparent leafy green, so filtering at the edges doesn't darken the silhouettes
+        gl.glClearColor(0.25f, 0.45f, 0.2f, 0f);
+        gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
+        for (int i = 0; i < models.length; i++) {
+            Vector3 center = bounds[i].getCenter();
+            float radius = bounds[i].getRadius();
+            camera.viewportWidth = radius * 2;
+            camera.viewportHeight = radius * 2;
+            camera.near = radius * 0.5f;
+            camera.far = radius * 3.5f;
+            camera.position.set(center.x, center.y, center.z + radius * 2);
+            camera.direction.set(0, 0, -1);
+            camera.up.set(0, 1, 0);
+            camera.update();
+
+            gl.glViewport((i % columns) * cellSize, (i / columns) * cellSize, cellSize, cellSize);
+            modelBatch.begin(camera);
+            modelBatch.render(new ModelInstance(models[i]), environment);
+            modelBatch.end();
+        }
+        frameBuffer.end();
+        modelBatch.dispose();
+
+        Texture texture = frameBuffer.getColorBufferTexture();
+        texture.bind();
+        gl.glGenerateMipmap(GL20.GL_TEXTURE_2D);
+        texture.setFilter(Texture.TextureFilter.MipMapLinearLinear, Texture.TextureFilter.Linear);
+    }
+
+    public Texture getTexture() {
+        return frameBuffer.getColorBufferTexture();
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public void dispose() {
+        frameBuffer.dispose();
+    }
+}
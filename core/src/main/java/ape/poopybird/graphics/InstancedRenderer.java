@@ -0,0 +1,313 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.DirectionalLightsAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix3;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Draws many copies of the same model with one instanced draw call per mesh part (GL3 only).
+ *
+ * Each registered model gets private copies of its meshes with an instance buffer holding one
+ * world transform per instance. Between {@link #begin()} and {@link #render} callers add
+ * transforms; render streams each model's transforms into its buffer and issues the draws, so
+ * the draw count depends only on how many models and parts there are, not on instance count.
+ */
+public class InstancedRenderer implements EntityRenderer {
+    private static final int FLOATS_PER_INSTANCE = 16;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final String VERTEX_SHADER =
+        "attribute vec3 a_position;\n" +
+        "attribute vec4 a_color;\n" +
+        "attribute mat4 i_worldTrans;\n" +
+        "uniform mat4 u_projViewTrans;\n" +
+        "uniform mat4 u_partTrans;\n" +
+        "uniform float u_vertexColors;\n" +
+        "varying vec4 v_color;\n" +
+        "#ifdef normalFlag\n" +
+        "attribute vec3 a_normal;\n" +
+        "uniform mat3 u_partNormal;\n" +
+        "uniform vec3 u_lightDirection;\n" +
+        "uniform vec3 u_lightColor;\n" +
+        "uniform vec3 u_ambient;\n" +
+        "varying vec3 v_light;\n" +
+        "#endif\n" +
+        "void main() {\n" +
+        "    v_color = mix(vec4(1.0), a_color, u_vertexColors);\n" +
+        "    mat4 world = i_worldTrans * u_partTrans;\n" +
+        "#ifdef normalFlag\n" +
+        "    vec3 normal = normalize((i_worldTrans * vec4(u_partNormal * a_normal, 0.0)).xyz);\n" +
+        "    v_light = u_ambient + u_lightColor * max(0.0, dot(normal, -u_lightDirection));\n" +
+        "#endif\n" +
+        "    gl_Position = u_projViewTrans * world * vec4(a_position, 1.0);\n" +
+        "}\n";
+
+    private static final String FRAGMENT_SHADER =
+        "#ifdef GL_ES\n" +
+        "precision mediump float;\n" +
+        "#endif\n" +
+        "uniform vec4 u_diffuse;\n" +
+        "varying vec4 v_color;\n" +
+        "#ifdef normalFlag\n" +
+        "varying vec3 v_light;\n" +
+        "#endif\n" +
+        "void main() {\n" +
+        "    vec4 color = u_diffuse * v_color;\n" +
+        "#ifdef normalFlag\n" +
+        "    color.rgb *= v_light;\n" +
+        "#endif\n" +
+        "    gl_FragColor = color;\n" +
+        "}\n";
+
+    private final ShaderProgram shader;
+    private final ShaderProgram bakedShader;
+    private final Array<Batch> batches;
+    private int drawCalls;
+    private int instanceCount;
+
+    /**
+     * Whether the current GL context can draw instanced.
+     */
+    public static boolean isSupported() {
+        return Gdx.gl30 != null;
+    }
+
+    public InstancedRenderer() {
+        shader = compile("#define normalFlag\n");
+        bakedShader = compile("");
+        batches = new Array<>();
+    }
+
+    private static ShaderProgram compile(String prefix) {
+        ShaderProgram program = new ShaderProgram(prefix + VERTEX_SHADER, prefix + FRAGMENT_SHADER);
+        if (!program.isCompiled()) {
+            throw new GdxRuntimeException("Instanced shader failed to compile: " + program.getLog());
+        }
+        return program;
+    }
+
+    @Override
+    public int register(Model model) {
+        batches.add(new Batch(model));
+        return batches.size - 1;
+    }
+
+    @Override
+    public void begin() {
+        for (int i = 0; i < batches.size; i++) {
+            batches.get(i).count = 0;
+        }
+    }
+
+    @Override
+    public void add(int model, Matrix4 transform) {
+        batches.get(model).add(transform);
+    }
+
+    @Override
+    public void render(Camera camera, Environment environment) {
+        drawCalls = 0;
+        instanceCount = 0;
+
+        GL20 gl = Gdx.gl20;
+        gl.glEnable(GL20.GL_DEPTH_TEST);
+        gl.glDepthFunc(GL20.GL_LEQUAL);
+        gl.glDepthMask(true);
+        gl.glEnable(GL20.GL_CULL_FACE);
+        gl.glCullFace(GL20.GL_BACK);
+
+        // Lit models first, then those with lighting baked into their vertex colours
+        shader.bind();
+        shader.setUniformMatrix("u_projViewTrans", camera.combined);
+        setLights(environment);
+        renderBatches(shader, true);
+
+        bakedShader.bind();
+        bakedShader.setUniformMatrix("u_projViewTrans", camera.combined);
+        renderBatches(bakedShader, false);
+
+        gl.glDisable(GL20.GL_CULL_FACE);
+        gl.glDisable(GL20.GL_DEPTH_TEST);
+    }
+
+    private void renderBatches(ShaderProgram program, boolean lit) {
+        for (int i = 0; i < batches.size; i++) {
+            Batch batch = batches.get(i);
+            if (batch.count == 0 || batch.lit != lit) continue;
+            batch.render(program);
+            instanceCount += batch.count;
+        }
+    }
+
+    private void setLights(Environment environment) {
+        ColorAttribute ambient = environment.get(ColorAttribute.class, ColorAttribute.AmbientLight);
+        if (ambient != null) {
+            shader.setUniformf("u_ambient", ambient.color.r, ambient.color.g, ambient.color.b);
+        } else {
+            shader.setUniformf("u_ambient", 0f, 0f, 0f);
+        }
+
+        DirectionalLightsAttribute lights = environment.get(DirectionalLightsAttribute.class,
+            DirectionalLightsAttribute.Type);
+        if (lights != null && lights.lights.size > 0) {
+            DirectionalLight light = lights.lights.first();
+            shader.setUniformf("u_lightDirection", light.direction);
+            shader.setUniformf("u_lightColor", light.color.r, light.color.g, light.color.b);
+        } else {
+            shader.setUniformf("u_lightColor", 0f, 0f, 0f);
+        }
+    }
+
+    @Override
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    @Override
+    public int getInstanceCount() {
+        return instanceCount;
+    }
+
+    @Override
+    public void dispose() {
+        shader.dispose();
+        bakedShader.dispose();
+        for (int i = 0; i < batches.size; i++) {
+            batches.get(i).dispose();
+        }
+        batches.clear();
+    }
+
+    /**
+     * One model's instanced meshes and parts, and the transforms queued for it this frame.
+     */
+    private class Batch implements Disposable {
+        private final Array<Mesh> meshes;
+        private final Array<Mesh> partMeshes;
+        private final Array<MeshPart> parts;
+        private final Array<Matrix4> partTransforms;
+        private final Array<Matrix3> partNormals;
+        private final Array<Color> partColors;
+        private final boolean lit;
+        private float[] data;
+        private int capacity;
+        private int count;
+
+        Batch(Model model) {
+            meshes = new Array<>();
+            partMeshes = new Array<>();
+            parts = new Array<>();
+            partTransforms = new Array<>();
+            partNormals = new Array<>();
+            partColors = new Array<>();
+            capacity = INITIAL_CAPACITY;
+            data = new float[capacity * FLOATS_PER_INSTANCE];
+
+            ObjectMap<Mesh, Mesh> copies = new ObjectMap<>();
+            for (int i = 0; i < model.nodes.size; i++) {
+                collectParts(model.nodes.get(i), copies);
+            }
+            lit = !LightBaker.isBaked(model);
+        }
+
+        private void collectParts(Node node, ObjectMap<Mesh, Mesh> copies) {
+            for (int i = 0; i < node.parts.size; i++) {
+                NodePart nodePart = node.parts.get(i);
+                Mesh source = nodePart.meshPart.mesh;
+                Mesh copy = copies.get(source);
+                if (copy == null) {
+                    copy = source.copy(true);
+                    enableInstancing(copy, capacity);
+                    copies.put(source, copy);
+                    meshes.add(copy);
+                }
+
+                ColorAttribute diffuse = nodePart.material.get(ColorAttribute.class, ColorAttribute.Diffuse);
+                partMeshes.add(copy);
+                parts.add(nodePart.meshPart);
+                partTransforms.add(node.globalTransform);
+                // Part transforms may scale non-uniformly (compacted meshes do), so normals need
+                // the inverse transpose; instance transforms are only ever uniformly scaled
+                partNormals.add(new Matrix3().set(node.globalTransform).inv().transpose());
+                partColors.add(diffuse != null ? diffuse.color : Color.WHITE);
+            }
+            for (Node child : node.getChildren()) {
+                collectParts(child, copies);
+            }
+        }
+
+        private void enableInstancing(Mesh mesh, int instances) {
+            mesh.enableInstancedRendering(false, instances,
+                new VertexAttribute(VertexAttributes.Usage.Generic, 4, "i_worldTrans", 0),
+                new VertexAttribute(VertexAttributes.Usage.Generic, 4, "i_worldTrans", 1),
+                new VertexAttribute(VertexAttributes.Usage.Generic, 4, "i_worldTrans", 2),
+                new VertexAttribute(VertexAttributes.Usage.Generic, 4, "i_worldTrans", 3));
+        }
+
+        void add(Matrix4 transform) {
+            if (count == capacity) {
+                grow();
+            }
+            System.arraycopy(transform.val, 0, data, count * FLOATS_PER_INSTANCE, FLOATS_PER_INSTANCE);
+            count++;
+        }
+
+        private void grow() {
+            capacity *= 2;
+            float[] grown = new float[capacity * FLOATS_PER_INSTANCE];
+            System.arraycopy(data, 0, grown, 0, data.length);
+            data = grown;
+            for (int i = 0; i < meshes.size; i++) {
+                meshes.get(i).disableInstancedRendering();
+                enableInstancing(meshes.get(i), capacity);
+            }
+        }
+
+        void render(ShaderProgram shader) {
+            for (int m = 0; m < meshes.size; m++) {
+                Mesh mesh = meshes.get(m);
+                mesh.setInstanceData(data, 0, count * FLOATS_PER_INSTANCE);
+                mesh.bind(shader);
+                boolean vertexColors = mesh.getVertexAttribute(VertexAttributes.Usage.ColorPacked) != null;
+                shader.setUniformf("u_vertexColors", vertexColors ? 1f : 0f);
+                for (int i = 0; i < parts.size; i++) {
+                    if (partMeshes.get(i) != mesh) continue;
+
+                    MeshPart part = parts.get(i);
+                    shader.setUniformMatrix("u_partTrans", partTransforms.get(i));
+                    if (lit) shader.setUniformMatrix("u_partNormal", partNormals.get(i));
+                    shader.setUniformf("u_diffuse", partColors.get(i));
+                    mesh.render(shader, part.primitiveType, part.offset, part.size, false);
+                    drawCalls++;
+                }
+                mesh.unbind(shader);
+            }
+        }
+
+        @Override
+        public void dispose() {
+            for (int i = 0; i < meshes.size; i++) {
+                meshes.get(i).dispose();
+            }
+        }
+    }
+}
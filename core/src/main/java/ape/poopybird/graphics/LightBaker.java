@@ -0,0 +1,239 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.DirectionalLightsAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix3;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.ShortArray;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Bakes the environment's ambient and directional light into the vertex colours of a merged
+ * model (see {@link ModelMerger}) that never moves or turns, and drops its normals.
+ *
+ * Ambient light is scaled by ambient occlusion, the share of rays over each vertex's
+ * hemisphere that escape the model and the ground plane. The directional light is cut off
+ * where the model shadows itself. Meshes without normals are treated as already lit by
+ * {@link FlatShader} and the entity renderers; see {@link #isBaked(Model)}.
+ */
+public class LightBaker {
+    private static final int OCCLUSION_RAYS = 24;
+    private static final float RAY_OFFSET = 0.01f;
+
+    // Cosine-weighted directions around +Z, rotated onto each vertex's normal
+    private static final float[] HEMISPHERE = new float[OCCLUSION_RAYS * 3];
+
+    static {
+        // Golden-angle spiral so the fixed set covers the hemisphere evenly
+        for (int i = 0; i < OCCLUSION_RAYS; i++) {
+            float r = (float) Math.sqrt((i + 0.5f) / OCCLUSION_RAYS);
+            float angle = i * 2.3999632f;
+            HEMISPHERE[i * 3] = r * MathUtils.cos(angle);
+            HEMISPHERE[i * 3 + 1] = r * MathUtils.sin(angle);
+            HEMISPHERE[i * 3 + 2] = (float) Math.sqrt(1f - r * r);
+        }
+    }
+
+    /**
+     * Whether a model's lighting has been baked into its vertex colours.
+     */
+    public static boolean isBaked(Model model) {
+        return model.meshes.size > 0
+            && model.meshes.first().getVertexAttribute(VertexAttributes.Usage.Normal) == null;
+    }
+
+    /**
+     * @param occlusionDistance how far away geometry still occludes; about the size of the
+     *                          gaps that should darken
+     * @param groundY           height of the ground plane in model space, or NaN for none
+     */
+    public static Model bake(Model source, Environment environment, float occlusionDistance, float groundY) {
+        if (source.nodes.size != 1 || source.nodes.first().parts.size != 1
+            || source.nodes.first().getChildCount() != 0) {
+            throw new GdxRuntimeException("Only single-part models can be baked, merge them first");
+        }
+        long start = TimeUtils.nanoTime();
+        Node sourceNode = source.nodes.first();
+        NodePart sourcePart = sourceNode.parts.first();
+        MeshPart meshPart = sourcePart.meshPart;
+
+        VertexReader reader = new VertexReader(meshPart.mesh);
+        short[] sourceIndices = new short[meshPart.size];
+        meshPart.mesh.getIndices(meshPart.offset, meshPart.size, sourceIndices, 0);
+
+        // Triangles in model space, for the occlusion rays
+        Matrix3 normalTransform = new Matrix3().set(sourceNode.globalTransform).inv().transpose();
+        IntIntMap remap = new IntIntMap();
+        ShortArray indices = new ShortArray(sourceIndices.length);
+        int vertexCount = 0;
+        for (int i = 0; i < sourceIndices.length; i++) {
+            int vertex = sourceIndices[i] & 0xFFFF;
+            if (!remap.containsKey(vertex)) {
+                remap.put(vertex, vertexCount++);
+            }
+            indices.add(remap.get(vertex, 0));
+        }
+        float[] positions = new float[vertexCount * 3];
+        float[] normals = new float[vertexCount * 3];
+        float[] colors = new float[vertexCount];
+        Vector3 v = new Vector3();
+        for (IntIntMap.Entry entry : remap) {
+            reader.getPosition(entry.key, v).mul(sourceNode.globalTransform);
+            positions[entry.value * 3] = v.x;
+            positions[entry.value * 3 + 1] = v.y;
+            positions[entry.value * 3 + 2] = v.z;
+            reader.getNormal(entry.key, v).mul(normalTransform).nor();
+            normals[entry.value * 3] = v.x;
+            normals[entry.value * 3 + 1] = v.y;
+            normals[entry.value * 3 + 2] = v.z;
+            colors[entry.value] = reader.getColorBits(entry.key);
+        }
+        Occluders occluders = new Occluders(positions, indices.toArray(), groundY);
+
+        Color ambient = new Color(Color.BLACK);
+        ColorAttribute ambientLight = environment.get(ColorAttribute.class, ColorAttribute.AmbientLight);
+        if (ambientLight != null) ambient.set(ambientLight.color);
+        Color lightColor = new Color(Color.BLACK);
+        Vector3 toLight = new Vector3(Vector3.Y);
+        DirectionalLightsAttribute lights = environment.get(DirectionalLightsAttribute.class,
+            DirectionalLightsAttribute.Type);
+        if (lights != null && lights.lights.size > 0) {
+            DirectionalLight light = lights.lights.first();
+            lightColor.set(light.color);
+            toLight.set(light.direction).scl(-1f).nor();
+        }
+        Color diffuse = new Color(Color.WHITE);
+        ColorAttribute diffuseAttribute = sourcePart.material.get(ColorAttribute.class, ColorAttribute.Diffuse);
+        if (diffuseAttribute != null) diffuse.set(diffuseAttribute.color);
+
+        Vector3 origin = new Vector3();
+        Vector3 normal = new Vector3();
+        Vector3 tangent = new Vector3();
+        Vector3 bitangent = new Vector3();
+        Vector3 direction = new Vector3();
+        Color color = new Color();
+        float[] vertices = new float[vertexCount * 4];
+        for (int i = 0; i < vertexCount; i++) {
+            normal.set(normals[i * 3], normals[i * 3 + 1], normals[i * 3 + 2]);
+            origin.set(positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2]).mulAdd(normal, RAY_OFFSET);
+
+            tangent.set(Math.abs(normal.x) < 0.9f ? Vector3.X : Vector3.Y).crs(normal).nor();
+            bitangent.set(normal).crs(tangent);
+            int open = 0;
+            for (int r = 0; r < OCCLUSION_RAYS; r++) {
+                direction.set(tangent).scl(HEMISPHERE[r * 3])
+                    .mulAdd(bitangent, HEMISPHERE[r * 3 + 1])
+                    .mulAdd(normal, HEMISPHERE[r * 3 + 2]);
+                if (!occluders.hit(origin, direction, occlusionDistance)) open++;
+            }
+            float visibility = (float) open / OCCLUSION_RAYS;
+
+            float lambert = Math.max(0f, normal.dot(toLight));
+            if (lambert > 0f && occluders.hit(origin, toLight, Float.MAX_VALUE)) lambert = 0f;
+
+            Color.abgr8888ToColor(color, colors[i]);
+            color.mul(diffuse);
+            float a = color.a;
+            color.mul(ambient.r * visibility + lightColor.r * lambert, ambient.g * visibility + lightColor.g * lambert,
+                ambient.b * visibility + lightColor.b * lambert, 1f).clamp();
+            color.a = a;
+
+            vertices[i * 4] = positions[i * 3];
+            vertices[i * 4 + 1] = positions[i * 3 + 1];
+            vertices[i * 4 + 2] = positions[i * 3 + 2];
+            vertices[i * 4 + 3] = color.toFloatBits();
+        }
+
+        Mesh mesh = new Mesh(true, vertexCount, indices.size,
+            VertexAttribute.Position(), VertexAttribute.ColorPacked());
+        mesh.setVertices(vertices);
+        mesh.setIndices(indices.toArray());
+
+        MeshPart part = new MeshPart("baked", mesh, 0, indices.size, GL20.GL_TRIANGLES);
+        part.update();
+        Material material = new Material(ColorAttribute.createDiffuse(Color.WHITE));
+        Node node = new Node();
+        node.id = sourceNode.id;
+        node.parts.add(new NodePart(part, material));
+
+        Model model = new Model();
+        model.nodes.add(node);
+        model.meshes.add(mesh);
+        model.meshParts.add(part);
+        model.materials.add(material);
+        model.manageDisposable(mesh);
+        model.calculateTransforms();
+
+        Gdx.app.debug("LightBaker", vertexCount + " vertices, " + indices.size / 3 + " triangles baked in "
+            + (TimeUtils.nanoTime() - start) / 1000000 + " ms");
+        source.dispose();
+        return model;
+    }
+
+    /**
+     * A model's triangles and the ground plane, for testing rays against.
+     */
+    private static class Occluders {
+        private final float[] positions;
+        private final short[] indices;
+        private final float groundY;
+        private final Vector3 edge1 = new Vector3();
+        private final Vector3 edge2 = new Vector3();
+        private final Vector3 p = new Vector3();
+        private final Vector3 t = new Vector3();
+        private final Vector3 q = new Vector3();
+
+        Occluders(float[] positions, short[] indices, float groundY) {
+            this.positions = positions;
+            this.indices = indices;
+            this.groundY = groundY;
+        }
+
+        /**
+         * Whether a ray hits anything within {@code maxDistance}.
+         */
+        boolean hit(Vector3 origin, Vector3 direction, float maxDistance) {
+            if (!Float.isNaN(groundY) && direction.y < 0f && (groundY - origin.y) / direction.y < maxDistance) {
+                return true;
+            }
+            for (int i = 0; i < indices.length; i += 3) {
+                int a = indices[i] * 3;
+                int b = indices[i + 1] * 3;
+                int c = indices[i + 2] * 3;
+                edge1.set(positions[b] - positions[a], positions[b + 1] - positions[a + 1], positions[b + 2] - positions[a + 2]);
+                edge2.set(positions[c] - positions[a], positions[c + 1] - positions[a + 1], positions[c + 2] - positions[a + 2]);
+
+                // Moller-Trumbore, hitting both faces since thin parts are often single-sided
+                p.set(direction).crs(edge2);
+                float det = edge1.dot(p);
+                if (Math.abs(det) < 1e-7f) continue;
+                float invDet = 1f / det;
+                t.set(origin.x - positions[a], origin.y - positions[a + 1], origin.z - positions[a + 2]);
+                float u = t.dot(p) * invDet;
+                if (u < 0f || u > 1f) continue;
+                q.set(t).crs(edge1);
+                float w = direction.dot(q) * invDet;
+                if (w < 0f || u + w > 1f) continue;
+                float distance = edge2.dot(q) * invDet;
+                if (distance > 0f && distance < maxDistance) return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Models of decreasing detail for the same object, picked per instance by how much of the
+ * screen its bounding sphere covers.
+ *
+ * Level {@code i + 1} takes over once the sphere's diameter falls below {@code screenSizes[i]}
+ * of the viewport height. To stop instances near a boundary flickering between levels, a
+ * switch only happens once the size is {@code hysteresis} (a fraction) past the boundary.
+ */
+public class LodChain implements Disposable {
+    private final Model[] levels;
+    private final ModelBounds bounds;
+    private final float[] screenSizes;
+    private final float hysteresis;
+    private final Vector3 worldCenter;
+
+    /**
+     * @param levels models from most to least detailed; culling uses the bounds of the first
+     */
+    public LodChain(Model[] levels, float[] screenSizes, float hysteresis) {
+        this.levels = levels;
+        this.bounds = new ModelBounds(levels[0]);
+        this.screenSizes = screenSizes;
+        this.hysteresis = hysteresis;
+        this.worldCenter = new Vector3();
+    }
+
+    /**
+     * Fraction of the viewport height covered by an instance's bounding sphere.
+     */
+    public float getScreenSize(PerspectiveCamera camera, Matrix4 transform) {
+        worldCenter.set(bounds.getCenter()).mul(transform);
+        float scale2 = Math.max(transform.getScaleXSquared(),
+            Math.max(transform.getScaleYSquared(), transform.getScaleZSquared()));
+        float diameter = 2f * bounds.getRadius() * (float) Math.sqrt(scale2);
+        float distance = Math.max(camera.near, worldCenter.dst(camera.position));
+        return diameter / (2f * distance * (float) Math.tan(camera.fieldOfView * 0.5f * MathUtils.degreesToRadians));
+    }
+
+    /**
+     * The level an instance currently drawn at {@code current} should be drawn at now.
+     */
+    public int selectLevel(int current, PerspectiveCamera camera, Matrix4 transform) {
+        float size = getScreenSize(camera, transform);
+        int level = Math.min(current, levels.length - 1);
+        while (level + 1 < levels.length && level < screenSizes.length
+            && size < screenSizes[level] * (1f - hysteresis)) {
+            level++;
+        }
+        while (level > 0 && size > screenSizes[level - 1] * (1f + hysteresis)) {
+            level--;
+        }
+        return level;
+    }
+
+    /**
+     * One instance per level, all sharing one transform so moving one moves all.
+     */
+    public ModelInstance[] createInstances() {
+        ModelInstance[] instances = new ModelInstance[levels.length];
+        Matrix4 transform = new Matrix4();
+        for (int i = 0; i < levels.length; i++) {
+            instances[i] = new ModelInstance(levels[i], transform);
+        }
+        return instances;
+    }
+
+    public int getLevelCount() {
+        return levels.length;
+    }
+
+    public Model getModel(int level) {
+        return levels[level];
+    }
+
+    public ModelBounds getBounds() {
+        return bounds;
+    }
+
+    @Override
+    public void dispose() {
+        for (Model level : levels) {
+            level.dispose();
+        }
+    }
+}
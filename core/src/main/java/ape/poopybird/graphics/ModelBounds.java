@@ -0,0 +1,75 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+
+/**
+ * Bounding sphere of a model in its local space, computed once from the model's bounding box.
+ * Instances are tested by moving the sphere with their transform.
+ *
+ * The box is built through {@link VertexReader} rather than {@link Model#calculateBoundingBox},
+ * which assumes float positions and so can't measure compacted meshes.
+ */
+public class ModelBounds {
+    private final BoundingBox box;
+    private final Vector3 center;
+    private final float radius;
+    private final Vector3 worldCenter;
+
+    public ModelBounds(Model model) {
+        box = new BoundingBox().inf();
+        for (int i = 0; i < model.nodes.size; i++) {
+            extend(box, model.nodes.get(i));
+        }
+        this.center = box.getCenter(new Vector3());
+        this.radius = box.getDimensions(new Vector3()).len() / 2f;
+        this.worldCenter = new Vector3();
+    }
+
+    private static void extend(BoundingBox box, Node node) {
+        Vector3 position = new Vector3();
+        for (int i = 0; i < node.parts.size; i++) {
+            MeshPart part = node.parts.get(i).meshPart;
+            VertexReader reader = new VertexReader(part.mesh);
+            short[] indices = new short[part.size];
+            part.mesh.getIndices(part.offset, part.size, indices, 0);
+            for (int j = 0; j < indices.length; j++) {
+                box.ext(reader.getPosition(indices[j] & 0xFFFF, position).mul(node.globalTransform));
+            }
+        }
+        for (Node child : node.getChildren()) {
+            extend(box, child);
+        }
+    }
+
+    /**
+     * Whether an instance of the model with this transform (translation, rotation and scale)
+     * can be seen through the frustum.
+     */
+    public boolean isVisible(Frustum frustum, Matrix4 transform) {
+        worldCenter.set(center).mul(transform);
+        float scale2 = Math.max(transform.getScaleXSquared(),
+            Math.max(transform.getScaleYSquared(), transform.getScaleZSquared()));
+        return frustum.sphereInFrustum(worldCenter, radius * (float) Math.sqrt(scale2));
+    }
+
+    /**
+     * The model's bounding box in its local space.
+     */
+    public BoundingBox getBox() {
+        return box;
+    }
+
+    public Vector3 getCenter() {
+        return center;
+    }
+
+    public float getRadius() {
+        return radius;
+    }
+}
@@ -0,0 +1,121 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import ape.poopybird.entities.BirdType;
+import ape.poopybird.entities.TargetType;
+import ape.poopybird.util.Constants;
+
+/**
+ * Turns freshly built models into the form they are drawn in: merged into as few parts as
+ * possible, with lighting baked in for those that never move, and vertices compacted, as
+ * configured in {@link Constants}.
+ *
+ * The game and the shader warm-up both build through here, so the warm-up sees the same vertex
+ * layouts and materials, and with them the same shaders, as the game. Each factory totals what
+ * merging and compaction saved on the models it built.
+ */
+public class ModelFactory {
+    private final ModelBuilder modelBuilder;
+    private final Environment environment;
+
+    private int partsBefore;
+    private int partsAfter;
+    private int bytesBefore;
+    private int bytesAfter;
+
+    public ModelFactory(ModelBuilder modelBuilder, Environment environment) {
+        this.modelBuilder = modelBuilder;
+        this.environment = environment;
+    }
+
+    /**
+     * The park's lighting - bright and cheerful.
+     */
+    public static Environment createEnvironment() {
+        Environment environment = new Environment();
+        environment.set(new ColorAttribute(ColorAttribute.AmbientLight, 0.6f, 0.6f, 0.6f, 1f));
+        environment.add(new DirectionalLight().set(1f, 0.95f, 0.8f, -0.3f, -1f, -0.5f));
+        return environment;
+    }
+
+    /**
+     * Merge a freshly built multi-part model and, if enabled, compact its vertices.
+     */
+    public Model build(Model source) {
+        Model merged = merge(source);
+        return Constants.COMPACT_VERTICES ? compact(merged) : merged;
+    }
+
+    /**
+     * Like {@link #build(Model)} for models that never move or turn, with the lighting baked
+     * into their vertex colours if enabled.
+     *
+     * @param groundY height of the ground in model space, for contact shadows, or NaN for none
+     */
+    public Model buildStatic(Model source, float groundY) {
+        if (!Constants.BAKE_STATIC_LIGHTING) {
+            return build(source);
+        }
+        Model merged = merge(source);
+        Model baked = LightBaker.bake(merged, environment, Constants.BAKE_OCCLUSION_DISTANCE, groundY);
+        return Constants.COMPACT_VERTICES ? compact(baked) : baked;
+    }
+
+    public Model buildBird(BirdType type, int lod) {
+        // Not compacted: the wing hinges are in model units, which compaction rescales
+        return merge(OrigamiBirdBuilder.buildBird(modelBuilder, type, lod));
+    }
+
+    public Model buildTarget(TargetType type, int lod) {
+        Model target = TargetModelBuilder.buildTarget(modelBuilder, type, lod);
+        return type.isStatic() ? buildStatic(target, 0f) : build(target);
+    }
+
+    private Model merge(Model source) {
+        partsBefore += ModelMerger.countParts(source);
+        partsAfter += 1;
+        return ModelMerger.merge(modelBuilder, source);
+    }
+
+    private Model compact(Model source) {
+        bytesBefore += VertexCompactor.getBytes(source);
+        Model compacted = VertexCompactor.compact(source);
+        bytesAfter += VertexCompactor.getBytes(compacted);
+        return compacted;
+    }
+
+    /**
+     * Parts in the models this factory merged, which is the draw calls a copy of each cost
+     * before merging.
+     */
+    public int getPartsBefore() {
+        return partsBefore;
+    }
+
+    public int getPartsAfter() {
+        return partsAfter;
+    }
+
+    /**
+     * Vertex and index memory of the models this factory compacted, before compaction.
+     */
+    public int getBytesBefore() {
+        return bytesBefore;
+    }
+
+    public int getBytesAfter() {
+        return bytesAfter;
+    }
+
+    public ModelBuilder getModelBuilder() {
+        return modelBuilder;
+    }
+
+    public Environment getEnvironment() {
+        return environment;
+    }
+}
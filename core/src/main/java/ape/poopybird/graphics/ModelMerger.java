@@ -0,0 +1,141 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.graphics.g3d.utils.MeshPartBuilder;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.math.Matrix3;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.IntIntMap;
+
+/**
+ * Flattens a procedural model built from several single-colour parts into one part with
+ * per-vertex colour and a single white material, so it renders with one draw call and no
+ * material switches.
+ *
+ * Each part's diffuse colour is baked into its vertices (multiplied with any vertex colour it
+ * already had) and node transforms are applied, so the merged model looks the same under the
+ * default shader. Wing hinges (see {@link FlapAttribute}) are carried over, assuming the wing
+ * parts' nodes don't move them.
+ */
+public class ModelMerger {
+
+    public static Model merge(ModelBuilder modelBuilder, Model source) {
+        int parts = countParts(source);
+        Material material = new Material(ColorAttribute.createDiffuse(Color.WHITE));
+
+        modelBuilder.begin();
+        VertexAttributes attributes = hasHinges(source.nodes)
+            ? new VertexAttributes(VertexAttribute.Position(), VertexAttribute.Normal(), VertexAttribute.ColorPacked(),
+                FlapAttribute.hinge())
+            : new VertexAttributes(VertexAttribute.Position(), VertexAttribute.Normal(), VertexAttribute.ColorPacked());
+        MeshPartBuilder builder = modelBuilder.part("merged", GL20.GL_TRIANGLES, attributes, material);
+        for (int i = 0; i < source.nodes.size; i++) {
+            appendNode(builder, source.nodes.get(i));
+        }
+        Model merged = modelBuilder.end();
+
+        Gdx.app.debug("ModelMerger", parts + " parts / " + source.materials.size + " materials -> 1");
+
+        source.dispose();
+        return merged;
+    }
+
+    private static boolean hasHinges(Iterable<Node> nodes) {
+        for (Node node : nodes) {
+            for (int i = 0; i < node.parts.size; i++) {
+                VertexAttributes attributes = node.parts.get(i).meshPart.mesh.getVertexAttributes();
+                if (VertexReader.findAlias(attributes, FlapAttribute.HINGE_ALIAS) != null) return true;
+            }
+            if (hasHinges(node.getChildren())) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parts in a model, which is the draw calls each copy of it costs.
+     */
+    public static int countParts(Model model) {
+        return countParts(model.nodes);
+    }
+
+    private static int countParts(Iterable<Node> nodes) {
+        int count = 0;
+        for (Node node : nodes) {
+            count += node.parts.size + countParts(node.getChildren());
+        }
+        return count;
+    }
+
+    private static void appendNode(MeshPartBuilder builder, Node node) {
+        Matrix4 transform = node.globalTransform;
+        Matrix3 normalTransform = new Matrix3().set(transform).inv().transpose();
+
+        for (int i = 0; i < node.parts.size; i++) {
+            NodePart part = node.parts.get(i);
+            if (part.meshPart.primitiveType != GL20.GL_TRIANGLES) continue;
+
+            ColorAttribute diffuse = part.material.get(ColorAttribute.class, ColorAttribute.Diffuse);
+            appendPart(builder, part, transform, normalTransform, diffuse != null ? diffuse.color : Color.WHITE);
+        }
+        for (Node child : node.getChildren()) {
+            appendNode(builder, child);
+        }
+    }
+
+    private static void appendPart(MeshPartBuilder builder, NodePart part, Matrix4 transform,
+                                   Matrix3 normalTransform, Color partColor) {
+        Mesh mesh = part.meshPart.mesh;
+        VertexReader reader = new VertexReader(mesh);
+        short[] indices = new short[part.meshPart.size];
+        mesh.getIndices(part.meshPart.offset, part.meshPart.size, indices, 0);
+
+        Vector3 position = new Vector3();
+        Vector3 normal = new Vector3();
+        Vector2 hinge = new Vector2();
+        Color color = new Color();
+        Color vertexColor = new Color();
+        float[] vertex = new float[builder.getAttributes().vertexSize / 4];
+
+        // Copy each source vertex once, however many triangles share it
+        IntIntMap copied = new IntIntMap();
+        for (int i = 0; i < indices.length; i++) {
+            int source = indices[i] & 0xFFFF;
+            int target = copied.get(source, -1);
+            if (target < 0) {
+                reader.getPosition(source, position).mul(transform);
+                reader.getNormal(source, normal).mul(normalTransform).nor();
+                Color.abgr8888ToColor(vertexColor, reader.getColorBits(source));
+                color.set(partColor).mul(vertexColor);
+                reader.getHinge(source, hinge);
+
+                // Position, normal, colour and, if the layout has one, the wing hinge
+                vertex[0] = position.x;
+                vertex[1] = position.y;
+                vertex[2] = position.z;
+                vertex[3] = normal.x;
+                vertex[4] = normal.y;
+                vertex[5] = normal.z;
+                vertex[6] = color.toFloatBits();
+                if (vertex.length > 7) {
+                    vertex[7] = hinge.x;
+                    vertex[8] = hinge.y;
+                }
+                target = builder.vertex(vertex) & 0xFFFF;
+                copied.put(source, target);
+            }
+            builder.index((short) target);
+        }
+    }
+}
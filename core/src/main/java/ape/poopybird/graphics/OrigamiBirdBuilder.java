@@ -2,6 +2,7 @@ package ape.poopybird.graphics;
 
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.VertexAttribute;
 import com.badlogic.gdx.graphics.VertexAttributes;
 import com.badlogic.gdx.graphics.g3d.Material;
 import com.badlogic.gdx.graphics.g3d.Model;
@@ -14,6 +15,18 @@ import ape.poopybird.entities.BirdType;
 public class OrigamiBirdBuilder {
 
     public static Model buildBird(ModelBuilder modelBuilder, BirdType birdType) {
+        return buildBird(modelBuilder, birdType, 0);
+    }
+
+    /**
+     * @param lod level of detail: 0 is the full model, 1 drops the tail and the hidden back of
+     *            the body, 2 or more is one double-sided triangle from wingtip to wingtip to beak
+     */
+    public static Model buildBird(ModelBuilder modelBuilder, BirdType birdType, int lod) {
+        if (lod >= 2) {
+            return buildSilhouette(modelBuilder, birdType);
+        }
+
         float scale = birdType.getScale();
         float wingSize = birdType.getWingSize();
         Color bodyColor = getBodyColor(birdType);
@@ -47,12 +60,14 @@ public class OrigamiBirdBuilder {
         // Bottom face
         bodyBuilder.triangle(beak, backBottomLeft, backBottomRight);
         // Back face
-        bodyBuilder.triangle(backTop, backBottomRight, backBottomLeft);
+        if (lod == 0) {
+            bodyBuilder.triangle(backTop, backBottomRight, backBottomLeft);
+        }
 
-        // Wings - flat triangles
+        // Wings - flat triangles, hinged at the sides of the body so they can flap
         Material wingMaterial = new Material(ColorAttribute.createDiffuse(wingColor));
         MeshPartBuilder wingBuilder = modelBuilder.part("wings", GL20.GL_TRIANGLES,
-            VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal,
+            new VertexAttributes(VertexAttribute.Position(), VertexAttribute.Normal(), FlapAttribute.hinge()),
             wingMaterial);
 
         float wingLength = wingSize * scale;
@@ -62,15 +77,19 @@ public class OrigamiBirdBuilder {
         Vector3 lwBase1 = new Vector3(-bodyWidth / 2, 0, 0);
         Vector3 lwBase2 = new Vector3(-bodyWidth / 2, 0, -wingDepth);
         Vector3 lwTip = new Vector3(-wingLength, 0, -wingDepth / 2);
-        wingBuilder.triangle(lwBase1, lwTip, lwBase2);
-        wingBuilder.triangle(lwBase2, lwTip, lwBase1); // Double-sided
+        wingTriangle(wingBuilder, -1f, -bodyWidth / 2, lwBase1, lwTip, lwBase2);
+        wingTriangle(wingBuilder, -1f, -bodyWidth / 2, lwBase2, lwTip, lwBase1); // Double-sided
 
         // Right wing
         Vector3 rwBase1 = new Vector3(bodyWidth / 2, 0, 0);
         Vector3 rwBase2 = new Vector3(bodyWidth / 2, 0, -wingDepth);
         Vector3 rwTip = new Vector3(wingLength, 0, -wingDepth / 2);
-        wingBuilder.triangle(rwBase1, rwBase2, rwTip);
-        wingBuilder.triangle(rwTip, rwBase2, rwBase1); // Double-sided
+        wingTriangle(wingBuilder, 1f, bodyWidth / 2, rwBase1, rwBase2, rwTip);
+        wingTriangle(wingBuilder, 1f, bodyWidth / 2, rwTip, rwBase2, rwBase1); // Double-sided
+
+        if (lod > 0) {
+            return modelBuilder.end();
+        }
 
         // Tail - small triangle at back
         Material tailMaterial = new Material(ColorAttribute.createDiffuse(wingColor.cpy().mul(0.8f)));
@@ -90,6 +109,41 @@ public class OrigamiBirdBuilder {
         return modelBuilder.end();
     }
 
+    /**
+     * A wing triangle whose vertices fold about the hinge line at {@code hingeX} (see
+     * {@link FlapAttribute}). Normals point away from the origin, like the builder's own.
+     */
+    private static void wingTriangle(MeshPartBuilder builder, float side, float hingeX,
+                                     Vector3 p1, Vector3 p2, Vector3 p3) {
+        builder.triangle(wingVertex(builder, side, hingeX, p1), wingVertex(builder, side, hingeX, p2),
+            wingVertex(builder, side, hingeX, p3));
+    }
+
+    private static short wingVertex(MeshPartBuilder builder, float side, float hingeX, Vector3 p) {
+        Vector3 normal = new Vector3(p).nor();
+        return builder.vertex(p.x, p.y, p.z, normal.x, normal.y, normal.z, side, hingeX);
+    }
+
+    private static Model buildSilhouette(ModelBuilder modelBuilder, BirdType birdType) {
+        float scale = birdType.getScale();
+        float wingLength = birdType.getWingSize() * scale;
+        float bodyLength = 1.5f * scale;
+
+        modelBuilder.begin();
+        Material material = new Material(ColorAttribute.createDiffuse(getWingColor(birdType)));
+        MeshPartBuilder builder = modelBuilder.part("silhouette", GL20.GL_TRIANGLES,
+            VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal,
+            material);
+
+        Vector3 beak = new Vector3(0, 0, bodyLength / 2);
+        Vector3 leftTip = new Vector3(-wingLength, 0, -0.4f * scale);
+        Vector3 rightTip = new Vector3(wingLength, 0, -0.4f * scale);
+        builder.triangle(beak, rightTip, leftTip);
+        builder.triangle(beak, leftTip, rightTip); // Double-sided
+
+        return modelBuilder.end();
+    }
+
     private static Color getBodyColor(BirdType type) {
         switch (type) {
             case SPARROW: return new Color(0.6f, 0.45f, 0.3f, 1f);  // Brown
@@ -0,0 +1,273 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Short-lived effect particles (poop splashes, feathers, confetti) kept in preallocated
+ * parallel arrays, one per field, with dead particles swapped out so the live ones stay packed
+ * at the front.
+ *
+ * Each frame {@link #update} moves them and writes a camera-facing quad per particle into one
+ * mesh, drawn as a single unlit renderable. How many may be alive at once adapts to a time
+ * budget: if a frame's update overruns it, the limit drops and further emissions are skipped
+ * until updates fit again, so a barrage degrades to fewer particles rather than a slow frame.
+ */
+public class ParticleSystem implements RenderableProvider, Disposable {
+    private static final int FLOATS_PER_VERTEX = 4; // position, packed colour
+    private static final int MIN_LIMIT = 64;
+    private static final float FADE = 0.3f; // last fraction of a life spent shrinking away
+    private static final long SEED = 0x94D049BB133111EBL;
+
+    private static final Color[] CONFETTI_COLORS = {
+        new Color(1f, 0.25f, 0.3f, 1f), new Color(1f, 0.85f, 0.2f, 1f), new Color(0.3f, 0.8f, 0.35f, 1f),
+        new Color(0.25f, 0.55f, 1f, 1f), new Color(0.85f, 0.4f, 1f, 1f)
+    };
+    private static final float SPLASH_COLOR = new Color(0.4f, 0.27f, 0.13f, 1f).toFloatBits();
+    private static final float FEATHER_COLOR = new Color(0.95f, 0.93f, 0.88f, 1f).toFloatBits();
+
+    private final int capacity;
+    private final float groundY;
+    private final long frameBudgetNanos;
+
+    private final float[] x;
+    private final float[] y;
+    private final float[] z;
+    private final float[] vx;
+    private final float[] vy;
+    private final float[] vz;
+    private final float[] gravity;
+    private final float[] drag;
+    private final float[] age;
+    private final float[] life;
+    private final float[] size;
+    private final float[] color;
+
+    private final float[] vertices;
+    private final Mesh mesh;
+    private final Material material;
+    private final Vector3 right;
+    private final Vector3 up;
+    // Own generator: effects are emitted outside the simulation, which owns MathUtils.random for rewinds
+    private final RandomXS128 random;
+
+    private int count;
+    private int limit;
+    private long lastUpdateNanos;
+
+    public ParticleSystem(int capacity, float groundY, float frameBudgetMillis) {
+        this.capacity = capacity;
+        this.groundY = groundY;
+        this.frameBudgetNanos = (long) (frameBudgetMillis * 1000000);
+        this.limit = capacity;
+
+        x = new float[capacity];
+        y = new float[capacity];
+        z = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        vz = new float[capacity];
+        gravity = new float[capacity];
+        drag = new float[capacity];
+        age = new float[capacity];
+        life = new float[capacity];
+        size = new float[capacity];
+        color = new float[capacity];
+
+        vertices = new float[capacity * 4 * FLOATS_PER_VERTEX];
+        short[] indices = new short[capacity * 6];
+        for (int i = 0; i < capacity; i++) {
+            int v = i * 4;
+            indices[i * 6] = (short) v;
+            indices[i * 6 + 1] = (short) (v + 1);
+            indices[i * 6 + 2] = (short) (v + 2);
+            indices[i * 6 + 3] = (short) (v + 2);
+            indices[i * 6 + 4] = (short) (v + 3);
+            indices[i * 6 + 5] = (short) v;
+        }
+        mesh = new Mesh(false, capacity * 4, indices.length, VertexAttribute.Position(), VertexAttribute.ColorPacked());
+        mesh.setIndices(indices);
+        material = new Material(ColorAttribute.createDiffuse(Color.WHITE));
+        right = new Vector3();
+        up = new Vector3();
+        random = new RandomXS128(SEED);
+    }
+
+    /**
+     * Brown droplets thrown up where a poop lands.
+     */
+    public void splash(float px, float py, float pz) {
+        for (int i = 0; i < 14; i++) {
+            float angle = random(0f, MathUtils.PI2);
+            float speed = random(1.5f, 4f);
+            emit(px, py, pz, MathUtils.cos(angle) * speed, random(3f, 6f), MathUtils.sin(angle) * speed,
+                9.8f, 0.5f, random(0.5f, 0.9f), random(0.2f, 0.35f), SPLASH_COLOR);
+        }
+    }
+
+    /**
+     * Feathers shaken loose by a bird picking something up; they drift down slowly.
+     */
+    public void feathers(float px, float py, float pz) {
+        for (int i = 0; i < 10; i++) {
+            emit(px, py, pz, random(-3f, 3f), random(0f, 2f), random(-3f, 3f),
+                1.5f, 2.5f, random(1.5f, 2.5f), random(0.35f, 0.5f), FEATHER_COLOR);
+        }
+    }
+
+    /**
+     * A burst of coloured confetti for a bullseye, which settles on the ground.
+     */
+    public void confetti(float px, float py, float pz) {
+        for (int i = 0; i < 40; i++) {
+            float angle = random(0f, MathUtils.PI2);
+            float speed = random(1f, 5f);
+            Color c = CONFETTI_COLORS[random.nextInt(CONFETTI_COLORS.length)];
+            emit(px, py, pz, MathUtils.cos(angle) * speed, random(6f, 11f), MathUtils.sin(angle) * speed,
+                6f, 1.2f, random(2f, 3f), random(0.25f, 0.4f), c.toFloatBits());
+        }
+    }
+
+    private float random(float min, float max) {
+        return min + random.nextFloat() * (max - min);
+    }
+
+    private void emit(float px, float py, float pz, float svx, float svy, float svz,
+                      float g, float d, float lifetime, float s, float c) {
+        if (count >= limit) return;
+        int i = count++;
+        x[i] = px;
+        y[i] = py;
+        z[i] = pz;
+        vx[i] = svx;
+        vy[i] = svy;
+        vz[i] = svz;
+        gravity[i] = g;
+        drag[i] = d;
+        age[i] = 0f;
+        life[i] = lifetime;
+        size[i] = s;
+        color[i] = c;
+    }
+
+    /**
+     * Age and move the particles, then rebuild their quads to face the camera.
+     */
+    public void update(float delta, Camera camera) {
+        long start = TimeUtils.nanoTime();
+
+        for (int i = count - 1; i >= 0; i--) {
+            age[i] += delta;
+            if (age[i] >= life[i]) {
+                remove(i);
+                continue;
+            }
+            float damping = Math.max(0f, 1f - drag[i] * delta);
+            vx[i] *= damping;
+            vy[i] = vy[i] * damping - gravity[i] * delta;
+            vz[i] *= damping;
+            x[i] += vx[i] * delta;
+            y[i] += vy[i] * delta;
+            z[i] += vz[i] * delta;
+            if (y[i] < groundY) {
+                // Come to rest on the ground
+                y[i] = groundY;
+                vx[i] = vy[i] = vz[i] = 0f;
+            }
+        }
+
+        right.set(camera.direction).crs(camera.up).nor();
+        up.set(right).crs(camera.direction).nor();
+        int o = 0;
+        for (int i = 0; i < count; i++) {
+            float remaining = (life[i] - age[i]) / (life[i] * FADE);
+            float half = size[i] * 0.5f * Math.min(1f, remaining);
+            float rx = right.x * half, ry = right.y * half, rz = right.z * half;
+            float ux = up.x * half, uy = up.y * half, uz = up.z * half;
+            o = corner(o, x[i] - rx - ux, y[i] - ry - uy, z[i] - rz - uz, color[i]);
+            o = corner(o, x[i] + rx - ux, y[i] + ry - uy, z[i] + rz - uz, color[i]);
+            o = corner(o, x[i] + rx + ux, y[i] + ry + uy, z[i] + rz + uz, color[i]);
+            o = corner(o, x[i] - rx + ux, y[i] - ry + uy, z[i] - rz + uz, color[i]);
+        }
+
+        // Shrink the limit when over budget, win it back slowly when under
+        lastUpdateNanos = TimeUtils.nanoTime() - start;
+        if (lastUpdateNanos > frameBudgetNanos) {
+            limit = Math.max(MIN_LIMIT, Math.min(limit, count) * 3 / 4);
+        } else if (limit < capacity) {
+            limit = Math.min(capacity, limit + MIN_LIMIT);
+        }
+    }
+
+    private int corner(int o, float cx, float cy, float cz, float c) {
+        vertices[o] = cx;
+        vertices[o + 1] = cy;
+        vertices[o + 2] = cz;
+        vertices[o + 3] = c;
+        return o + FLOATS_PER_VERTEX;
+    }
+
+    private void remove(int i) {
+        int last = --count;
+        x[i] = x[last];
+        y[i] = y[last];
+        z[i] = z[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        vz[i] = vz[last];
+        gravity[i] = gravity[last];
+        drag[i] = drag[last];
+        age[i] = age[last];
+        life[i] = life[last];
+        size[i] = size[last];
+        color[i] = color[last];
+    }
+
+    @Override
+    public void getRenderables(Array<Renderable> renderables, Pool<Renderable> pool) {
+        if (count == 0) return;
+        mesh.updateVertices(0, vertices, 0, count * 4 * FLOATS_PER_VERTEX);
+
+        Renderable renderable = pool.obtain();
+        renderable.meshPart.set("particles", mesh, 0, count * 6, GL20.GL_TRIANGLES);
+        renderable.meshPart.center.setZero();
+        renderable.material = material;
+        renderable.worldTransform.idt();
+        renderable.environment = null; // flat coloured
+        renderables.add(renderable);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * How many particles may currently be alive, after adapting to the time budget.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    public float getLastUpdateMillis() {
+        return lastUpdateNanos / 1000000f;
+    }
+
+    @Override
+    public void dispose() {
+        mesh.dispose();
+    }
+}
@@ -0,0 +1,180 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.Shader;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.utils.RenderableSorter;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.util.Arrays;
+
+/**
+ * Sorts ModelBatch's renderables by a 64-bit key with an LSD radix sort, to minimise state
+ * changes rather than only ordering by depth as the default sorter does.
+ *
+ * Opaque renderables are keyed shader, then material, then mesh, then distance, so state
+ * changes as rarely as possible and each run is drawn front to back. Blended ones come after
+ * them all, far to near, and only group by state at equal distance. Distances are the raw
+ * bits of the squared distance, which order like the floats they are.
+ *
+ * Shader, material and mesh ids are handed out afresh each frame in order of first use, so
+ * they stay small; any past the field width share the last id and merely group less well.
+ * Buffers only grow, so a steady frame allocates nothing.
+ */
+public class RadixRenderableSorter implements RenderableSorter {
+    private static final int SHADER_BITS = 8;
+    private static final int MATERIAL_BITS = 12;
+    private static final int MESH_BITS = 12;
+    private static final int DEPTH_BITS = 31;
+    private static final long BLENDED = 1L << 63;
+
+    private final ObjectIntMap<Shader> shaderIds = new ObjectIntMap<>();
+    private final ObjectIntMap<Material> materialIds = new ObjectIntMap<>();
+    private final ObjectIntMap<Mesh> meshIds = new ObjectIntMap<>();
+    private final int[] counts = new int[256];
+    private final Vector3 center = new Vector3();
+
+    private long[] keys = new long[0];
+    private long[] keysSwap = new long[0];
+    private int[] order = new int[0];
+    private int[] orderSwap = new int[0];
+    private Renderable[] sorted = new Renderable[0];
+
+    private int shaderChanges;
+    private int materialChanges;
+    private int meshChanges;
+
+    @Override
+    public void sort(Camera camera, Array<Renderable> renderables) {
+        int count = renderables.size;
+        ensureCapacity(count);
+        shaderIds.clear();
+        materialIds.clear();
+        meshIds.clear();
+
+        for (int i = 0; i < count; i++) {
+            keys[i] = key(camera, renderables.get(i));
+            order[i] = i;
+        }
+        radixSort(count);
+
+        for (int i = 0; i < count; i++) {
+            sorted[i] = renderables.get(order[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            renderables.set(i, sorted[i]);
+        }
+        Arrays.fill(sorted, 0, count, null);
+
+        countStateChanges(renderables);
+    }
+
+    private long key(Camera camera, Renderable renderable) {
+        long shader = id(shaderIds, renderable.shader, SHADER_BITS);
+        long material = id(materialIds, renderable.material, MATERIAL_BITS);
+        long mesh = id(meshIds, renderable.meshPart.mesh, MESH_BITS);
+
+        center.set(renderable.meshPart.center).mul(renderable.worldTransform);
+        long depth = Float.floatToRawIntBits(camera.position.dst2(center));
+
+        BlendingAttribute blending = renderable.material != null
+            ? (BlendingAttribute) renderable.material.get(BlendingAttribute.Type) : null;
+        if (blending != null && blending.blended) {
+            long farToNear = (1L << DEPTH_BITS) - 1 - depth;
+            return BLENDED | farToNear << (SHADER_BITS + MATERIAL_BITS + MESH_BITS)
+                | shader << (MATERIAL_BITS + MESH_BITS) | material << MESH_BITS | mesh;
+        }
+        return shader << (MATERIAL_BITS + MESH_BITS + DEPTH_BITS) | material << (MESH_BITS + DEPTH_BITS)
+            | mesh << DEPTH_BITS | depth;
+    }
+
+    private static <T> int id(ObjectIntMap<T> ids, T object, int bits) {
+        if (object == null) return 0;
+        int id = ids.get(object, -1);
+        if (id < 0) {
+            id = Math.min(ids.size, (1 << bits) - 1);
+            ids.put(object, id);
+        }
+        return id;
+    }
+
+    /**
+     * Sort keys[0..count) with order[] alongside, one byte per pass, skipping bytes every key
+     * has the same value in.
+     */
+    private void radixSort(int count) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < count; i++) {
+                counts[(int) (keys[i] >>> shift) & 0xFF]++;
+            }
+            if (count == 0 || counts[(int) (keys[0] >>> shift) & 0xFF] == count) continue;
+
+            int total = 0;
+            for (int b = 0; b < 256; b++) {
+                int c = counts[b];
+                counts[b] = total;
+                total += c;
+            }
+            for (int i = 0; i < count; i++) {
+                int slot = counts[(int) (keys[i] >>> shift) & 0xFF]++;
+                keysSwap[slot] = keys[i];
+                orderSwap[slot] = order[i];
+            }
+
+            long[] k = keys;
+            keys = keysSwap;
+            keysSwap = k;
+            int[] o = order;
+            order = orderSwap;
+            orderSwap = o;
+        }
+    }
+
+    private void countStateChanges(Array<Renderable> renderables) {
+        shaderChanges = 0;
+        materialChanges = 0;
+        meshChanges = 0;
+        Renderable previous = null;
+        for (int i = 0; i < renderables.size; i++) {
+            Renderable renderable = renderables.get(i);
+            if (previous == null || renderable.shader != previous.shader) shaderChanges++;
+            if (previous == null || renderable.material != previous.material
+                && (renderable.material == null || !renderable.material.equals(previous.material))) {
+                materialChanges++;
+            }
+            if (previous == null || renderable.meshPart.mesh != previous.meshPart.mesh) meshChanges++;
+            previous = renderable;
+        }
+    }
+
+    private void ensureCapacity(int count) {
+        if (keys.length >= count) return;
+        int capacity = Math.max(count, keys.length * 2);
+        keys = new long[capacity];
+        keysSwap = new long[capacity];
+        order = new int[capacity];
+        orderSwap = new int[capacity];
+        sorted = new Renderable[capacity];
+    }
+
+    /**
+     * Shader switches in the last sorted frame, counting the first bind.
+     */
+    public int getShaderChanges() {
+        return shaderChanges;
+    }
+
+    public int getMaterialChanges() {
+        return materialChanges;
+    }
+
+    public int getMeshChanges() {
+        return meshChanges;
+    }
+}
@@ -0,0 +1,108 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.utils.MeshPartBuilder;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.graphics.g3d.utils.shapebuilders.ConeShapeBuilder;
+import com.badlogic.gdx.graphics.g3d.utils.shapebuilders.SphereShapeBuilder;
+import com.badlogic.gdx.math.Matrix4;
+import ape.poopybird.world.SceneryType;
+
+/**
+ * Low-poly trees and props for the park's decorative {@link ape.poopybird.world.Scenery}.
+ * Models stand on y = 0 at the same scale as the targets.
+ */
+public class SceneryModelBuilder {
+
+    public static Model buildScenery(ModelBuilder modelBuilder, SceneryType type) {
+        switch (type) {
+            case PINE_TREE: return buildPineTree(modelBuilder);
+            case BUSH: return buildBush(modelBuilder);
+            case ROCK: return buildRock(modelBuilder);
+            case LAMP_POST: return buildLampPost(modelBuilder);
+            case ROUND_TREE:
+            default: return buildRoundTree(modelBuilder);
+        }
+    }
+
+    private static Model buildRoundTree(ModelBuilder modelBuilder) {
+        modelBuilder.begin();
+
+        // Trunk
+        MeshPartBuilder trunkBuilder = part(modelBuilder, "trunk", new Color(0.45f, 0.3f, 0.18f, 1f));
+        trunkBuilder.box(0, 0.6f, 0, 0.3f, 1.2f, 0.3f);
+
+        // Canopy - a coarse ball
+        MeshPartBuilder canopyBuilder = part(modelBuilder, "canopy", new Color(0.25f, 0.55f, 0.2f, 1f));
+        canopyBuilder.setVertexTransform(new Matrix4().setToTranslation(0, 1.9f, 0));
+        SphereShapeBuilder.build(canopyBuilder, 1.8f, 1.6f, 1.8f, 7, 5);
+        canopyBuilder.setVertexTransform(null);
+
+        return modelBuilder.end();
+    }
+
+    private static Model buildPineTree(ModelBuilder modelBuilder) {
+        modelBuilder.begin();
+
+        // Trunk
+        MeshPartBuilder trunkBuilder = part(modelBuilder, "trunk", new Color(0.4f, 0.27f, 0.15f, 1f));
+        trunkBuilder.box(0, 0.3f, 0, 0.25f, 0.6f, 0.25f);
+
+        // Two stacked cones
+        MeshPartBuilder needlesBuilder = part(modelBuilder, "needles", new Color(0.15f, 0.4f, 0.2f, 1f));
+        needlesBuilder.setVertexTransform(new Matrix4().setToTranslation(0, 1.4f, 0));
+        ConeShapeBuilder.build(needlesBuilder, 1.6f, 1.6f, 1.6f, 6);
+        needlesBuilder.setVertexTransform(new Matrix4().setToTranslation(0, 2.4f, 0));
+        ConeShapeBuilder.build(needlesBuilder, 1.1f, 1.4f, 1.1f, 6);
+        needlesBuilder.setVertexTransform(null);
+
+        return modelBuilder.end();
+    }
+
+    private static Model buildBush(ModelBuilder modelBuilder) {
+        modelBuilder.begin();
+
+        MeshPartBuilder leavesBuilder = part(modelBuilder, "leaves", new Color(0.3f, 0.6f, 0.25f, 1f));
+        leavesBuilder.setVertexTransform(new Matrix4().setToTranslation(0, 0.3f, 0));
+        SphereShapeBuilder.build(leavesBuilder, 1.2f, 0.8f, 1.2f, 6, 4);
+        leavesBuilder.setVertexTransform(null);
+
+        return modelBuilder.end();
+    }
+
+    private static Model buildRock(ModelBuilder modelBuilder) {
+        modelBuilder.begin();
+
+        MeshPartBuilder stoneBuilder = part(modelBuilder, "stone", new Color(0.55f, 0.55f, 0.5f, 1f));
+        stoneBuilder.setVertexTransform(new Matrix4().setToTranslation(0, 0.15f, 0));
+        SphereShapeBuilder.build(stoneBuilder, 0.9f, 0.5f, 0.7f, 5, 3);
+        stoneBuilder.setVertexTransform(null);
+
+        return modelBuilder.end();
+    }
+
+    private static Model buildLampPost(ModelBuilder modelBuilder) {
+        modelBuilder.begin();
+
+        // Pole
+        MeshPartBuilder poleBuilder = part(modelBuilder, "pole", new Color(0.2f, 0.2f, 0.22f, 1f));
+        poleBuilder.box(0, 1.3f, 0, 0.1f, 2.6f, 0.1f);
+
+        // Lamp
+        MeshPartBuilder lampBuilder = part(modelBuilder, "lamp", new Color(1f, 0.9f, 0.6f, 1f));
+        lampBuilder.box(0, 2.75f, 0, 0.3f, 0.3f, 0.3f);
+
+        return modelBuilder.end();
+    }
+
+    private static MeshPartBuilder part(ModelBuilder modelBuilder, String id, Color color) {
+        return modelBuilder.part(id, GL20.GL_TRIANGLES,
+            VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal,
+            new Material(ColorAttribute.createDiffuse(color)));
+    }
+}
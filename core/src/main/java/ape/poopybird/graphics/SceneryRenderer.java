@@ -0,0 +1,301 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import ape.poopybird.world.Scenery;
+
+/**
+ * Draws {@link Scenery}: items within {@code nearDistance} of the camera as real meshes through
+ * the {@link EntityRenderer}, everything else as camera-facing impostors from an
+ * {@link ImpostorAtlas}.
+ *
+ * Impostor geometry is built once and never touched again: the vertex shader turns each quad
+ * to face the camera and collapses the ones close enough to be drawn as meshes, so near and
+ * far sets never overlap and no per-frame upload is needed. On GL3 all impostors are one
+ * instanced quad (one draw call); on GLES2 they are baked into static meshes of up to
+ * {@link #QUADS_PER_CHUNK} quads each.
+ */
+public class SceneryRenderer implements Disposable {
+    private static final int ATLAS_CELL_SIZE = 128;
+    private static final int FLOATS_PER_IMPOSTOR = 5; // base x, y, z, size, atlas cell
+    private static final int QUADS_PER_CHUNK = 16384; // keeps chunk indices within a short
+
+    private static final String VERTEX_SHADER =
+        "attribute vec2 a_corner;\n" +
+        "attribute vec4 a_center;\n" +
+        "attribute float a_cell;\n" +
+        "uniform mat4 u_projViewTrans;\n" +
+        "uniform vec3 u_cameraPosition;\n" +
+        "uniform float u_nearDistance;\n" +
+        "uniform float u_columns;\n" +
+        "uniform vec2 u_cellScale;\n" +
+        "varying vec2 v_texCoord;\n" +
+        "void main() {\n" +
+        "    vec2 toCamera = u_cameraPosition.xz - a_center.xz;\n" +
+        "    float dist = length(toCamera);\n" +
+        "    if (dist < u_nearDistance) {\n" +
+        "        gl_Position = vec4(0.0, 0.0, -2.0, 1.0);\n" + // outside the clip volume
+        "        v_texCoord = vec2(0.0);\n" +
+        "        return;\n" +
+        "    }\n" +
+        "    vec2 right = vec2(toCamera.y, -toCamera.x) / dist;\n" +
+        "    float size = a_center.w;\n" +
+        "    vec3 position = a_center.xyz + vec3(right.x, 0.0, right.y) * (a_corner.x * size)\n" +
+        "        + vec3(0.0, a_corner.y * size, 0.0);\n" +
+        "    float row = floor(a_cell / u_columns);\n" +
+        "    float column = a_cell - row * u_columns;\n" +
+        "    v_texCoord = (vec2(column, row) + vec2(a_corner.x + 0.5, a_corner.y)) * u_cellScale;\n" +
+        "    gl_Position = u_projViewTrans * vec4(position, 1.0);\n" +
+        "}\n";
+
+    private static final String FRAGMENT_SHADER =
+        "#ifdef GL_ES\n" +
+        "precision mediump float;\n" +
+        "#endif\n" +
+        "uniform sampler2D u_atlas;\n" +
+        "varying vec2 v_texCoord;\n" +
+        "void main() {\n" +
+        "    vec4 color = texture2D(u_atlas, v_texCoord);\n" +
+        "    if (color.a < 0.5) discard;\n" +
+        "    gl_FragColor = vec4(color.rgb, 1.0);\n" +
+        "}\n";
+
+    private final Scenery scenery;
+    private final Model[] models;
+    private final ModelBounds[] bounds;
+    private final ModelInstance[] fallbackInstances;
+    private final int[] batchIds;
+    private final float modelScale;
+    private final float nearDistance;
+
+    private final ImpostorAtlas atlas;
+    private final ShaderProgram shader;
+    private final Array<Mesh> impostorMeshes;
+    private final float[] impostorX;
+    private final float[] impostorZ;
+
+    private final Matrix4 transform;
+    private int nearCount;
+    private int drawCalls;
+
+    /**
+     * @param models     one model per {@link ape.poopybird.world.SceneryType}, in ordinal order
+     * @param modelScale scale applied to every item on top of its own
+     */
+    public SceneryRenderer(Scenery scenery, Model[] models, EntityRenderer entityRenderer,
+                           Environment environment, float modelScale, float nearDistance) {
+        this.scenery = scenery;
+        this.models = models;
+        this.modelScale = modelScale;
+        this.nearDistance = nearDistance;
+        this.transform = new Matrix4();
+
+        bounds = new ModelBounds[models.length];
+        fallbackInstances = new ModelInstance[models.length];
+        batchIds = new int[models.length];
+        for (int i = 0; i < models.length; i++) {
+            bounds[i] = new ModelBounds(models[i]);
+            fallbackInstances[i] = new ModelInstance(models[i]);
+            batchIds[i] = entityRenderer.register(models[i]);
+        }
+
+        atlas = new ImpostorAtlas(models, bounds, environment, ATLAS_CELL_SIZE);
+        shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        if (!shader.isCompiled()) {
+            throw new GdxRuntimeException("Impostor shader failed to compile: " + shader.getLog());
+        }
+
+        // Each impostor is a square framing the item's scaled bounding sphere
+        int count = scenery.size();
+        float[] impostors = new float[count * FLOATS_PER_IMPOSTOR];
+        impostorX = new float[count];
+        impostorZ = new float[count];
+        for (int i = 0; i < count; i++) {
+            int type = scenery.getTypeIndex(i);
+            float scale = scenery.getScale(i) * modelScale;
+            Vector3 center = bounds[type].getCenter();
+            float radius = bounds[type].getRadius();
+            int o = i * FLOATS_PER_IMPOSTOR;
+            impostors[o] = scenery.getX(i) + center.x * scale;
+            impostors[o + 1] = (center.y - radius) * scale;
+            impostors[o + 2] = scenery.getZ(i) + center.z * scale;
+            impostors[o + 3] = radius * 2 * scale;
+            impostors[o + 4] = type;
+            impostorX[i] = impostors[o];
+            impostorZ[i] = impostors[o + 2];
+        }
+        impostorMeshes = Gdx.gl30 != null ? createInstancedMesh(impostors, count) : createChunkMeshes(impostors, count);
+    }
+
+    private static VertexAttribute cornerAttribute() {
+        return new VertexAttribute(VertexAttributes.Usage.Generic, 2, "a_corner");
+    }
+
+    private static VertexAttribute[] impostorAttributes() {
+        return new VertexAttribute[] {
+            new VertexAttribute(VertexAttributes.Usage.Generic, 4, "a_center"),
+            new VertexAttribute(VertexAttributes.Usage.Generic, 1, "a_cell")
+        };
+    }
+
+    private static Array<Mesh> createInstancedMesh(float[] impostors, int count) {
+        Mesh quad = new Mesh(true, 4, 6, cornerAttribute());
+        quad.setVertices(new float[] {-0.5f, 0f, 0.5f, 0f, 0.5f, 1f, -0.5f, 1f});
+        quad.setIndices(new short[] {0, 1, 2, 2, 3, 0});
+        quad.enableInstancedRendering(true, count, impostorAttributes());
+        quad.setInstanceData(impostors);
+
+        Array<Mesh> meshes = new Array<>();
+        meshes.add(quad);
+        return meshes;
+    }
+
+    private static Array<Mesh> createChunkMeshes(float[] impostors, int count) {
+        float[] corners = {-0.5f, 0f, 0.5f, 0f, 0.5f, 1f, -0.5f, 1f};
+        VertexAttribute[] perImpostor = impostorAttributes();
+        VertexAttribute[] attributes = {cornerAttribute(), perImpostor[0], perImpostor[1]};
+        int stride = 2 + FLOATS_PER_IMPOSTOR;
+
+        Array<Mesh> meshes = new Array<>();
+        for (int first = 0; first < count; first += QUADS_PER_CHUNK) {
+            int quads = Math.min(QUADS_PER_CHUNK, count - first);
+            float[] vertices = new float[quads * 4 * stride];
+            short[] indices = new short[quads * 6];
+            for (int q = 0; q < quads; q++) {
+                for (int c = 0; c < 4; c++) {
+                    int o = (q * 4 + c) * stride;
+                    vertices[o] = corners[c * 2];
+                    vertices[o + 1] = corners[c * 2 + 1];
+                    System.arraycopy(impostors, (first + q) * FLOATS_PER_IMPOSTOR, vertices, o + 2, FLOATS_PER_IMPOSTOR);
+                }
+                int v = q * 4;
+                int i = q * 6;
+                indices[i] = (short) v;
+                indices[i + 1] = (short) (v + 1);
+                indices[i + 2] = (short) (v + 2);
+                indices[i + 3] = (short) (v + 2);
+                indices[i + 4] = (short) (v + 3);
+                indices[i + 5] = (short) v;
+            }
+            Mesh mesh = new Mesh(true, quads * 4, quads * 6, attributes);
+            mesh.setVertices(vertices);
+            mesh.setIndices(indices);
+            meshes.add(mesh);
+        }
+        return meshes;
+    }
+
+    /**
+     * Queue the items near the camera as meshes. Call between the entity renderer's begin and
+     * render, with the model batch open for models the entity renderer didn't take.
+     */
+    public void submitNear(PerspectiveCamera camera, EntityRenderer entityRenderer, ModelBatch modelBatch,
+                           Environment environment) {
+        nearCount = 0;
+        float cameraX = camera.position.x;
+        float cameraZ = camera.position.z;
+        float near2 = nearDistance * nearDistance;
+        // One cell of margin, since impostor bases sit slightly off the items' cell positions
+        float reach = nearDistance + scenery.getCellSize();
+        int minX = scenery.cellCoordinate(cameraX - reach);
+        int maxX = scenery.cellCoordinate(cameraX + reach);
+        int minZ = scenery.cellCoordinate(cameraZ - reach);
+        int maxZ = scenery.cellCoordinate(cameraZ + reach);
+
+        for (int cz = minZ; cz <= maxZ; cz++) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                int cell = scenery.cellIndex(cx, cz);
+                for (int i = scenery.getCellStart(cell); i < scenery.getCellEnd(cell); i++) {
+                    // Same test as the impostor shader, so every item is drawn exactly one way
+                    float dx = impostorX[i] - cameraX;
+                    float dz = impostorZ[i] - cameraZ;
+                    if (dx * dx + dz * dz >= near2) continue;
+                    nearCount++;
+
+                    int type = scenery.getTypeIndex(i);
+                    float scale = scenery.getScale(i) * modelScale;
+                    transform.setToTranslation(scenery.getX(i), 0, scenery.getZ(i));
+                    transform.rotate(Vector3.Y, scenery.getRotation(i));
+                    transform.scale(scale, scale, scale);
+                    if (!bounds[type].isVisible(camera.frustum, transform)) continue;
+
+                    if (batchIds[type] >= 0) {
+                        entityRenderer.add(batchIds[type], transform);
+                    } else {
+                        fallbackInstances[type].transform.set(transform);
+                        modelBatch.render(fallbackInstances[type], environment);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Draw every item farther than the near distance as an impostor.
+     */
+    public void renderImpostors(PerspectiveCamera camera) {
+        GL20 gl = Gdx.gl20;
+        gl.glEnable(GL20.GL_DEPTH_TEST);
+        gl.glDepthFunc(GL20.GL_LEQUAL);
+        gl.glDepthMask(true);
+        gl.glDisable(GL20.GL_CULL_FACE);
+
+        atlas.getTexture().bind(0);
+        shader.bind();
+        shader.setUniformMatrix("u_projViewTrans", camera.combined);
+        shader.setUniformf("u_cameraPosition", camera.position);
+        shader.setUniformf("u_nearDistance", nearDistance);
+        shader.setUniformf("u_columns", atlas.getColumns());
+        shader.setUniformf("u_cellScale", 1f / atlas.getColumns(), 1f / atlas.getRows());
+        shader.setUniformi("u_atlas", 0);
+
+        drawCalls = 0;
+        for (int i = 0; i < impostorMeshes.size; i++) {
+            impostorMeshes.get(i).render(shader, GL20.GL_TRIANGLES);
+            drawCalls++;
+        }
+
+        gl.glDisable(GL20.GL_DEPTH_TEST);
+    }
+
+    /**
+     * Items close enough to be meshes in the last {@link #submitNear} call, visible or not.
+     */
+    public int getNearCount() {
+        return nearCount;
+    }
+
+    public int getImpostorCount() {
+        return scenery.size() - nearCount;
+    }
+
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    @Override
+    public void dispose() {
+        atlas.dispose();
+        shader.dispose();
+        for (int i = 0; i < impostorMeshes.size; i++) {
+            impostorMeshes.get(i).dispose();
+        }
+        for (Model model : models) {
+            model.dispose();
+        }
+    }
+}
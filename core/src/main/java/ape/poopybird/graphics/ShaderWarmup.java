@@ -0,0 +1,149 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.graphics.g3d.utils.ShaderProvider;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.utils.Disposable;
+import ape.poopybird.entities.BirdType;
+import ape.poopybird.entities.TargetType;
+import ape.poopybird.util.Constants;
+import ape.poopybird.world.SceneryType;
+
+/**
+ * Builds every kind of model the game draws through ModelBatch and renders each once into a
+ * small offscreen buffer with both shader providers, so their shaders are compiled and first
+ * used before play starts rather than on the frame something first appears.
+ *
+ * The work is split into {@link #step}s, one group of models each, so a loading screen can keep
+ * drawing in between. The providers must be the ones the game's model batches use.
+ */
+public class ShaderWarmup implements Disposable {
+    private static final int BUFFER_SIZE = 64;
+
+    private final ModelFactory modelFactory;
+    private final ModelBatch[] batches;
+    private final PerspectiveCamera camera;
+    private final FrameBuffer frameBuffer;
+
+    private final int birdSteps;
+    private final int targetSteps;
+    private final int scenerySteps;
+    private final int totalSteps;
+    private int nextStep;
+
+    public ShaderWarmup(ShaderProvider flatShaders, ShaderProvider defaultShaders) {
+        modelFactory = new ModelFactory(new ModelBuilder(), ModelFactory.createEnvironment());
+
+        // Never disposed, since that would dispose the shared providers
+        batches = new ModelBatch[] {new ModelBatch(flatShaders), new ModelBatch(defaultShaders)};
+
+        camera = new PerspectiveCamera(67f, BUFFER_SIZE, BUFFER_SIZE);
+        camera.position.set(0f, 5f, 10f);
+        camera.lookAt(0f, 0f, 0f);
+        camera.near = 1f;
+        camera.far = 100f;
+        camera.update();
+        frameBuffer = new FrameBuffer(Pixmap.Format.RGB888, BUFFER_SIZE, BUFFER_SIZE, true);
+
+        birdSteps = BirdType.values().length;
+        targetSteps = TargetType.values().length;
+        scenerySteps = SceneryType.values().length;
+        totalSteps = birdSteps + targetSteps + scenerySteps + 2;
+    }
+
+    /**
+     * Build and draw the next group of models.
+     *
+     * @return true once every group has been drawn
+     */
+    public boolean step() {
+        if (isDone()) return true;
+        int step = nextStep++;
+        ModelBuilder modelBuilder = modelFactory.getModelBuilder();
+
+        if (step < birdSteps) {
+            BirdType type = BirdType.values()[step];
+            for (int lod = 0; lod < Constants.LOD_LEVELS; lod++) {
+                drawAndDispose(modelFactory.buildBird(type, lod), true);
+            }
+        } else if ((step -= birdSteps) < targetSteps) {
+            TargetType type = TargetType.values()[step];
+            for (int lod = 0; lod < Constants.LOD_LEVELS; lod++) {
+                drawAndDispose(modelFactory.buildTarget(type, lod), false);
+            }
+        } else if ((step -= targetSteps) < scenerySteps) {
+            SceneryType type = SceneryType.values()[step];
+            drawAndDispose(modelFactory.build(SceneryModelBuilder.buildScenery(modelBuilder, type)), false);
+        } else if (step == scenerySteps) {
+            drawAndDispose(modelFactory.build(PoopModelBuilder.buildPoop(modelBuilder)), false);
+            drawAndDispose(modelFactory.build(PoopModelBuilder.buildPowerUp(modelBuilder)), false);
+        } else {
+            // Splats, and particles which share their layout and material
+            SplatDecals splats = new SplatDecals(PoopModelBuilder.buildSplat(modelBuilder),
+                modelFactory.getEnvironment(), 1);
+            splats.add(0f, 0f, 0f, 1f);
+            draw(splats, null);
+            splats.dispose();
+
+            // Same material and vertex attributes as the landing marker
+            Model marker = modelBuilder.createBox(1f, 0.1f, 1f,
+                new Material(ColorAttribute.createDiffuse(new Color(1f, 0.3f, 0.3f, 0.7f)), new BlendingAttribute()),
+                VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
+            drawAndDispose(marker, false);
+
+            // And the arc leading down to it
+            TrajectoryRibbon ribbon = new TrajectoryRibbon(2, 1f, Color.WHITE);
+            ribbon.update(new float[] {0f, 2f, 0f, 0f, 0f, 0f}, 2, camera);
+            draw(ribbon, null);
+            ribbon.dispose();
+        }
+        return isDone();
+    }
+
+    private void drawAndDispose(Model model, boolean flaps) {
+        ModelInstance instance = new ModelInstance(model);
+        if (flaps) {
+            FlapAttribute.set(instance, 0f);
+        }
+        draw(instance, LightBaker.isBaked(model) ? null : modelFactory.getEnvironment());
+        model.dispose();
+    }
+
+    private void draw(RenderableProvider provider, Environment environment) {
+        frameBuffer.begin();
+        for (ModelBatch batch : batches) {
+            batch.begin(camera);
+            batch.render(provider, environment);
+            batch.end();
+        }
+        frameBuffer.end();
+    }
+
+    public boolean isDone() {
+        return nextStep >= totalSteps;
+    }
+
+    /**
+     * Fraction of the groups drawn so far, from 0 to 1.
+     */
+    public float getProgress() {
+        return nextStep / (float) totalSteps;
+    }
+
+    @Override
+    public void dispose() {
+        frameBuffer.dispose();
+    }
+}
@@ -0,0 +1,191 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.DirectionalLightsAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.ShortArray;
+
+/**
+ * Poop splats left on the ground and on targets, kept in a fixed-size ring so the oldest is
+ * overwritten once it is full.
+ *
+ * Every splat lives in one dynamic mesh, a fixed slot of vertices per splat, drawn as a single
+ * renderable. Only the slots written since the last frame are uploaded. The splat shape is the
+ * top faces of {@link PoopModelBuilder#buildSplat}, lit once from the environment as if facing
+ * up, so it goes through the unlit path of {@link FlatShader} like baked models.
+ */
+public class SplatDecals implements RenderableProvider, Disposable {
+    private static final int FLOATS_PER_VERTEX = 4; // position, packed colour
+    private static final long SEED = 0x2545F4914F6CDD1DL;
+
+    private final int capacity;
+    private final float[] templateX;
+    private final float[] templateZ;
+    private final short[] templateIndices;
+    private final float color;
+    private final int floatsPerSplat;
+    private final float[] vertices;
+    private final Mesh mesh;
+    private final Material material;
+    // Own generator: splats are added outside the simulation, which owns MathUtils.random for rewinds
+    private final RandomXS128 random;
+
+    private int next;
+    private int count;
+    private int dirtyStart;
+    private int dirtyEnd;
+
+    /**
+     * @param splat a model from {@link PoopModelBuilder#buildSplat}; disposed once read
+     */
+    public SplatDecals(Model splat, Environment environment, int capacity) {
+        this.capacity = capacity;
+        this.random = new RandomXS128(SEED);
+
+        // Keep the upward faces of the first part, flattened onto y = 0
+        NodePart nodePart = splat.nodes.first().parts.first();
+        MeshPart meshPart = nodePart.meshPart;
+        VertexReader reader = new VertexReader(meshPart.mesh);
+        short[] indices = new short[meshPart.size];
+        meshPart.mesh.getIndices(meshPart.offset, meshPart.size, indices, 0);
+        IntIntMap remap = new IntIntMap();
+        FloatArray xs = new FloatArray();
+        FloatArray zs = new FloatArray();
+        ShortArray kept = new ShortArray();
+        Vector3 v = new Vector3();
+        for (int i = 0; i + 2 < indices.length; i += 3) {
+            if (reader.getNormal(indices[i] & 0xFFFF, v).y < 0.9f) continue;
+            for (int j = 0; j < 3; j++) {
+                int source = indices[i + j] & 0xFFFF;
+                int local = remap.get(source, -1);
+                if (local < 0) {
+                    local = xs.size;
+                    remap.put(source, local);
+                    reader.getPosition(source, v);
+                    xs.add(v.x);
+                    zs.add(v.z);
+                }
+                kept.add(local);
+            }
+        }
+        templateX = xs.toArray();
+        templateZ = zs.toArray();
+        templateIndices = kept.toArray();
+        if (capacity * templateX.length > 65536) {
+            throw new GdxRuntimeException("Too many splats for 16-bit indices: " + capacity);
+        }
+
+        ColorAttribute diffuse = nodePart.material.get(ColorAttribute.class, ColorAttribute.Diffuse);
+        color = litColor(diffuse != null ? diffuse.color : Color.WHITE, environment);
+        splat.dispose();
+
+        floatsPerSplat = templateX.length * FLOATS_PER_VERTEX;
+        vertices = new float[capacity * floatsPerSplat];
+        short[] allIndices = new short[capacity * templateIndices.length];
+        for (int s = 0; s < capacity; s++) {
+            for (int i = 0; i < templateIndices.length; i++) {
+                allIndices[s * templateIndices.length + i] = (short) (s * templateX.length + templateIndices[i]);
+            }
+        }
+        mesh = new Mesh(false, capacity * templateX.length, allIndices.length,
+            VertexAttribute.Position(), VertexAttribute.ColorPacked());
+        mesh.setVertices(vertices);
+        mesh.setIndices(allIndices);
+        material = new Material(ColorAttribute.createDiffuse(Color.WHITE));
+    }
+
+    private static float litColor(Color base, Environment environment) {
+        Color light = new Color(Color.BLACK);
+        ColorAttribute ambient = environment.get(ColorAttribute.class, ColorAttribute.AmbientLight);
+        if (ambient != null) light.add(ambient.color);
+        DirectionalLightsAttribute lights = environment.get(DirectionalLightsAttribute.class,
+            DirectionalLightsAttribute.Type);
+        if (lights != null && lights.lights.size > 0) {
+            DirectionalLight sun = lights.lights.first();
+            float lambert = Math.max(0f, -sun.direction.y / sun.direction.len());
+            light.add(sun.color.r * lambert, sun.color.g * lambert, sun.color.b * lambert, 0f);
+        }
+        return new Color(base).mul(light.r, light.g, light.b, 1f).clamp().toFloatBits();
+    }
+
+    /**
+     * Leave a splat lying flat at a point, overwriting the oldest one if the ring is full.
+     */
+    public void add(float x, float y, float z, float scale) {
+        int slot = next;
+        next = (next + 1) % capacity;
+        count = Math.min(count + 1, capacity);
+
+        // Random turn and size so a barrage doesn't look stamped
+        float angle = random.nextFloat() * MathUtils.PI2;
+        float size = scale * (0.8f + random.nextFloat() * 0.5f);
+        float cos = MathUtils.cos(angle) * size;
+        float sin = MathUtils.sin(angle) * size;
+        int o = slot * floatsPerSplat;
+        for (int i = 0; i < templateX.length; i++) {
+            vertices[o++] = x + templateX[i] * cos - templateZ[i] * sin;
+            vertices[o++] = y;
+            vertices[o++] = z + templateX[i] * sin + templateZ[i] * cos;
+            vertices[o++] = color;
+        }
+
+        if (dirtyStart == dirtyEnd) {
+            dirtyStart = slot;
+            dirtyEnd = slot + 1;
+        } else {
+            dirtyStart = Math.min(dirtyStart, slot);
+            dirtyEnd = Math.max(dirtyEnd, slot + 1);
+        }
+    }
+
+    @Override
+    public void getRenderables(Array<Renderable> renderables, Pool<Renderable> pool) {
+        if (count == 0) return;
+        if (dirtyStart != dirtyEnd) {
+            mesh.updateVertices(dirtyStart * floatsPerSplat, vertices, dirtyStart * floatsPerSplat,
+                (dirtyEnd - dirtyStart) * floatsPerSplat);
+            dirtyStart = dirtyEnd = 0;
+        }
+
+        Renderable renderable = pool.obtain();
+        renderable.meshPart.set("splats", mesh, 0, count * templateIndices.length, GL20.GL_TRIANGLES);
+        renderable.meshPart.center.setZero();
+        renderable.material = material;
+        renderable.worldTransform.idt();
+        renderable.environment = null; // already lit
+        renderables.add(renderable);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public void dispose() {
+        mesh.dispose();
+    }
+}
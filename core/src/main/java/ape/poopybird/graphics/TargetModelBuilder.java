@@ -13,18 +13,61 @@ import ape.poopybird.entities.TargetType;
 public class TargetModelBuilder {
 
     public static Model buildTarget(ModelBuilder modelBuilder, TargetType type) {
+        return buildTarget(modelBuilder, type, 0);
+    }
+
+    /**
+     * @param lod level of detail: 0 is the full model, 1 keeps only the main shapes and 2 or
+     *            more is a single box silhouette in the dominant colour
+     */
+    public static Model buildTarget(ModelBuilder modelBuilder, TargetType type, int lod) {
+        if (lod >= 2) {
+            return buildSilhouette(modelBuilder, type);
+        }
+        switch (type) {
+            case PERSON: return buildPerson(modelBuilder, lod);
+            case CAR: return buildCar(modelBuilder, lod);
+            case BENCH: return buildBench(modelBuilder, lod);
+            case STATUE: return buildStatue(modelBuilder, lod);
+            case UMBRELLA: return buildUmbrella(modelBuilder, lod);
+            case PICNIC: return buildPicnic(modelBuilder, lod);
+            default: return buildPerson(modelBuilder, lod);
+        }
+    }
+
+    private static Model buildSilhouette(ModelBuilder modelBuilder, TargetType type) {
+        modelBuilder.begin();
         switch (type) {
-            case PERSON: return buildPerson(modelBuilder);
-            case CAR: return buildCar(modelBuilder);
-            case BENCH: return buildBench(modelBuilder);
-            case STATUE: return buildStatue(modelBuilder);
-            case UMBRELLA: return buildUmbrella(modelBuilder);
-            case PICNIC: return buildPicnic(modelBuilder);
-            default: return buildPerson(modelBuilder);
+            case CAR:
+                silhouette(modelBuilder, new Color(0.7f, 0.15f, 0.15f, 1f)).box(0, 0.5f, 0, 2.0f, 0.8f, 1.0f);
+                break;
+            case BENCH:
+                silhouette(modelBuilder, new Color(0.5f, 0.35f, 0.2f, 1f)).box(0, 0.5f, 0, 1.5f, 0.9f, 0.4f);
+                break;
+            case STATUE:
+                silhouette(modelBuilder, new Color(0.6f, 0.6f, 0.6f, 1f)).box(0, 1.15f, 0, 0.8f, 2.3f, 0.8f);
+                break;
+            case UMBRELLA:
+                silhouette(modelBuilder, new Color(0.9f, 0.3f, 0.3f, 1f)).box(0, 2.1f, 0, 2.0f, 0.2f, 2.0f);
+                break;
+            case PICNIC:
+                silhouette(modelBuilder, new Color(0.8f, 0.2f, 0.2f, 1f)).box(0, 0.05f, 0, 2.0f, 0.1f, 2.0f);
+                break;
+            case PERSON:
+            default:
+                silhouette(modelBuilder, new Color(0.2f, 0.4f, 0.7f, 1f)).box(0, 0.75f, 0, 0.4f, 1.5f, 0.25f);
+                break;
         }
+        return modelBuilder.end();
+    }
+
+    private static MeshPartBuilder silhouette(ModelBuilder modelBuilder, Color color) {
+        return modelBuilder.part("silhouette", GL20.GL_TRIANGLES,
+            VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal,
+            new Material(ColorAttribute.createDiffuse(color)));
     }
 
-    private static Model buildPerson(ModelBuilder modelBuilder) {
+    private static Model buildPerson(ModelBuilder modelBuilder, int lod) {
         modelBuilder.begin();
 
         // Body (cylinder-ish using box for simplicity)
@@ -32,7 +75,12 @@ public class TargetModelBuilder {
         MeshPartBuilder bodyBuilder = modelBuilder.part("body", GL20.GL_TRIANGLES,
             VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal,
             shirtMaterial);
-        bodyBuilder.box(0, 0.6f, 0, 0.4f, 0.8f, 0.25f);
+        if (lod > 0) {
+            // Body reaching down over the legs
+            bodyBuilder.box(0, 0.55f, 0, 0.4f, 1.1f, 0.25f);
+        } else {
+            bodyBuilder.box(0, 0.6f, 0, 0.4f, 0.8f, 0.25f);
+        }
 
         // Head (smaller box)
         Material skinMaterial = new Material(ColorAttribute.createDiffuse(new Color(0.9f, 0.75f, 0.65f, 1f)));
@@ -42,17 +90,19 @@ public class TargetModelBuilder {
         headBuilder.box(0, 1.3f, 0, 0.3f, 0.35f, 0.3f);
 
         // Legs
-        Material pantsMaterial = new Material(ColorAttribute.createDiffuse(new Color(0.25f, 0.25f, 0.3f, 1f)));
-        MeshPartBuilder legsBuilder = modelBuilder.part("legs", GL20.GL_TRIANGLES,
-            VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal,
-            pantsMaterial);
-        legsBuilder.box(-0.1f, 0.1f, 0, 0.15f, 0.4f, 0.2f);
-        legsBuilder.box(0.1f, 0.1f, 0, 0.15f, 0.4f, 0.2f);
+        if (lod == 0) {
+            Material pantsMaterial = new Material(ColorAttribute.createDiffuse(new Color(0.25f, 0.25f, 0.3f, 1f)));
+            MeshPartBuilder legsBuilder = modelBuilder.part("legs", GL20.GL_TRIANGLES,
+                VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal,
+                pantsMaterial);
+            legsBuilder.box(-0.1f, 0.1f, 0, 0.15f, 0.4f, 0.2f);
+            legsBuilder.box(0.1f, 0.1f, 0, 0.15f, 0.4f, 0.2f);
+        }
 
         return modelBuilder.end();
     }
 
-    private static Model buildCar(ModelBuilder modelBuilder) {
+    private static Model buildCar(ModelBuilder modelBuilder, int lod) {
         modelBuilder.begin();
 
         // Car body
@@ -65,28 +115,30 @@ public class TargetModelBuilder {
         // Car roof
         bodyBuilder.box(0, 0.8f, 0, 1.2f, 0.4f, 0.9f);
 
-        // Wheels
-        Material wheelMaterial = new Material(ColorAttribute.createDiffuse(Color.DARK_GRAY));
-        MeshPartBuilder wheelBuilder = modelBuilder.part("wheels", GL20.GL_TRIANGLES,
-            VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal,
-            wheelMaterial);
-        wheelBuilder.box(-0.7f, 0.15f, 0.5f, 0.3f, 0.3f, 0.1f);
-        wheelBuilder.box(0.7f, 0.15f, 0.5f, 0.3f, 0.3f, 0.1f);
-        wheelBuilder.box(-0.7f, 0.15f, -0.5f, 0.3f, 0.3f, 0.1f);
-        wheelBuilder.box(0.7f, 0.15f, -0.5f, 0.3f, 0.3f, 0.1f);
-
-        // Windows
-        Material windowMaterial = new Material(ColorAttribute.createDiffuse(new Color(0.6f, 0.8f, 0.9f, 1f)));
-        MeshPartBuilder windowBuilder = modelBuilder.part("windows", GL20.GL_TRIANGLES,
-            VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal,
-            windowMaterial);
-        windowBuilder.box(0, 0.8f, 0.46f, 1.1f, 0.35f, 0.01f);
-        windowBuilder.box(0, 0.8f, -0.46f, 1.1f, 0.35f, 0.01f);
+        if (lod == 0) {
+            // Wheels
+            Material wheelMaterial = new Material(ColorAttribute.createDiffuse(Color.DARK_GRAY));
+            MeshPartBuilder wheelBuilder = modelBuilder.part("wheels", GL20.GL_TRIANGLES,
+                VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal,
+                wheelMaterial);
+            wheelBuilder.box(-0.7f, 0.15f, 0.5f, 0.3f, 0.3f, 0.1f);
+            wheelBuilder.box(0.7f, 0.15f, 0.5f, 0.3f, 0.3f, 0.1f);
+            wheelBuilder.box(-0.7f, 0.15f, -0.5f, 0.3f, 0.3f, 0.1f);
+            wheelBuilder.box(0.7f, 0.15f, -0.5f, 0.3f, 0.3f, 0.1f);
+
+            // Windows
+            Material windowMaterial = new Material(ColorAttribute.createDiffuse(new Color(0.6f, 0.8f, 0.9f, 1f)));
+            MeshPartBuilder windowBuilder = modelBuilder.part("windows", GL20.GL_TRIANGLES,
+                VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal,
+                windowMaterial);
+            windowBuilder.box(0, 0.8f, 0.46f, 1.1f, 0.35f, 0.01f);
+            windowBuilder.box(0, 0.8f, -0.46f, 1.1f, 0.35f, 0.01f);
+        }
 
         return modelBuilder.end();
     }
 
-    private static Model buildBench(ModelBuilder modelBuilder) {
+    private static Model buildBench(ModelBuilder modelBuilder, int lod) {
         modelBuilder.begin();
 
         Material woodMaterial = new Material(ColorAttribute.createDiffuse(new Color(0.5f, 0.35f, 0.2f, 1f)));
@@ -101,17 +153,19 @@ public class TargetModelBuilder {
         benchBuilder.box(0, 0.7f, -0.15f, 1.5f, 0.5f, 0.08f);
 
         // Legs
-        Material metalMaterial = new Material(ColorAttribute.createDiffuse(Color.DARK_GRAY));
-        MeshPartBuilder legBuilder = modelBuilder.part("legs", GL20.GL_TRIANGLES,
-            VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal,
-            metalMaterial);
-        legBuilder.box(-0.6f, 0.2f, 0, 0.08f, 0.4f, 0.35f);
-        legBuilder.box(0.6f, 0.2f, 0, 0.08f, 0.4f, 0.35f);
+        if (lod == 0) {
+            Material metalMaterial = new Material(ColorAttribute.createDiffuse(Color.DARK_GRAY));
+            MeshPartBuilder legBuilder = modelBuilder.part("legs", GL20.GL_TRIANGLES,
+                VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal,
+                metalMaterial);
+            legBuilder.box(-0.6f, 0.2f, 0, 0.08f, 0.4f, 0.35f);
+            legBuilder.box(0.6f, 0.2f, 0, 0.08f, 0.4f, 0.35f);
+        }
 
         return modelBuilder.end();
     }
 
-    private static Model buildStatue(ModelBuilder modelBuilder) {
+    private static Model buildStatue(ModelBuilder modelBuilder, int lod) {
         modelBuilder.begin();
 
         // Pedestal
@@ -128,16 +182,18 @@ public class TargetModelBuilder {
             bronzeMaterial);
         // Body
         figureBuilder.box(0, 1.2f, 0, 0.5f, 1.2f, 0.35f);
-        // Head
-        figureBuilder.box(0, 2.1f, 0, 0.35f, 0.4f, 0.35f);
-        // Arms raised
-        figureBuilder.box(-0.4f, 1.6f, 0, 0.3f, 0.15f, 0.15f);
-        figureBuilder.box(0.4f, 1.6f, 0, 0.3f, 0.15f, 0.15f);
+        if (lod == 0) {
+            // Head
+            figureBuilder.box(0, 2.1f, 0, 0.35f, 0.4f, 0.35f);
+            // Arms raised
+            figureBuilder.box(-0.4f, 1.6f, 0, 0.3f, 0.15f, 0.15f);
+            figureBuilder.box(0.4f, 1.6f, 0, 0.3f, 0.15f, 0.15f);
+        }
 
         return modelBuilder.end();
     }
 
-    private static Model buildUmbrella(ModelBuilder modelBuilder) {
+    private static Model buildUmbrella(ModelBuilder modelBuilder, int lod) {
         modelBuilder.begin();
 
         // Pole
@@ -156,7 +212,7 @@ public class TargetModelBuilder {
         // Octagonal canopy approximation
         float radius = 1.2f;
         float y = 2.0f;
-        int segments = 8;
+        int segments = lod == 0 ? 8 : 4;
         for (int i = 0; i < segments; i++) {
             float angle1 = (float) (i * Math.PI * 2 / segments);
             float angle2 = (float) ((i + 1) * Math.PI * 2 / segments);
@@ -175,7 +231,7 @@ public class TargetModelBuilder {
         return modelBuilder.end();
     }
 
-    private static Model buildPicnic(ModelBuilder modelBuilder) {
+    private static Model buildPicnic(ModelBuilder modelBuilder, int lod) {
         modelBuilder.begin();
 
         // Blanket
@@ -193,12 +249,14 @@ public class TargetModelBuilder {
         basketBuilder.box(0.5f, 0.15f, 0.3f, 0.4f, 0.25f, 0.3f);
 
         // Food items (simple boxes)
-        Material foodMaterial = new Material(ColorAttribute.createDiffuse(new Color(0.9f, 0.8f, 0.3f, 1f)));
-        MeshPartBuilder foodBuilder = modelBuilder.part("food", GL20.GL_TRIANGLES,
-            VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal,
-            foodMaterial);
-        foodBuilder.box(-0.3f, 0.08f, -0.2f, 0.2f, 0.12f, 0.2f);
-        foodBuilder.box(0, 0.08f, 0.5f, 0.15f, 0.12f, 0.15f);
+        if (lod == 0) {
+            Material foodMaterial = new Material(ColorAttribute.createDiffuse(new Color(0.9f, 0.8f, 0.3f, 1f)));
+            MeshPartBuilder foodBuilder = modelBuilder.part("food", GL20.GL_TRIANGLES,
+                VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal,
+                foodMaterial);
+            foodBuilder.box(-0.3f, 0.08f, -0.2f, 0.2f, 0.12f, 0.2f);
+            foodBuilder.box(0, 0.08f, 0.5f, 0.15f, 0.12f, 0.15f);
+        }
 
         return modelBuilder.end();
     }
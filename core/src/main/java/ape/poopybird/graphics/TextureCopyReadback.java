@@ -0,0 +1,58 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link FrameReadback} for any GL: a frame is copied on the GPU into an offscreen buffer and
+ * read from there with glReadPixels, which waits for nothing but the copy itself by then.
+ * The read is still synchronous, so it costs render-thread time in proportion to the frame size.
+ *
+ * libGDX's GL30 binding has no offset form of glReadPixels, so pixel buffer objects aren't
+ * reachable from here.
+ */
+public class TextureCopyReadback implements FrameReadback {
+    private FrameBuffer[] slots;
+    private int width;
+    private int height;
+
+    @Override
+    public void allocate(int count, int width, int height) {
+        dispose();
+        this.width = width;
+        this.height = height;
+        slots = new FrameBuffer[count];
+        for (int i = 0; i < count; i++) {
+            slots[i] = new FrameBuffer(Pixmap.Format.RGB888, width, height, false);
+        }
+    }
+
+    @Override
+    public void capture(int slot) {
+        slots[slot].getColorBufferTexture().bind();
+        Gdx.gl.glCopyTexSubImage2D(GL20.GL_TEXTURE_2D, 0, 0, 0, 0, 0, width, height);
+    }
+
+    @Override
+    public void read(int slot, ByteBuffer pixels) {
+        slots[slot].bind();
+        Gdx.gl.glPixelStorei(GL20.GL_PACK_ALIGNMENT, 1);
+        pixels.clear();
+        Gdx.gl.glReadPixels(0, 0, width, height, GL20.GL_RGBA, GL20.GL_UNSIGNED_BYTE, pixels);
+        FrameBuffer.unbind();
+    }
+
+    @Override
+    public void dispose() {
+        if (slots != null) {
+            for (FrameBuffer slot : slots) {
+                slot.dispose();
+            }
+            slots = null;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.DepthTestAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.IntAttribute;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * A flat ribbon along a polyline, turned to face the camera, such as the path a poop would
+ * fall along.
+ *
+ * The vertices go into an array and mesh sized for the longest line once, and each
+ * {@link #update} overwrites the front of them, so a line of a different length every frame
+ * costs no allocation. The ribbon is a single translucent triangle strip, fading out towards
+ * its start.
+ */
+public class TrajectoryRibbon implements RenderableProvider, Disposable {
+    private static final int FLOATS_PER_VERTEX = 4; // position, packed colour
+    private static final float START_ALPHA = 0.15f; // of the colour's alpha, at the first point
+
+    private final int maxPoints;
+    private final float halfWidth;
+    private final Color color;
+    private final Color fadedColor;
+    private final float[] vertices;
+    private final Mesh mesh;
+    private final Material material;
+    private final Vector3 center;
+
+    private int count;
+
+    /**
+     * @param maxPoints most points a line may have
+     * @param width     across the ribbon, in world units
+     */
+    public TrajectoryRibbon(int maxPoints, float width, Color color) {
+        this.maxPoints = maxPoints;
+        this.halfWidth = width / 2;
+        this.color = new Color(color);
+        this.fadedColor = new Color();
+
+        vertices = new float[maxPoints * 2 * FLOATS_PER_VERTEX];
+        mesh = new Mesh(false, maxPoints * 2, 0, VertexAttribute.Position(), VertexAttribute.ColorPacked());
+        // Which way the strip winds depends on the path, so both sides are drawn. Like any
+        // translucent surface it mustn't write depth, or it would hide what is drawn behind it later
+        material = new Material(ColorAttribute.createDiffuse(Color.WHITE), new BlendingAttribute(),
+            IntAttribute.createCullFace(GL20.GL_NONE), new DepthTestAttribute(GL20.GL_LEQUAL, false));
+        center = new Vector3();
+    }
+
+    public int getMaxPoints() {
+        return maxPoints;
+    }
+
+    /**
+     * Rebuild the ribbon along a line, widened sideways as seen from the camera.
+     *
+     * @param points x, y, z of each point in turn
+     * @param n      points to use, at most {@link #getMaxPoints}; fewer than two hides the ribbon
+     */
+    public void update(float[] points, int n, Camera camera) {
+        count = n < 2 ? 0 : Math.min(n, maxPoints);
+        float camX = camera.position.x;
+        float camY = camera.position.y;
+        float camZ = camera.position.z;
+        if (count > 0) {
+            // Sorted among other translucent renderables by the middle of the line
+            int mid = count / 2 * 3;
+            center.set(points[mid], points[mid + 1], points[mid + 2]);
+        }
+
+        int v = 0;
+        for (int i = 0; i < count; i++) {
+            int p = i * 3;
+            float px = points[p];
+            float py = points[p + 1];
+            float pz = points[p + 2];
+
+            // Direction of the line here, from the neighbouring points
+            int prev = Math.max(0, i - 1) * 3;
+            int next = Math.min(count - 1, i + 1) * 3;
+            float tx = points[next] - points[prev];
+            float ty = points[next + 1] - points[prev + 1];
+            float tz = points[next + 2] - points[prev + 2];
+
+            // Sideways is across both the line and the view
+            float vx = camX - px;
+            float vy = camY - py;
+            float vz = camZ - pz;
+            float sx = ty * vz - tz * vy;
+            float sy = tz * vx - tx * vz;
+            float sz = tx * vy - ty * vx;
+            float length = (float) Math.sqrt(sx * sx + sy * sy + sz * sz);
+            float scale = length > 0.0001f ? halfWidth / length : 0f;
+            sx *= scale;
+            sy *= scale;
+            sz *= scale;
+
+            float t = i / (float) (count - 1);
+            fadedColor.set(color);
+            fadedColor.a *= START_ALPHA + (1f - START_ALPHA) * t;
+            float packed = fadedColor.toFloatBits();
+
+            vertices[v++] = px - sx;
+            vertices[v++] = py - sy;
+            vertices[v++] = pz - sz;
+            vertices[v++] = packed;
+            vertices[v++] = px + sx;
+            vertices[v++] = py + sy;
+            vertices[v++] = pz + sz;
+            vertices[v++] = packed;
+        }
+    }
+
+    @Override
+    public void getRenderables(Array<Renderable> renderables, Pool<Renderable> pool) {
+        if (count == 0) return;
+        mesh.updateVertices(0, vertices, 0, count * 2 * FLOATS_PER_VERTEX);
+
+        Renderable renderable = pool.obtain();
+        renderable.meshPart.set("trajectory", mesh, 0, count * 2, GL20.GL_TRIANGLE_STRIP);
+        renderable.meshPart.center.set(center);
+        renderable.material = material;
+        renderable.worldTransform.idt();
+        renderable.environment = null; // flat coloured
+        renderables.add(renderable);
+    }
+
+    @Override
+    public void dispose() {
+        mesh.dispose();
+    }
+}
@@ -0,0 +1,202 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.math.Matrix3;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ShortArray;
+
+/**
+ * Rewrites a merged model (see {@link ModelMerger}) into a 16-byte vertex layout instead of
+ * 28 bytes of floats, and welds vertices that end up identical so they share one index.
+ *
+ * Positions become normalized unsigned shorts spanning the model's bounds; the bounds are put
+ * back by the node's translation and scale. Normals become normalized bytes, stored
+ * pre-multiplied by that scale, since every shader transforms normals by the inverse transpose
+ * of the world transform and so divides by it again. Colours stay packed; meshes without
+ * normals (see {@link LightBaker}) stay without, at 12 bytes a vertex.
+ *
+ * Quantised values stop at {@link #QUANTISED_MAX} so no vertex word ever has a NaN bit pattern,
+ * which float[] based mesh uploads are not guaranteed to preserve.
+ */
+public class VertexCompactor {
+    private static final int QUANTISED_MAX = 0x7F00;
+
+    public static Model compact(Model source) {
+        Array<Node> partNodes = new Array<>();
+        Array<NodePart> parts = new Array<>();
+        collectParts(source.nodes, partNodes, parts);
+        if (parts.size != 1 || parts.first().meshPart.primitiveType != GL20.GL_TRIANGLES) {
+            throw new GdxRuntimeException("Only single-part triangle models can be compacted, merge them first");
+        }
+        Node sourceNode = partNodes.first();
+        NodePart sourcePart = parts.first();
+        MeshPart meshPart = sourcePart.meshPart;
+        Mesh sourceMesh = meshPart.mesh;
+
+        VertexReader reader = new VertexReader(sourceMesh);
+        if (reader.hasHinge()) {
+            // Hinges are model-space x coordinates, which quantisation would rescale
+            throw new GdxRuntimeException("Models with wing hinges can't be compacted");
+        }
+        boolean normals = reader.hasNormal();
+        short[] sourceIndices = new short[meshPart.size];
+        sourceMesh.getIndices(meshPart.offset, meshPart.size, sourceIndices, 0);
+
+        // Bounds of the vertices actually used, in the model's space
+        Matrix3 normalTransform = new Matrix3().set(sourceNode.globalTransform).inv().transpose();
+        Vector3 min = new Vector3(Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE);
+        Vector3 max = new Vector3(-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE);
+        Vector3 position = new Vector3();
+        for (int i = 0; i < sourceIndices.length; i++) {
+            reader.getPosition(sourceIndices[i] & 0xFFFF, position).mul(sourceNode.globalTransform);
+            min.set(Math.min(min.x, position.x), Math.min(min.y, position.y), Math.min(min.z, position.z));
+            max.set(Math.max(max.x, position.x), Math.max(max.y, position.y), Math.max(max.z, position.z));
+        }
+        Vector3 extent = new Vector3(Math.max(max.x - min.x, 0.0001f), Math.max(max.y - min.y, 0.0001f),
+            Math.max(max.z - min.z, 0.0001f));
+        Vector3 scale = new Vector3(extent).scl(65535f / QUANTISED_MAX);
+
+        FloatArray vertices = new FloatArray();
+        ShortArray indices = new ShortArray(sourceIndices.length);
+        ObjectIntMap<VertexKey> welded = new ObjectIntMap<>();
+        Vector3 normal = new Vector3();
+        for (int i = 0; i < sourceIndices.length; i++) {
+            int vertex = sourceIndices[i] & 0xFFFF;
+            reader.getPosition(vertex, position).mul(sourceNode.globalTransform);
+            // Scaled up front so the node scale's inverse in the normal matrix gives back the normal
+            reader.getNormal(vertex, normal).mul(normalTransform).nor().scl(scale).nor();
+
+            VertexKey key = new VertexKey(
+                VertexReader.packShorts(quantise(position.x, min.x, extent.x), quantise(position.y, min.y, extent.y)),
+                VertexReader.packShorts(quantise(position.z, min.z, extent.z), 0),
+                normals ? VertexReader.packBytes(Math.round(normal.x * 127f), Math.round(normal.y * 127f),
+                    Math.round(normal.z * 127f), 0) : 0f,
+                reader.getColorBits(vertex));
+            int index = welded.get(key, -1);
+            if (index < 0) {
+                index = welded.size;
+                welded.put(key, index);
+                vertices.add(key.position, key.positionZ);
+                if (normals) vertices.add(key.normal);
+                vertices.add(key.color);
+            }
+            indices.add(index);
+        }
+
+        VertexAttribute quantisedPosition = new VertexAttribute(VertexAttributes.Usage.Position, 4, GL20.GL_UNSIGNED_SHORT,
+            true, "a_position");
+        VertexAttributes attributes = normals
+            ? new VertexAttributes(quantisedPosition,
+                new VertexAttribute(VertexAttributes.Usage.Normal, 4, GL20.GL_BYTE, true, "a_normal"),
+                VertexAttribute.ColorPacked())
+            : new VertexAttributes(quantisedPosition, VertexAttribute.ColorPacked());
+        Mesh mesh = new Mesh(true, welded.size, indices.size, attributes);
+        mesh.setVertices(vertices.toArray());
+        mesh.setIndices(indices.toArray());
+
+        MeshPart part = new MeshPart("compact", mesh, 0, indices.size, GL20.GL_TRIANGLES);
+        // Bounds in mesh space, where positions run from 0 to QUANTISED_MAX / 65535
+        float half = QUANTISED_MAX / 65535f / 2f;
+        part.center.set(half, half, half);
+        part.halfExtents.set(half, half, half);
+        part.radius = part.halfExtents.len();
+
+        Node node = new Node();
+        node.id = sourceNode.id;
+        node.translation.set(min);
+        node.scale.set(scale);
+        node.parts.add(new NodePart(part, sourcePart.material));
+
+        Model model = new Model();
+        model.nodes.add(node);
+        model.meshes.add(mesh);
+        model.meshParts.add(part);
+        model.materials.add(sourcePart.material);
+        model.manageDisposable(mesh);
+        model.calculateTransforms();
+
+        int before = getBytes(sourceMesh);
+        int after = getBytes(mesh);
+        Gdx.app.debug("VertexCompactor", sourceMesh.getNumVertices() + " vertices / " + before + " bytes -> "
+            + mesh.getNumVertices() + " vertices / " + after + " bytes");
+
+        source.dispose();
+        return model;
+    }
+
+    private static int quantise(float value, float min, float extent) {
+        return Math.round((value - min) / extent * QUANTISED_MAX);
+    }
+
+    private static void collectParts(Iterable<Node> nodes, Array<Node> partNodes, Array<NodePart> parts) {
+        for (Node node : nodes) {
+            for (int i = 0; i < node.parts.size; i++) {
+                partNodes.add(node);
+                parts.add(node.parts.get(i));
+            }
+            collectParts(node.getChildren(), partNodes, parts);
+        }
+    }
+
+    /**
+     * Vertex and index memory of a model's meshes.
+     */
+    public static int getBytes(Model model) {
+        int bytes = 0;
+        for (int i = 0; i < model.meshes.size; i++) {
+            bytes += getBytes(model.meshes.get(i));
+        }
+        return bytes;
+    }
+
+    private static int getBytes(Mesh mesh) {
+        return mesh.getNumVertices() * mesh.getVertexSize() + mesh.getNumIndices() * 2;
+    }
+
+    /**
+     * A compacted vertex's four words, compared bit for bit.
+     */
+    private static class VertexKey {
+        final float position;
+        final float positionZ;
+        final float normal;
+        final float color;
+
+        VertexKey(float position, float positionZ, float normal, float color) {
+            this.position = position;
+            this.positionZ = positionZ;
+            this.normal = normal;
+            this.color = color;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof VertexKey)) return false;
+            VertexKey other = (VertexKey) o;
+            return Float.floatToRawIntBits(position) == Float.floatToRawIntBits(other.position)
+                && Float.floatToRawIntBits(positionZ) == Float.floatToRawIntBits(other.positionZ)
+                && Float.floatToRawIntBits(normal) == Float.floatToRawIntBits(other.normal)
+                && Float.floatToRawIntBits(color) == Float.floatToRawIntBits(other.color);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = Float.floatToRawIntBits(position);
+            hash = hash * 31 + Float.floatToRawIntBits(positionZ);
+            hash = hash * 31 + Float.floatToRawIntBits(normal);
+            return hash * 31 + Float.floatToRawIntBits(color);
+        }
+    }
+}
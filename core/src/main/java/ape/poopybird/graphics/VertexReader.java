@@ -0,0 +1,145 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+
+import java.nio.ByteOrder;
+
+/**
+ * Reads positions, normals and colours back out of a mesh's vertices, whether they are stored
+ * as floats or in the packed integer layouts written by {@link VertexCompactor}.
+ *
+ * Packed values are returned as the shader would see them (normalized to 0..1 or -1..1), i.e.
+ * in mesh space before any node transform.
+ */
+public class VertexReader {
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+    private final int[] words;
+    private final int stride;
+    private final VertexAttribute position;
+    private final VertexAttribute normal;
+    private final VertexAttribute packedColor;
+    private final VertexAttribute color;
+    private final VertexAttribute hinge;
+
+    public VertexReader(Mesh mesh) {
+        stride = mesh.getVertexSize() / 4;
+        float[] vertices = mesh.getVertices(new float[mesh.getNumVertices() * stride]);
+        words = new int[vertices.length];
+        for (int i = 0; i < vertices.length; i++) {
+            words[i] = Float.floatToRawIntBits(vertices[i]);
+        }
+        position = mesh.getVertexAttribute(VertexAttributes.Usage.Position);
+        normal = mesh.getVertexAttribute(VertexAttributes.Usage.Normal);
+        packedColor = mesh.getVertexAttribute(VertexAttributes.Usage.ColorPacked);
+        color = mesh.getVertexAttribute(VertexAttributes.Usage.ColorUnpacked);
+        hinge = findAlias(mesh.getVertexAttributes(), FlapAttribute.HINGE_ALIAS);
+    }
+
+    static VertexAttribute findAlias(VertexAttributes attributes, String alias) {
+        for (int i = 0; i < attributes.size(); i++) {
+            if (attributes.get(i).alias.equals(alias)) return attributes.get(i);
+        }
+        return null;
+    }
+
+    public Vector3 getPosition(int vertex, Vector3 out) {
+        return read(position, vertex, out);
+    }
+
+    public boolean hasNormal() {
+        return normal != null;
+    }
+
+    public Vector3 getNormal(int vertex, Vector3 out) {
+        if (normal == null) return out.set(Vector3.Y);
+        return read(normal, vertex, out);
+    }
+
+    public boolean hasColor() {
+        return packedColor != null || color != null;
+    }
+
+    /**
+     * The vertex colour as packed float bits, white if the mesh has none.
+     */
+    public float getColorBits(int vertex) {
+        int base = vertex * stride;
+        if (packedColor != null) {
+            return Float.intBitsToFloat(words[base + packedColor.offset / 4]);
+        }
+        if (color != null) {
+            int c = base + color.offset / 4;
+            return Color.toFloatBits(Float.intBitsToFloat(words[c]), Float.intBitsToFloat(words[c + 1]),
+                Float.intBitsToFloat(words[c + 2]), Float.intBitsToFloat(words[c + 3]));
+        }
+        return Color.WHITE_FLOAT_BITS;
+    }
+
+    public boolean hasHinge() {
+        return hinge != null;
+    }
+
+    /**
+     * The wing hinge of a vertex (see {@link FlapAttribute}), zero if the mesh has none.
+     */
+    public Vector2 getHinge(int vertex, Vector2 out) {
+        if (hinge == null) return out.setZero();
+        int byteOffset = vertex * stride * 4 + hinge.offset;
+        return out.set(component(hinge, byteOffset, 0), component(hinge, byteOffset, 1));
+    }
+
+    private Vector3 read(VertexAttribute attribute, int vertex, Vector3 out) {
+        int byteOffset = vertex * stride * 4 + attribute.offset;
+        return out.set(component(attribute, byteOffset, 0), component(attribute, byteOffset, 1),
+            component(attribute, byteOffset, 2));
+    }
+
+    private float component(VertexAttribute attribute, int byteOffset, int index) {
+        switch (attribute.type) {
+            case GL20.GL_UNSIGNED_SHORT:
+                return readShort(byteOffset + index * 2) / 65535f;
+            case GL20.GL_SHORT:
+                return Math.max(-1f, (short) readShort(byteOffset + index * 2) / 32767f);
+            case GL20.GL_BYTE:
+                return Math.max(-1f, (byte) readByte(byteOffset + index) / 127f);
+            case GL20.GL_UNSIGNED_BYTE:
+                return readByte(byteOffset + index) / 255f;
+            default:
+                return Float.intBitsToFloat(words[byteOffset / 4 + index]);
+        }
+    }
+
+    private int readShort(int byteOffset) {
+        return readByte(byteOffset) | readByte(byteOffset + 1) << 8;
+    }
+
+    private int readByte(int byteOffset) {
+        int word = words[byteOffset >> 2];
+        int shift = LITTLE_ENDIAN ? (byteOffset & 3) * 8 : 24 - (byteOffset & 3) * 8;
+        return (word >>> shift) & 0xFF;
+    }
+
+    /**
+     * Pack four bytes into one vertex word the way {@link #readByte} reads them back.
+     */
+    static float packBytes(int b0, int b1, int b2, int b3) {
+        int word = LITTLE_ENDIAN
+            ? (b0 & 0xFF) | (b1 & 0xFF) << 8 | (b2 & 0xFF) << 16 | (b3 & 0xFF) << 24
+            : (b0 & 0xFF) << 24 | (b1 & 0xFF) << 16 | (b2 & 0xFF) << 8 | (b3 & 0xFF);
+        return Float.intBitsToFloat(word);
+    }
+
+    /**
+     * Pack two 16-bit values into one vertex word, first one at the lower address.
+     */
+    static float packShorts(int s0, int s1) {
+        return packBytes(s0, s0 >> 8, s1, s1 >> 8);
+    }
+}
@@ -0,0 +1,342 @@
+package ape.poopybird.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Rain, snow or falling leaves in a box that follows the camera, placed entirely by the vertex
+ * shader.
+ *
+ * Each drop is a fixed seed in the unit box, uploaded once. The shader moves it by how far the
+ * weather has fallen and drifted so far, wraps it back into the box around the camera, and
+ * turns it into a quad: a streak along the fall direction for rain, a camera-facing flake or a
+ * tumbling leaf otherwise. All the CPU does per frame is add the fall speed and wind to that
+ * one offset. As with {@link SceneryRenderer}, GL3 draws every drop as one instanced quad and
+ * GLES2 uses static meshes of up to {@link #QUADS_PER_CHUNK} quads each.
+ */
+public class WeatherRenderer implements Disposable {
+    private static final int FLOATS_PER_DROP = 5; // seed x, y, z, rank, variation
+    private static final int QUADS_PER_CHUNK = 16384; // keeps chunk indices within a short
+
+    // Drops fall at one of these many twentieths of the base speed (16/20 to 24/20), so
+    // wrapping the offset at twenty box sizes moves every drop by whole boxes
+    private static final int SPEED_STEPS = 20;
+
+    public enum Weather {
+        CLEAR("clear", 0f, 0f, 0f, 0f, 0f, 0f, 0f, 0, 0f, 0f, 0f, 0f, 0f, 0f, 0f, 0f),
+        RAIN("rain", 1f, 14f, 0.025f, 0.7f, 0f, 0f, 1f, 0, 0.7f, 0.75f, 0.85f, 0.35f, 0.7f, 0.75f, 0.85f, 0.35f),
+        SNOW("snow", 0.5f, 1.5f, 0.12f, 0.12f, 0.6f, 0f, 0f, 1, 1f, 1f, 1f, 0.9f, 0.9f, 0.92f, 1f, 0.9f),
+        LEAVES("leaves", 0.05f, 2f, 0.3f, 0.2f, 1.5f, 3f, 0f, 2, 0.85f, 0.45f, 0.1f, 1f, 0.55f, 0.3f, 0.1f, 1f);
+
+        private final String displayName;
+        private final float density;
+        private final float fallSpeed;
+        private final float width;
+        private final float length;
+        private final float sway;
+        private final float spin;
+        private final float streak;
+        private final int shape;
+        private final float[] colors;
+
+        Weather(String displayName, float density, float fallSpeed, float width, float length, float sway,
+                float spin, float streak, int shape, float r1, float g1, float b1, float a1,
+                float r2, float g2, float b2, float a2) {
+            this.displayName = displayName;
+            this.density = density;
+            this.fallSpeed = fallSpeed;
+            this.width = width;
+            this.length = length;
+            this.sway = sway;
+            this.spin = spin;
+            this.streak = streak;
+            this.shape = shape;
+            this.colors = new float[] {r1, g1, b1, a1, r2, g2, b2, a2};
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public Weather next() {
+            return values()[(ordinal() + 1) % values().length];
+        }
+    }
+
+    private static final String VERTEX_SHADER =
+        "attribute vec2 a_corner;\n" +
+        "attribute vec4 a_seed;\n" + // xyz: place in the unit box, w: rank in [0, 1)
+        "attribute float a_variation;\n" +
+        "uniform mat4 u_projViewTrans;\n" +
+        "uniform vec3 u_cameraPosition;\n" +
+        "uniform vec3 u_center;\n" +
+        "uniform vec3 u_volume;\n" +
+        "uniform vec3 u_offset;\n" +
+        "uniform vec3 u_direction;\n" +
+        "uniform vec3 u_up;\n" +
+        "uniform float u_density;\n" +
+        "uniform float u_time;\n" +
+        "uniform float u_groundY;\n" +
+        "uniform float u_width;\n" +
+        "uniform float u_length;\n" +
+        "uniform float u_sway;\n" +
+        "uniform float u_spin;\n" +
+        "uniform float u_streak;\n" +
+        "varying vec2 v_corner;\n" +
+        "varying float v_alpha;\n" +
+        "varying float v_variation;\n" +
+        "void main() {\n" +
+        "    float speed = (16.0 + floor(a_variation * 9.0)) / 20.0;\n" +
+        "    vec3 origin = u_center - 0.5 * u_volume;\n" +
+        "    vec3 p = origin + mod(a_seed.xyz * u_volume + u_offset * speed - origin, u_volume);\n" +
+        "    float phase = a_variation * 6.2832;\n" +
+        "    p.xz += vec2(sin(u_time * 1.3 + phase), cos(u_time * 0.9 + phase * 2.0)) * u_sway;\n" +
+        "    v_corner = a_corner;\n" +
+        "    v_variation = a_variation;\n" +
+        "    if (a_seed.w >= u_density || p.y < u_groundY) {\n" +
+        "        gl_Position = vec4(0.0, 0.0, -2.0, 1.0);\n" + // outside the clip volume
+        "        v_alpha = 0.0;\n" +
+        "        return;\n" +
+        "    }\n" +
+        "    vec3 along = normalize(mix(u_up, u_direction, u_streak));\n" +
+        "    vec3 across = normalize(cross(along, u_cameraPosition - p));\n" +
+        "    float angle = u_spin * (u_time + phase) * (a_variation + 0.5);\n" +
+        "    vec3 turnedAlong = along * cos(angle) + across * sin(angle);\n" +
+        "    vec3 turnedAcross = across * cos(angle) - along * sin(angle);\n" +
+        "    p += turnedAcross * (a_corner.x * u_width) + turnedAlong * (a_corner.y * u_length);\n" +
+        "    vec3 fromCenter = abs(p - u_center) / u_volume;\n" +
+        "    v_alpha = 1.0 - smoothstep(0.35, 0.5, max(fromCenter.x, max(fromCenter.y, fromCenter.z)));\n" +
+        "    gl_Position = u_projViewTrans * vec4(p, 1.0);\n" +
+        "}\n";
+
+    private static final String FRAGMENT_SHADER =
+        "#ifdef GL_ES\n" +
+        "precision mediump float;\n" +
+        "#endif\n" +
+        "uniform vec4 u_color1;\n" +
+        "uniform vec4 u_color2;\n" +
+        "uniform int u_shape;\n" + // 0 soft streak, 1 round flake, 2 solid leaf
+        "varying vec2 v_corner;\n" +
+        "varying float v_alpha;\n" +
+        "varying float v_variation;\n" +
+        "void main() {\n" +
+        "    vec4 color = mix(u_color1, u_color2, v_variation);\n" +
+        "    float edge = 1.0;\n" +
+        "    if (u_shape == 0) edge = 1.0 - abs(v_corner.x) * 2.0;\n" +
+        "    else if (u_shape == 1) edge = 1.0 - smoothstep(0.3, 0.5, length(v_corner));\n" +
+        "    float alpha = color.a * v_alpha * edge;\n" +
+        "    if (alpha < 0.01) discard;\n" +
+        "    gl_FragColor = vec4(color.rgb, alpha);\n" +
+        "}\n";
+
+    private final int count;
+    private final Vector3 volume;
+    private final ShaderProgram shader;
+    private final Array<Mesh> meshes;
+    private final boolean instanced;
+
+    private final Vector3 offset;
+    private final Vector3 velocity;
+    private final Vector3 center;
+    private Weather weather;
+    private float time;
+    private int drawCalls;
+
+    /**
+     * @param count  drops in the densest weather; lighter weather draws a fraction of them
+     * @param volume size of the box around the camera they fill
+     */
+    public WeatherRenderer(int count, Vector3 volume, Weather weather) {
+        this.count = count;
+        this.volume = new Vector3(volume);
+        this.weather = weather;
+        this.offset = new Vector3();
+        this.velocity = new Vector3();
+        this.center = new Vector3();
+
+        shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        if (!shader.isCompiled()) {
+            throw new GdxRuntimeException("Weather shader failed to compile: " + shader.getLog());
+        }
+
+        // Fixed seed so the weather looks the same every game
+        RandomXS128 random = new RandomXS128(7);
+        float[] drops = new float[count * FLOATS_PER_DROP];
+        for (int i = 0; i < count; i++) {
+            int o = i * FLOATS_PER_DROP;
+            drops[o] = random.nextFloat();
+            drops[o + 1] = random.nextFloat();
+            drops[o + 2] = random.nextFloat();
+            drops[o + 3] = (i + 0.5f) / count;
+            drops[o + 4] = random.nextFloat();
+        }
+        instanced = Gdx.gl30 != null;
+        meshes = instanced ? createInstancedMesh(drops, count) : createChunkMeshes(drops, count);
+    }
+
+    private static VertexAttribute cornerAttribute() {
+        return new VertexAttribute(VertexAttributes.Usage.Generic, 2, "a_corner");
+    }
+
+    private static VertexAttribute[] dropAttributes() {
+        return new VertexAttribute[] {
+            new VertexAttribute(VertexAttributes.Usage.Generic, 4, "a_seed"),
+            new VertexAttribute(VertexAttributes.Usage.Generic, 1, "a_variation")
+        };
+    }
+
+    private static Array<Mesh> createInstancedMesh(float[] drops, int count) {
+        Mesh quad = new Mesh(true, 4, 6, cornerAttribute());
+        quad.setVertices(new float[] {-0.5f, -0.5f, 0.5f, -0.5f, 0.5f, 0.5f, -0.5f, 0.5f});
+        quad.setIndices(new short[] {0, 1, 2, 2, 3, 0});
+        quad.enableInstancedRendering(true, count, dropAttributes());
+        quad.setInstanceData(drops);
+
+        Array<Mesh> meshes = new Array<>();
+        meshes.add(quad);
+        return meshes;
+    }
+
+    private static Array<Mesh> createChunkMeshes(float[] drops, int count) {
+        float[] corners = {-0.5f, -0.5f, 0.5f, -0.5f, 0.5f, 0.5f, -0.5f, 0.5f};
+        VertexAttribute[] perDrop = dropAttributes();
+        VertexAttribute[] attributes = {cornerAttribute(), perDrop[0], perDrop[1]};
+        int stride = 2 + FLOATS_PER_DROP;
+
+        Array<Mesh> meshes = new Array<>();
+        for (int first = 0; first < count; first += QUADS_PER_CHUNK) {
+            int quads = Math.min(QUADS_PER_CHUNK, count - first);
+            float[] vertices = new float[quads * 4 * stride];
+            short[] indices = new short[quads * 6];
+            for (int q = 0; q < quads; q++) {
+                for (int c = 0; c < 4; c++) {
+                    int o = (q * 4 + c) * stride;
+                    vertices[o] = corners[c * 2];
+                    vertices[o + 1] = corners[c * 2 + 1];
+                    System.arraycopy(drops, (first + q) * FLOATS_PER_DROP, vertices, o + 2, FLOATS_PER_DROP);
+                }
+                int v = q * 4;
+                int i = q * 6;
+                indices[i] = (short) v;
+                indices[i + 1] = (short) (v + 1);
+                indices[i + 2] = (short) (v + 2);
+                indices[i + 3] = (short) (v + 2);
+                indices[i + 4] = (short) (v + 3);
+                indices[i + 5] = (short) v;
+            }
+            Mesh mesh = new Mesh(true, quads * 4, quads * 6, attributes);
+            mesh.setVertices(vertices);
+            mesh.setIndices(indices);
+            meshes.add(mesh);
+        }
+        return meshes;
+    }
+
+    /**
+     * Let the weather fall and drift with the wind for a frame.
+     */
+    public void update(float delta, Vector3 wind) {
+        time += delta;
+        velocity.set(wind.x, -weather.fallSpeed, wind.z);
+        offset.mulAdd(velocity, delta);
+        offset.x %= volume.x * SPEED_STEPS;
+        offset.y %= volume.y * SPEED_STEPS;
+        offset.z %= volume.z * SPEED_STEPS;
+    }
+
+    /**
+     * Draw the weather around the camera, after the opaque scene since drops are blended.
+     */
+    public void render(PerspectiveCamera camera, float groundY) {
+        drawCalls = 0;
+        if (weather == Weather.CLEAR) return;
+
+        // Keep the box above ground so a low camera doesn't waste half of it underground
+        center.set(camera.position);
+        center.y = Math.max(center.y, groundY + volume.y * 0.4f);
+
+        GL20 gl = Gdx.gl20;
+        gl.glEnable(GL20.GL_DEPTH_TEST);
+        gl.glDepthFunc(GL20.GL_LEQUAL);
+        gl.glDepthMask(false);
+        gl.glDisable(GL20.GL_CULL_FACE);
+        gl.glEnable(GL20.GL_BLEND);
+        gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+
+        float[] colors = weather.colors;
+        shader.bind();
+        shader.setUniformMatrix("u_projViewTrans", camera.combined);
+        shader.setUniformf("u_cameraPosition", camera.position);
+        shader.setUniformf("u_center", center);
+        shader.setUniformf("u_volume", volume);
+        shader.setUniformf("u_offset", offset);
+        shader.setUniformf("u_direction", velocity.x, velocity.y, velocity.z);
+        shader.setUniformf("u_up", camera.up);
+        shader.setUniformf("u_density", weather.density);
+        shader.setUniformf("u_time", time);
+        shader.setUniformf("u_groundY", groundY);
+        shader.setUniformf("u_width", weather.width);
+        shader.setUniformf("u_length", weather.length);
+        shader.setUniformf("u_sway", weather.sway);
+        shader.setUniformf("u_spin", weather.spin);
+        shader.setUniformf("u_streak", weather.streak);
+        shader.setUniformf("u_color1", colors[0], colors[1], colors[2], colors[3]);
+        shader.setUniformf("u_color2", colors[4], colors[5], colors[6], colors[7]);
+        shader.setUniformi("u_shape", weather.shape);
+
+        if (instanced) {
+            meshes.first().render(shader, GL20.GL_TRIANGLES);
+            drawCalls++;
+        } else {
+            // Drops are ranked in buffer order, so lighter weather only needs the leading chunks
+            int drops = (int) Math.ceil(count * weather.density);
+            for (int i = 0; i < meshes.size && drops > 0; i++) {
+                int quads = Math.min(drops, QUADS_PER_CHUNK);
+                meshes.get(i).render(shader, GL20.GL_TRIANGLES, 0, quads * 6);
+                drops -= quads;
+                drawCalls++;
+            }
+        }
+
+        gl.glDepthMask(true);
+        gl.glDisable(GL20.GL_BLEND);
+        gl.glDisable(GL20.GL_DEPTH_TEST);
+    }
+
+    public Weather getWeather() {
+        return weather;
+    }
+
+    public void setWeather(Weather weather) {
+        this.weather = weather;
+    }
+
+    /**
+     * Drops the current weather draws.
+     */
+    public int getDropCount() {
+        return (int) Math.ceil(count * weather.density);
+    }
+
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    @Override
+    public void dispose() {
+        shader.dispose();
+        for (int i = 0; i < meshes.size; i++) {
+            meshes.get(i).dispose();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package ape.poopybird.physics;
+
+import com.badlogic.gdx.utils.IntMap;
+import ape.poopybird.util.Constants;
+
+/**
+ * Precomputed landing data for a poop falling with quadratic air drag.
+ *
+ * In the frame of a uniform wind, a poop dropped with horizontal airspeed {@code s} from height
+ * {@code h} stays in one vertical plane, so its fall is fully described by (h, s). For a grid of
+ * both we integrate the flight once and store the fall time and the distance travelled through
+ * the air; lookups are a bilinear interpolation. The ground landing point is then the drop point
+ * plus wind * time plus that distance along the initial airspeed direction.
+ */
+public class BallisticsTable {
+
+    private static final IntMap<BallisticsTable> cache = new IntMap<>();
+
+    private static final int HEIGHT_STEPS = 32;
+    private static final int SPEED_STEPS = 32;
+    private static final float MAX_HEIGHT = 60f;
+    private static final float MAX_SPEED = 64f;
+    static final float INTEGRATION_STEP = 1f / 240f; // also the trajectory preview's step
+
+    private final float dragCoefficient;
+    private final float[] fallTime;
+    private final float[] airDistance;
+
+    /**
+     * Table for a drag coefficient, built on first use and then shared. Building one takes
+     * milliseconds, so the loading screen builds every bird's up front.
+     */
+    public static BallisticsTable get(float dragCoefficient) {
+        int key = Float.floatToIntBits(dragCoefficient);
+        BallisticsTable table = cache.get(key);
+        if (table == null) {
+            table = new BallisticsTable(dragCoefficient);
+            cache.put(key, table);
+        }
+        return table;
+    }
+
+    private BallisticsTable(float dragCoefficient) {
+        this.dragCoefficient = dragCoefficient;
+        this.fallTime = new float[(HEIGHT_STEPS + 1) * (SPEED_STEPS + 1)];
+        this.airDistance = new float[(HEIGHT_STEPS + 1) * (SPEED_STEPS + 1)];
+
+        for (int h = 0; h <= HEIGHT_STEPS; h++) {
+            for (int s = 0; s <= SPEED_STEPS; s++) {
+                integrate(h * MAX_HEIGHT / HEIGHT_STEPS, s * MAX_SPEED / SPEED_STEPS, h * (SPEED_STEPS + 1) + s);
+            }
+        }
+    }
+
+    private void integrate(float height, float speed, int index) {
+        float x = 0;
+        float y = height;
+        float vx = speed;
+        float vy = 0;
+        float t = 0;
+
+        while (y > 0) {
+            float v = (float) Math.sqrt(vx * vx + vy * vy);
+            float ax = -dragCoefficient * v * vx;
+            float ay = -Constants.GRAVITY - dragCoefficient * v * vy;
+            vx += ax * INTEGRATION_STEP;
+            vy += ay * INTEGRATION_STEP;
+
+            float nextY = y + vy * INTEGRATION_STEP;
+            if (nextY <= 0) {
+                // Interpolate to the exact ground crossing
+                float fraction = y / (y - nextY);
+                x += vx * INTEGRATION_STEP * fraction;
+                t += INTEGRATION_STEP * fraction;
+                break;
+            }
+            x += vx * INTEGRATION_STEP;
+            y = nextY;
+            t += INTEGRATION_STEP;
+        }
+
+        fallTime[index] = t;
+        airDistance[index] = x;
+    }
+
+    /**
+     * Fall time for a drop from {@code height} with horizontal airspeed {@code speed}.
+     */
+    public float getFallTime(float height, float speed) {
+        return lookup(fallTime, height, speed);
+    }
+
+    /**
+     * Horizontal distance travelled relative to the air, along the initial airspeed direction.
+     */
+    public float getAirDistance(float height, float speed) {
+        return lookup(airDistance, height, speed);
+    }
+
+    private static float lookup(float[] table, float height, float speed) {
+        float fh = Math.max(0, Math.min(height / MAX_HEIGHT * HEIGHT_STEPS, HEIGHT_STEPS - 0.0001f));
+        float fs = Math.max(0, Math.min(speed / MAX_SPEED * SPEED_STEPS, SPEED_STEPS - 0.0001f));
+        int h = (int) fh;
+        int s = (int) fs;
+        float th = fh - h;
+        float ts = fs - s;
+
+        int i00 = h * (SPEED_STEPS + 1) + s;
+        int i10 = i00 + SPEED_STEPS + 1;
+        float low = table[i00] + (table[i00 + 1] - table[i00]) * ts;
+        float high = table[i10] + (table[i10 + 1] - table[i10]) * ts;
+        return low + (high - low) * th;
+    }
+
+    public float getDragCoefficient() {
+        return dragCoefficient;
+    }
+}
@@ -0,0 +1,75 @@
+package ape.poopybird.physics;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import ape.poopybird.entities.BirdFlock;
+import ape.poopybird.entities.Target;
+
+/**
+ * Steers every bot-controlled bird in a flock in one pass.
+ *
+ * A bot sticks to one target until it drops on it, then picks the nearest target again. Each
+ * tick it flies so that its predicted landing point moves onto the target, and poops once that
+ * point is inside the target's middle ring. Uses no randomness, so rewinds re-simulate exactly.
+ */
+public class BotPilot {
+    private final Vector3 position;
+    private final Vector3 velocity;
+    private final Vector3 localWind;
+    private final Vector3 landing;
+
+    public BotPilot() {
+        this.position = new Vector3();
+        this.velocity = new Vector3();
+        this.localWind = new Vector3();
+        this.landing = new Vector3();
+    }
+
+    public void steer(BirdFlock flock, Array<Target> targets, Wind wind) {
+        if (targets.size == 0) return;
+
+        for (int i = 0; i < flock.size(); i++) {
+            if (flock.getControl(i) != BirdFlock.CONTROL_BOT) continue;
+
+            float x = flock.getX(i);
+            float z = flock.getZ(i);
+
+            int t = flock.getBotTarget(i);
+            if (t < 0 || t >= targets.size || flock.hasPooped(i)) {
+                t = nearestTarget(targets, x, z);
+                flock.setBotTarget(i, t);
+            }
+            Target target = targets.get(t);
+
+            position.set(x, flock.getY(i), z);
+            velocity.set(flock.getVelocityX(i), 0, flock.getVelocityZ(i));
+            ProjectileCalculator.calculateLandingPosition(position, velocity,
+                wind.sample(x, z, localWind), flock.getPoopDrag(i), landing);
+
+            // Fly so the landing point closes on the target, slowing down once it is close
+            float dx = target.getPosition().x - landing.x;
+            float dz = target.getPosition().z - landing.z;
+            float distance = (float) Math.sqrt(dx * dx + dz * dz);
+            float steer = distance > 1f ? 1f / distance : 1f;
+
+            boolean poop = distance < target.getType().getMiddleRadius();
+            flock.setInput(i, dx * steer, dz * steer, poop);
+        }
+    }
+
+    private static int nearestTarget(Array<Target> targets, float x, float z) {
+        int nearest = 0;
+        float best = Float.MAX_VALUE;
+        for (int t = 0; t < targets.size; t++) {
+            Vector3 p = targets.get(t).getPosition();
+            float dx = p.x - x;
+            float dz = p.z - z;
+            float d2 = dx * dx + dz * dz;
+            if (d2 < best) {
+                best = d2;
+                nearest = t;
+            }
+        }
+        return nearest;
+    }
+}
@@ -3,51 +3,94 @@ package ape.poopybird.physics;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Array;
 import ape.poopybird.entities.Bird;
+import ape.poopybird.entities.BirdFlock;
 import ape.poopybird.entities.Poop;
 import ape.poopybird.entities.PowerUp;
 import ape.poopybird.entities.Target;
 import ape.poopybird.util.Constants;
 import ape.poopybird.util.GameState;
 
+import java.nio.ByteBuffer;
+
 public class PhysicsEngine {
     private final Wind wind;
+    private final BirdFlock flock;
+    private final BotPilot botPilot;
+    private final Array<Poop> droppedPoops;
     private final Array<Poop> activePoops;
     private final Array<Target> targets;
     private final Array<PowerUp> powerUps;
     private final GameState gameState;
 
+    // What happened during the last tick, for effects; not part of the saved state
+    private final Array<Target> bullseyes;
+    private final Array<Target> localHits;
+    private final Array<PowerUp> collectedPowerUps;
+
+    private final Vector3 localWind;
+
     private static final float POWERUP_COLLECT_RADIUS = 3f;
 
-    public PhysicsEngine(GameState gameState) {
+    // The game state tracks the local player, which is always the first bird added
+    private static final int LOCAL_BIRD = 0;
+
+    public PhysicsEngine(GameState gameState, int maxBirds) {
         this.wind = new Wind();
+        this.flock = new BirdFlock(maxBirds);
+        this.botPilot = new BotPilot();
+        this.droppedPoops = new Array<>();
         this.activePoops = new Array<>();
         this.targets = new Array<>();
         this.powerUps = new Array<>();
         this.gameState = gameState;
+        this.bullseyes = new Array<>();
+        this.localHits = new Array<>();
+        this.collectedPowerUps = new Array<>();
+        this.localWind = new Vector3();
     }
 
-    public void update(float delta, Bird bird, Vector3 inputDirection) {
+    /**
+     * Advance the world by one tick. Player-controlled birds must have had their input set on
+     * the flock; bots and replays set their own.
+     */
+    public void update(float delta) {
+        bullseyes.clear();
+        localHits.clear();
+        collectedPowerUps.clear();
+
         // Update wind
         wind.update(delta);
 
-        // Update bird
-        bird.update(delta, inputDirection, wind.getVelocity());
+        // Let bots and replays choose their input, then move every bird in one batch
+        botPilot.steer(flock, targets, wind);
+        flock.applyReplays();
+        flock.update(delta, wind, droppedPoops);
 
         // Update poops
         updatePoops(delta);
 
+        // New poops start falling next tick
+        for (int i = 0; i < droppedPoops.size; i++) {
+            addPoop(droppedPoops.get(i));
+        }
+        droppedPoops.clear();
+
         // Update targets
         updateTargets(delta);
 
         // Update power-ups and check collection
-        updatePowerUps(delta, bird);
+        updatePowerUps(delta);
     }
 
     private void updatePoops(float delta) {
         for (int i = activePoops.size - 1; i >= 0; i--) {
             Poop poop = activePoops.get(i);
             boolean wasInAir = !poop.isLanded();
-            poop.update(delta);
+            if (wasInAir) {
+                Vector3 poopPos = poop.getPosition();
+                wind.sample(poopPos.x, poopPos.z, localWind);
+            }
+            poop.update(delta, localWind);
 
             // Check for target hits when poop lands
             if (wasInAir && poop.isLanded()) {
@@ -65,17 +108,27 @@ public class PhysicsEngine {
         float poopX = poop.getLandingX();
         float poopZ = poop.getLandingZ();
 
+        int owner = poop.getOwner();
         int totalScore = 0;
         for (Target target : targets) {
             int score = target.checkHit(poopX, poopZ);
             if (score > 0) {
                 totalScore += score;
-                gameState.incrementHitCount();
+                if (score == target.getType().getCenterScore()) {
+                    bullseyes.add(target);
+                }
+                if (owner == LOCAL_BIRD) {
+                    gameState.incrementHitCount();
+                    localHits.add(target);
+                }
             }
         }
 
         if (totalScore > 0) {
-            gameState.addScore(totalScore);
+            flock.addScore(owner, totalScore);
+            if (owner == LOCAL_BIRD) {
+                gameState.addScore(totalScore);
+            }
         }
     }
 
@@ -85,13 +138,19 @@ public class PhysicsEngine {
         }
     }
 
-    private void updatePowerUps(float delta, Bird bird) {
+    private void updatePowerUps(float delta) {
         for (int i = powerUps.size - 1; i >= 0; i--) {
             PowerUp powerUp = powerUps.get(i);
             powerUp.update(delta);
 
-            if (powerUp.checkCollection(bird.getPosition(), POWERUP_COLLECT_RADIUS)) {
-                applyPowerUp(powerUp, bird);
+            if (!powerUp.isCollected()) {
+                Vector3 p = powerUp.getPosition();
+                int bird = flock.findNearest(p.x, p.y, p.z, POWERUP_COLLECT_RADIUS);
+                if (bird >= 0) {
+                    powerUp.collect();
+                    collectedPowerUps.add(powerUp);
+                    applyPowerUp(powerUp, bird);
+                }
             }
 
             if (powerUp.shouldRemove()) {
@@ -100,10 +159,10 @@ public class PhysicsEngine {
         }
     }
 
-    private void applyPowerUp(PowerUp powerUp, Bird bird) {
+    private void applyPowerUp(PowerUp powerUp, int bird) {
         switch (powerUp.getType()) {
             case COOLDOWN_REDUCTION:
-                bird.applyCooldownReduction(powerUp.getType().getCooldownReduction());
+                flock.applyCooldownReduction(bird, powerUp.getType().getCooldownReduction());
                 break;
             case DOUBLE_POINTS:
                 // Could implement score multiplier in GameState
@@ -117,7 +176,9 @@ public class PhysicsEngine {
     public void addPoop(Poop poop) {
         if (poop != null) {
             activePoops.add(poop);
-            gameState.incrementPoopCount();
+            if (poop.getOwner() == LOCAL_BIRD) {
+                gameState.incrementPoopCount();
+            }
         }
     }
 
@@ -133,12 +194,69 @@ public class PhysicsEngine {
         activePoops.clear();
         targets.clear();
         powerUps.clear();
+        bullseyes.clear();
+        localHits.clear();
+        collectedPowerUps.clear();
+    }
+
+    /**
+     * Serialize everything the engine owns (wind, score state, birds, poops, targets, power-ups).
+     */
+    public void writeState(ByteBuffer out) {
+        gameState.writeState(out);
+        wind.writeState(out);
+        flock.writeState(out);
+
+        out.putShort((short) activePoops.size);
+        for (int i = 0; i < activePoops.size; i++) {
+            activePoops.get(i).writeState(out);
+        }
+
+        out.putShort((short) targets.size);
+        for (int i = 0; i < targets.size; i++) {
+            targets.get(i).writeState(out);
+        }
+
+        out.putShort((short) powerUps.size);
+        for (int i = 0; i < powerUps.size; i++) {
+            powerUps.get(i).writeState(out);
+        }
+    }
+
+    /**
+     * Replace the engine's world with one written by {@link #writeState}. Entities are
+     * recreated without model instances; the caller is expected to attach new ones.
+     */
+    public void readState(ByteBuffer in) {
+        gameState.readState(in);
+        wind.readState(in);
+        flock.readState(in);
+
+        clearAll();
+        int poopCount = in.getShort();
+        for (int i = 0; i < poopCount; i++) {
+            activePoops.add(Poop.fromState(in));
+        }
+
+        int targetCount = in.getShort();
+        for (int i = 0; i < targetCount; i++) {
+            targets.add(Target.fromState(in));
+        }
+
+        int powerUpCount = in.getShort();
+        for (int i = 0; i < powerUpCount; i++) {
+            powerUps.add(PowerUp.fromState(in));
+        }
     }
 
     public Wind getWind() {
         return wind;
     }
 
+    public BirdFlock getFlock() {
+        return flock;
+    }
+
     public Array<Poop> getActivePoops() {
         return activePoops;
     }
@@ -151,7 +269,45 @@ public class PhysicsEngine {
         return powerUps;
     }
 
+    /**
+     * Targets hit dead centre during the last tick.
+     */
+    public Array<Target> getBullseyes() {
+        return bullseyes;
+    }
+
+    /**
+     * Targets the local player's poops hit during the last tick; their last hit zone and score
+     * are that hit's.
+     */
+    public Array<Target> getLocalHits() {
+        return localHits;
+    }
+
+    /**
+     * Power-ups picked up during the last tick. They are already gone from {@link #getPowerUps}.
+     */
+    public Array<PowerUp> getCollectedPowerUps() {
+        return collectedPowerUps;
+    }
+
     public Vector3 getPredictedLanding(Bird bird) {
-        return ProjectileCalculator.calculateLandingPosition(bird.getPosition(), bird.getVelocity());
+        return getPredictedLanding(bird, new Vector3());
+    }
+
+    public Vector3 getPredictedLanding(Bird bird, Vector3 out) {
+        Vector3 birdPos = bird.getPosition();
+        return ProjectileCalculator.calculateLandingPosition(birdPos, bird.getVelocity(),
+            wind.sample(birdPos.x, birdPos.z, localWind), flock.getPoopDrag(bird.getIndex()), out);
+    }
+
+    /**
+     * The path a poop dropped now would take to {@link #getPredictedLanding}, as x, y, z of each
+     * of {@code numPoints} points in turn.
+     */
+    public void getPredictedTrajectory(Bird bird, int numPoints, float[] out) {
+        Vector3 birdPos = bird.getPosition();
+        ProjectileCalculator.calculateTrajectoryPoints(birdPos, bird.getVelocity(),
+            wind.sample(birdPos.x, birdPos.z, localWind), flock.getPoopDrag(bird.getIndex()), numPoints, out);
     }
 }
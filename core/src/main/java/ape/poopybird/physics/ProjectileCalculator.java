@@ -6,26 +6,53 @@ import ape.poopybird.util.Constants;
 public class ProjectileCalculator {
 
     /**
-     * Calculate where a poop will land given the bird's current state.
+     * Calculate where a poop will land given the bird's current state, in still air.
      */
     public static Vector3 calculateLandingPosition(Vector3 dropPosition, Vector3 velocity) {
+        return calculateLandingPosition(dropPosition, velocity, Vector3.Zero, Constants.POOP_DRAG);
+    }
+
+    /**
+     * Calculate where a poop with the given drag will land, assuming the wind at the drop point
+     * holds for the whole fall. Uses the precomputed {@link BallisticsTable}, so it is O(1).
+     */
+    public static Vector3 calculateLandingPosition(Vector3 dropPosition, Vector3 velocity, Vector3 windVelocity,
+                                                   float dragCoefficient) {
+        return calculateLandingPosition(dropPosition, velocity, windVelocity, dragCoefficient, new Vector3());
+    }
+
+    /**
+     * Allocation-free variant of {@link #calculateLandingPosition(Vector3, Vector3, Vector3, float)}.
+     */
+    public static Vector3 calculateLandingPosition(Vector3 dropPosition, Vector3 velocity, Vector3 windVelocity,
+                                                   float dragCoefficient, Vector3 out) {
         float height = dropPosition.y - Constants.GROUND_LEVEL;
         if (height <= 0) {
-            return new Vector3(dropPosition.x, Constants.GROUND_LEVEL, dropPosition.z);
+            return out.set(dropPosition.x, Constants.GROUND_LEVEL, dropPosition.z);
         }
 
-        // Time to fall: t = sqrt(2 * h / g)
-        float fallTime = (float) Math.sqrt(2 * height / Constants.GRAVITY);
+        // Horizontal velocity relative to the air
+        float airX = velocity.x - windVelocity.x;
+        float airZ = velocity.z - windVelocity.z;
+        float airSpeed = (float) Math.sqrt(airX * airX + airZ * airZ);
+
+        BallisticsTable table = BallisticsTable.get(dragCoefficient);
+        float fallTime = table.getFallTime(height, airSpeed);
+        float airDistance = table.getAirDistance(height, airSpeed);
 
-        // Landing position considering horizontal velocity
-        float landingX = dropPosition.x + velocity.x * fallTime;
-        float landingZ = dropPosition.z + velocity.z * fallTime;
+        // Carried by the wind for the whole fall, plus the distance covered through the air
+        float landingX = dropPosition.x + windVelocity.x * fallTime;
+        float landingZ = dropPosition.z + windVelocity.z * fallTime;
+        if (airSpeed > 0.0001f) {
+            landingX += airX / airSpeed * airDistance;
+            landingZ += airZ / airSpeed * airDistance;
+        }
 
-        return new Vector3(landingX, Constants.GROUND_LEVEL, landingZ);
+        return out.set(landingX, Constants.GROUND_LEVEL, landingZ);
     }
 
     /**
-     * Calculate the time it takes for poop to fall from current height.
+     * Calculate the time it takes for poop to fall from current height, ignoring drag.
      */
     public static float calculateFallTime(float height) {
         if (height <= 0) return 0;
@@ -33,27 +60,73 @@ public class ProjectileCalculator {
     }
 
     /**
-     * Get predicted trajectory points for visualization.
+     * Get predicted trajectory points for visualization, in still air.
      */
     public static Vector3[] calculateTrajectoryPoints(Vector3 dropPosition, Vector3 velocity, int numPoints) {
+        return calculateTrajectoryPoints(dropPosition, velocity, Vector3.Zero, Constants.POOP_DRAG, numPoints);
+    }
+
+    /**
+     * Get predicted trajectory points for visualization. The flight is integrated with the same
+     * drag model as {@link ape.poopybird.entities.Poop}, in the fine steps the
+     * {@link BallisticsTable} was built with, and sampled at points spaced evenly over the
+     * tabulated fall time, so the last one lands where {@link #calculateLandingPosition} says.
+     */
+    public static Vector3[] calculateTrajectoryPoints(Vector3 dropPosition, Vector3 velocity, Vector3 windVelocity,
+                                                      float dragCoefficient, int numPoints) {
+        float[] coords = new float[numPoints * 3];
+        calculateTrajectoryPoints(dropPosition, velocity, windVelocity, dragCoefficient, numPoints, coords);
         Vector3[] points = new Vector3[numPoints];
+        for (int i = 0; i < numPoints; i++) {
+            points[i] = new Vector3(coords[i * 3], coords[i * 3 + 1], coords[i * 3 + 2]);
+        }
+        return points;
+    }
+
+    /**
+     * Allocation-free variant of
+     * {@link #calculateTrajectoryPoints(Vector3, Vector3, Vector3, float, int)}, writing x, y, z
+     * of each point in turn into {@code out}.
+     */
+    public static void calculateTrajectoryPoints(Vector3 dropPosition, Vector3 velocity, Vector3 windVelocity,
+                                                 float dragCoefficient, int numPoints, float[] out) {
         float height = dropPosition.y - Constants.GROUND_LEVEL;
-        float totalTime = calculateFallTime(height);
+        float airX = velocity.x - windVelocity.x;
+        float airZ = velocity.z - windVelocity.z;
+        float airSpeed = (float) Math.sqrt(airX * airX + airZ * airZ);
+        float totalTime = BallisticsTable.get(dragCoefficient).getFallTime(Math.max(0, height), airSpeed);
+        float step = totalTime / (numPoints - 1);
+        int substeps = Math.max(1, (int) Math.ceil(step / BallisticsTable.INTEGRATION_STEP));
+        float dt = step / substeps;
 
+        float x = dropPosition.x;
+        float y = dropPosition.y;
+        float z = dropPosition.z;
+        float vx = velocity.x;
+        float vy = 0;
+        float vz = velocity.z;
         for (int i = 0; i < numPoints; i++) {
-            float t = (totalTime / (numPoints - 1)) * i;
-            float x = dropPosition.x + velocity.x * t;
-            float y = dropPosition.y - 0.5f * Constants.GRAVITY * t * t;
-            float z = dropPosition.z + velocity.z * t;
+            out[i * 3] = x;
+            out[i * 3 + 1] = Math.max(Constants.GROUND_LEVEL, y);
+            out[i * 3 + 2] = z;
 
-            points[i] = new Vector3(x, Math.max(Constants.GROUND_LEVEL, y), z);
+            for (int j = 0; j < substeps && i < numPoints - 1; j++) {
+                float ax = vx - windVelocity.x;
+                float az = vz - windVelocity.z;
+                float v = (float) Math.sqrt(ax * ax + vy * vy + az * az);
+                float drag = Math.min(1f, dragCoefficient * v * dt);
+                vx -= ax * drag;
+                vy -= vy * drag + Constants.GRAVITY * dt;
+                vz -= az * drag;
+                x += vx * dt;
+                y += vy * dt;
+                z += vz * dt;
+            }
         }
-
-        return points;
     }
 
     /**
-     * Calculate the horizontal distance the poop will travel.
+     * Calculate the horizontal distance the poop will travel, ignoring drag.
      */
     public static float calculateHorizontalDistance(float height, Vector3 velocity) {
         float fallTime = calculateFallTime(height);
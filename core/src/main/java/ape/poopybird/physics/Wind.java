@@ -4,6 +4,15 @@ import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector3;
 import ape.poopybird.util.Constants;
 
+import java.nio.ByteBuffer;
+
+/**
+ * Wind over the park: a prevailing velocity that drifts every few seconds, plus a coarse grid
+ * of gusts that evolves with value noise and is sampled bilinearly.
+ *
+ * The gust grid is refreshed a few rows per tick, so a full refresh is spread over several
+ * frames. Sampling is a clamp, four array reads and a lerp, cheap enough for every airborne poop.
+ */
 public class Wind {
     private final Vector3 velocity;
     private final Vector3 targetVelocity;
@@ -11,16 +20,39 @@ public class Wind {
     private float transitionProgress;
     private static final float TRANSITION_DURATION = 2f;
 
+    // Gust field, covering the whole terrain
+    private static final int GRID = Constants.WIND_GRID_SIZE;
+    private static final float FIELD_HALF_SIZE = Constants.WORLD_WIDTH;
+    private static final float CELL_SIZE = FIELD_HALF_SIZE * 2 / (GRID - 1);
+    private static final float NOISE_SCALE = 0.25f; // noise lattice cells per grid cell
+    private static final float NOISE_EVOLUTION = 0.15f; // how fast gusts change shape
+    private final float[] gustX;
+    private final float[] gustZ;
+    private final Vector3 drift;
+    private int noiseSeed;
+    private float fieldTime;
+    private int nextRow;
+
     public Wind() {
         this.velocity = new Vector3();
         this.targetVelocity = new Vector3();
         this.changeTimer = 0;
         this.transitionProgress = 1f;
+        this.gustX = new float[GRID * GRID];
+        this.gustZ = new float[GRID * GRID];
+        this.drift = new Vector3();
+        this.noiseSeed = MathUtils.random.nextInt();
         generateNewTarget();
+
+        // Fill the whole grid once; after this it is refreshed a few rows at a time
+        for (int row = 0; row < GRID; row++) {
+            updateRow(row);
+        }
     }
 
     public void update(float delta) {
         changeTimer += delta;
+        fieldTime += delta;
 
         // Smoothly interpolate to target
         if (transitionProgress < 1f) {
@@ -35,6 +67,27 @@ public class Wind {
             changeTimer = 0;
             generateNewTarget();
         }
+
+        // Gust pattern is carried downwind by the prevailing wind
+        drift.mulAdd(velocity, delta);
+
+        for (int i = 0; i < Constants.WIND_ROWS_PER_UPDATE; i++) {
+            updateRow(nextRow);
+            nextRow = (nextRow + 1) % GRID;
+        }
+    }
+
+    private void updateRow(int row) {
+        float z = row * CELL_SIZE - FIELD_HALF_SIZE - drift.z;
+        float evolution = fieldTime * NOISE_EVOLUTION;
+        int base = row * GRID;
+        for (int col = 0; col < GRID; col++) {
+            float x = col * CELL_SIZE - FIELD_HALF_SIZE - drift.x;
+            float nx = x / CELL_SIZE * NOISE_SCALE;
+            float nz = z / CELL_SIZE * NOISE_SCALE;
+            gustX[base + col] = valueNoise(nx + evolution, nz, noiseSeed) * Constants.WIND_GUST_STRENGTH;
+            gustZ[base + col] = valueNoise(nx, nz + evolution, noiseSeed ^ 0x5bd1e995) * Constants.WIND_GUST_STRENGTH;
+        }
     }
 
     private void generateNewTarget() {
@@ -48,6 +101,87 @@ public class Wind {
         transitionProgress = 0f;
     }
 
+    /**
+     * Wind velocity at a point on the park, written into {@code out}.
+     */
+    public Vector3 sample(float x, float z, Vector3 out) {
+        float fx = MathUtils.clamp((x + FIELD_HALF_SIZE) / CELL_SIZE, 0f, GRID - 1.001f);
+        float fz = MathUtils.clamp((z + FIELD_HALF_SIZE) / CELL_SIZE, 0f, GRID - 1.001f);
+        int col = (int) fx;
+        int row = (int) fz;
+        float tx = fx - col;
+        float tz = fz - row;
+
+        int i00 = row * GRID + col;
+        int i01 = i00 + GRID;
+        float gx0 = gustX[i00] + (gustX[i00 + 1] - gustX[i00]) * tx;
+        float gx1 = gustX[i01] + (gustX[i01 + 1] - gustX[i01]) * tx;
+        float gz0 = gustZ[i00] + (gustZ[i00 + 1] - gustZ[i00]) * tx;
+        float gz1 = gustZ[i01] + (gustZ[i01 + 1] - gustZ[i01]) * tx;
+
+        return out.set(velocity.x + gx0 + (gx1 - gx0) * tz, 0, velocity.z + gz0 + (gz1 - gz0) * tz);
+    }
+
+    /**
+     * Smooth 2D value noise in [-1, 1] from an integer lattice hash.
+     */
+    private static float valueNoise(float x, float z, int seed) {
+        int x0 = MathUtils.floor(x);
+        int z0 = MathUtils.floor(z);
+        float tx = x - x0;
+        float tz = z - z0;
+        tx = tx * tx * (3 - 2 * tx);
+        tz = tz * tz * (3 - 2 * tz);
+
+        float a = lattice(x0, z0, seed);
+        float b = lattice(x0 + 1, z0, seed);
+        float c = lattice(x0, z0 + 1, seed);
+        float d = lattice(x0 + 1, z0 + 1, seed);
+        float top = a + (b - a) * tx;
+        float bottom = c + (d - c) * tx;
+        return top + (bottom - top) * tz;
+    }
+
+    private static float lattice(int x, int z, int seed) {
+        int h = seed ^ (x * 0x27d4eb2d) ^ (z * 0x165667b1);
+        h ^= h >>> 15;
+        h *= 0x2c1b3c6d;
+        h ^= h >>> 12;
+        return (h & 0xffff) / 32767.5f - 1f;
+    }
+
+    public void writeState(ByteBuffer out) {
+        out.putFloat(velocity.x).putFloat(velocity.z);
+        out.putFloat(targetVelocity.x).putFloat(targetVelocity.z);
+        out.putFloat(changeTimer);
+        out.putFloat(transitionProgress);
+        out.putInt(noiseSeed);
+        out.putFloat(fieldTime);
+        out.putFloat(drift.x).putFloat(drift.z);
+        out.put((byte) nextRow);
+        for (int i = 0; i < gustX.length; i++) {
+            out.putFloat(gustX[i]).putFloat(gustZ[i]);
+        }
+    }
+
+    public void readState(ByteBuffer in) {
+        velocity.set(in.getFloat(), 0, in.getFloat());
+        targetVelocity.set(in.getFloat(), 0, in.getFloat());
+        changeTimer = in.getFloat();
+        transitionProgress = in.getFloat();
+        noiseSeed = in.getInt();
+        fieldTime = in.getFloat();
+        drift.set(in.getFloat(), 0, in.getFloat());
+        nextRow = in.get();
+        for (int i = 0; i < gustX.length; i++) {
+            gustX[i] = in.getFloat();
+            gustZ[i] = in.getFloat();
+        }
+    }
+
+    /**
+     * Prevailing wind, without local gusts.
+     */
     public Vector3 getVelocity() {
         return velocity;
     }
@@ -0,0 +1,388 @@
+package ape.poopybird.replay;
+
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-size history of the world for rewinding and scrubbing.
+ *
+ * Every tick's input is kept in a ring. Every {@code frameInterval} ticks the world is
+ * serialized; every {@code keyframeInterval} ticks that snapshot is stored as-is (a keyframe),
+ * otherwise it is XORed against the last keyframe and zero runs are collapsed. All frames live
+ * in one byte ring of {@code memoryBudget} bytes, evicting the oldest keyframe group when full.
+ *
+ * Restoring a tick decodes the nearest stored frame at or before it (one keyframe plus at most
+ * one delta) and re-simulates the recorded inputs up to the requested tick.
+ */
+public class RewindBuffer {
+
+    /** The world being recorded. Simulation must be deterministic given state and inputs. */
+    public interface Simulation {
+        void writeState(ByteBuffer out);
+
+        void readState(ByteBuffer in);
+
+        void simulate(float delta, float inputX, float inputZ, boolean poopRequested);
+    }
+
+    private static final int MAX_FRAME_BYTES = 256 * 1024;
+
+    private final Simulation simulation;
+    private final int keyframeInterval;
+    private final int frameInterval;
+
+    // Frame bytes, written circularly
+    private final byte[] storage;
+    private int storageHead;
+    private int storageUsed;
+
+    // Frame metadata ring
+    private final long[] frameTick;
+    private final int[] frameOffset;
+    private final int[] frameLength;
+    private final int[] frameKeySlot;
+    private int frameFirst;
+    private int frameCount;
+    private int lastKeySlot;
+
+    // Per-tick input ring
+    private final float[] inputDelta;
+    private final float[] inputX;
+    private final float[] inputZ;
+    private final boolean[] inputPoop;
+    private long firstInputTick;
+    private long nextTick;
+
+    // Scratch buffers
+    private final ByteBuffer scratch;
+    private final byte[] keyframeBytes;
+    private final byte[] encodeBytes;
+
+    // Measurements
+    private long lastRestoreNanos;
+    private int lastRestoreTicks;
+    private long maxRestoreNanos;
+
+    public RewindBuffer(Simulation simulation, int memoryBudget, int keyframeInterval,
+                        int frameInterval, int maxTicks) {
+        this.simulation = simulation;
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+        this.frameInterval = Math.max(1, Math.min(frameInterval, this.keyframeInterval));
+        this.storage = new byte[memoryBudget];
+
+        int maxFrames = maxTicks / this.frameInterval + 2;
+        this.frameTick = new long[maxFrames];
+        this.frameOffset = new int[maxFrames];
+        this.frameLength = new int[maxFrames];
+        this.frameKeySlot = new int[maxFrames];
+        this.lastKeySlot = -1;
+
+        this.inputDelta = new float[maxTicks];
+        this.inputX = new float[maxTicks];
+        this.inputZ = new float[maxTicks];
+        this.inputPoop = new boolean[maxTicks];
+
+        this.scratch = ByteBuffer.allocate(MAX_FRAME_BYTES);
+        this.keyframeBytes = new byte[MAX_FRAME_BYTES];
+        // Worst case for the run-length encoding is alternating single zero and literal bytes
+        this.encodeBytes = new byte[MAX_FRAME_BYTES * 2 + 16];
+    }
+
+    /**
+     * Record the input for the next tick, snapshotting the world first when the tick
+     * falls on a frame boundary. Call before simulating the tick.
+     */
+    public void record(float delta, float x, float z, boolean poopRequested) {
+        long tick = nextTick;
+
+        if (tick % frameInterval == 0) {
+            captureFrame(tick);
+        }
+
+        int slot = (int) (tick % inputDelta.length);
+        inputDelta[slot] = delta;
+        inputX[slot] = x;
+        inputZ[slot] = z;
+        inputPoop[slot] = poopRequested;
+        nextTick++;
+
+        if (nextTick - firstInputTick > inputDelta.length) {
+            firstInputTick = nextTick - inputDelta.length;
+        }
+        while (frameCount > 0 && frameTick[frameFirst] < firstInputTick) {
+            evictOldestGroup();
+        }
+    }
+
+    private void captureFrame(long tick) {
+        scratch.clear();
+        try {
+            simulation.writeState(scratch);
+        } catch (BufferOverflowException e) {
+            // World too large to snapshot; the previous frame will cover this tick via re-simulation
+            return;
+        }
+        int length = scratch.position();
+        byte[] raw = scratch.array();
+
+        boolean keyframe = lastKeySlot < 0 || tick % keyframeInterval == 0;
+        int encodedLength = 0;
+        if (!keyframe) {
+            encodedLength = encodeDelta(raw, length);
+            // The world changed too much for the delta to pay off
+            keyframe = encodedLength >= length;
+        }
+        if (keyframe) {
+            System.arraycopy(raw, 0, keyframeBytes, 0, length);
+            System.arraycopy(raw, 0, encodeBytes, 0, length);
+            encodedLength = length;
+        }
+
+        if (encodedLength > storage.length) return;
+
+        // Make room in both rings
+        while (frameCount > 0 && (storageUsed + encodedLength > storage.length || frameCount == frameTick.length)) {
+            evictOldestGroup();
+        }
+        if (!keyframe && lastKeySlot < 0) return;
+
+        int slot = (frameFirst + frameCount) % frameTick.length;
+        frameTick[slot] = tick;
+        frameOffset[slot] = storageHead;
+        frameLength[slot] = encodedLength;
+        frameKeySlot[slot] = keyframe ? slot : lastKeySlot;
+        frameCount++;
+        if (keyframe) lastKeySlot = slot;
+
+        writeStorage(storageHead, encodeBytes, encodedLength);
+        storageHead = (storageHead + encodedLength) % storage.length;
+        storageUsed += encodedLength;
+    }
+
+    /**
+     * XOR against the current keyframe and encode as (zeroRun, literalCount, literals...)
+     * varint runs, preceded by the uncompressed length.
+     */
+    private int encodeDelta(byte[] raw, int length) {
+        int keyLength = frameLength[lastKeySlot];
+        int out = writeVarint(encodeBytes, 0, length);
+        int i = 0;
+        while (i < length) {
+            int zeroStart = i;
+            while (i < length && xorAt(raw, i, keyLength) == 0) i++;
+            int zeroRun = i - zeroStart;
+
+            int literalStart = i;
+            while (i < length && xorAt(raw, i, keyLength) != 0) i++;
+            int literalCount = i - literalStart;
+
+            out = writeVarint(encodeBytes, out, zeroRun);
+            out = writeVarint(encodeBytes, out, literalCount);
+            for (int j = literalStart; j < literalStart + literalCount; j++) {
+                encodeBytes[out++] = xorAt(raw, j, keyLength);
+            }
+        }
+        return out;
+    }
+
+    private byte xorAt(byte[] raw, int index, int keyLength) {
+        return index < keyLength ? (byte) (raw[index] ^ keyframeBytes[index]) : raw[index];
+    }
+
+    /**
+     * Restore the world to the state it had at the start of {@code tick}.
+     *
+     * @return false if the tick is no longer (or not yet) in the buffer
+     */
+    public boolean restore(long tick) {
+        if (tick < getOldestTick() || tick > nextTick) return false;
+
+        long start = TimeUtils.nanoTime();
+
+        // Newest frame at or before the tick
+        int frameSlot = -1;
+        for (int i = frameCount - 1; i >= 0; i--) {
+            int slot = (frameFirst + i) % frameTick.length;
+            if (frameTick[slot] <= tick) {
+                frameSlot = slot;
+                break;
+            }
+        }
+        if (frameSlot < 0) return false;
+
+        int keySlot = frameKeySlot[frameSlot];
+        byte[] raw = scratch.array();
+        int keyLength = frameLength[keySlot];
+        readStorage(frameOffset[keySlot], raw, keyLength);
+        int length = keyLength;
+        if (frameSlot != keySlot) {
+            readStorage(frameOffset[frameSlot], encodeBytes, frameLength[frameSlot]);
+            length = decodeDelta(raw, keyLength, frameLength[frameSlot]);
+        }
+
+        scratch.clear();
+        scratch.limit(length);
+        simulation.readState(scratch);
+
+        // Re-simulate recorded inputs up to the requested tick
+        long frameStart = frameTick[frameSlot];
+        for (long t = frameStart; t < tick; t++) {
+            int slot = (int) (t % inputDelta.length);
+            simulation.simulate(inputDelta[slot], inputX[slot], inputZ[slot], inputPoop[slot]);
+        }
+
+        truncateAfter(tick);
+
+        lastRestoreTicks = (int) (tick - frameStart);
+        lastRestoreNanos = TimeUtils.timeSinceNanos(start);
+        maxRestoreNanos = Math.max(maxRestoreNanos, lastRestoreNanos);
+        return true;
+    }
+
+    /**
+     * Apply the encoded delta in {@link #encodeBytes} onto the keyframe bytes in {@code raw}.
+     */
+    private int decodeDelta(byte[] raw, int keyLength, int encodedLength) {
+        int[] cursor = {0};
+        int length = readVarint(encodeBytes, cursor);
+        // Bytes past the keyframe's end were stored against zero
+        for (int i = keyLength; i < length; i++) raw[i] = 0;
+
+        int position = 0;
+        while (cursor[0] < encodedLength) {
+            position += readVarint(encodeBytes, cursor);
+            int literalCount = readVarint(encodeBytes, cursor);
+            for (int j = 0; j < literalCount; j++) {
+                raw[position] ^= encodeBytes[cursor[0]++];
+                position++;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Forget everything recorded after {@code tick}, so recording continues from there.
+     */
+    private void truncateAfter(long tick) {
+        while (frameCount > 0) {
+            int slot = (frameFirst + frameCount - 1) % frameTick.length;
+            if (frameTick[slot] < tick) break;
+            // Frame is re-captured when recording resumes at this tick
+            storageUsed -= frameLength[slot];
+            storageHead = frameOffset[slot];
+            frameCount--;
+        }
+
+        lastKeySlot = -1;
+        for (int i = frameCount - 1; i >= 0; i--) {
+            int slot = (frameFirst + i) % frameTick.length;
+            if (frameKeySlot[slot] == slot) {
+                lastKeySlot = slot;
+                readStorage(frameOffset[slot], keyframeBytes, frameLength[slot]);
+                break;
+            }
+        }
+        nextTick = tick;
+    }
+
+    private void evictOldestGroup() {
+        do {
+            storageUsed -= frameLength[frameFirst];
+            if (frameFirst == lastKeySlot) {
+                lastKeySlot = -1;
+            }
+            frameFirst = (frameFirst + 1) % frameTick.length;
+            frameCount--;
+        } while (frameCount > 0 && frameKeySlot[frameFirst] != frameFirst);
+
+        if (frameCount == 0) {
+            storageUsed = 0;
+        }
+    }
+
+    private void writeStorage(int offset, byte[] src, int length) {
+        int firstPart = Math.min(length, storage.length - offset);
+        System.arraycopy(src, 0, storage, offset, firstPart);
+        if (firstPart < length) {
+            System.arraycopy(src, firstPart, storage, 0, length - firstPart);
+        }
+    }
+
+    private void readStorage(int offset, byte[] dst, int length) {
+        int firstPart = Math.min(length, storage.length - offset);
+        System.arraycopy(storage, offset, dst, 0, firstPart);
+        if (firstPart < length) {
+            System.arraycopy(storage, 0, dst, firstPart, length - firstPart);
+        }
+    }
+
+    private static int writeVarint(byte[] dst, int offset, int value) {
+        while ((value & ~0x7F) != 0) {
+            dst[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        dst[offset++] = (byte) value;
+        return offset;
+    }
+
+    private static int readVarint(byte[] src, int[] cursor) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = src[cursor[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Walk back through recorded tick deltas to find the tick {@code seconds} before now.
+     */
+    public long tickSecondsAgo(float seconds) {
+        float elapsed = 0;
+        long tick = nextTick;
+        long oldest = getOldestTick();
+        while (tick > oldest && elapsed < seconds) {
+            tick--;
+            elapsed += inputDelta[(int) (tick % inputDelta.length)];
+        }
+        return tick;
+    }
+
+    public long getOldestTick() {
+        if (frameCount == 0) return nextTick;
+        return Math.max(frameTick[frameFirst], firstInputTick);
+    }
+
+    public long getCurrentTick() {
+        return nextTick;
+    }
+
+    public int getUsedBytes() {
+        return storageUsed;
+    }
+
+    public int getMemoryBudget() {
+        return storage.length;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    public float getLastRestoreMillis() {
+        return lastRestoreNanos / 1000000f;
+    }
+
+    public float getMaxRestoreMillis() {
+        return maxRestoreNanos / 1000000f;
+    }
+
+    public int getLastRestoreTicks() {
+        return lastRestoreTicks;
+    }
+}
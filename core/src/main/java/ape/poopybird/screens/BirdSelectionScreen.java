@@ -18,6 +18,7 @@ import ape.poopybird.Main;
 import ape.poopybird.entities.BirdType;
 import ape.poopybird.ui.BirdCard;
 import ape.poopybird.ui.MenuButton;
+import ape.poopybird.util.Constants;
 
 public class BirdSelectionScreen implements Screen {
     private final Main game;
@@ -202,6 +203,10 @@ public class BirdSelectionScreen implements Screen {
             game.setScreen(new GameScreen(game, selectedBird));
             return;
         }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F)) {
+            game.setScreen(new GameScreen(game, selectedBird, Constants.FLOCK_ATTACK_BIRDS));
+            return;
+        }
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
             game.setScreen(new MainMenuScreen(game));
             return;
@@ -297,7 +302,7 @@ public class BirdSelectionScreen implements Screen {
         // Instructions
         batch.begin();
         smallFont.setColor(Color.GRAY);
-        String hint = "Arrow keys or click to select | ENTER to start | Scroll for more birds";
+        String hint = "Arrow keys or click to select | ENTER to start | F for flock attack | Scroll for more birds";
         layout.setText(smallFont, hint);
         smallFont.draw(batch, hint, (VIRTUAL_WIDTH - layout.width) / 2, 25);
         batch.end();
@@ -14,47 +14,86 @@ import com.badlogic.gdx.graphics.g3d.Environment;
 import com.badlogic.gdx.graphics.g3d.Model;
 import com.badlogic.gdx.graphics.g3d.ModelBatch;
 import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
 import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
-import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
 import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
 import com.badlogic.gdx.utils.Array;
 import ape.poopybird.Main;
 import ape.poopybird.entities.*;
 import ape.poopybird.graphics.*;
 import ape.poopybird.input.GameInputProcessor;
 import ape.poopybird.physics.PhysicsEngine;
-import ape.poopybird.physics.ProjectileCalculator;
+import ape.poopybird.replay.RewindBuffer;
+import ape.poopybird.ui.Minimap;
 import ape.poopybird.util.Constants;
 import ape.poopybird.util.GameState;
+import ape.poopybird.world.ParkLayout;
+import ape.poopybird.world.Scenery;
+import ape.poopybird.world.SceneryType;
+import ape.poopybird.world.TargetSpawner;
+
+import java.nio.ByteBuffer;
 
 public class GameScreen implements Screen {
     private final Main game;
     private final BirdType birdType;
+    private final int rivalCount;
 
     // 3D rendering
     private PerspectiveCamera camera;
-    private ModelBatch modelBatch;
+    private ModelBatch modelBatch; // whichever of the two below is selected (F4)
+    private ModelBatch defaultModelBatch;
+    private ModelBatch flatModelBatch;
+    private RadixRenderableSorter renderableSorter;
     private Environment environment;
     private ModelBuilder modelBuilder;
+    private ModelFactory modelFactory;
 
     // Models
     private Model groundModel;
-    private Model birdModel;
     private Model poopModel;
-    private final Array<Model> targetModels;
     private Model powerUpModel;
     private Model targetMarkerModel;
 
+    // Levels of detail for birds and targets, picked per instance by screen size
+    private final LodChain[] birdLods;
+    private final Array<LodChain> targetLods;
+
+    // Bounding spheres for culling, one per model (LOD chains carry their own)
+    private ModelBounds poopBounds;
+    private ModelBounds powerUpBounds;
+
+    // Batched drawing of targets, poops and power-ups: instanced on GL3, CPU-batched on GLES2
+    private EntityRenderer entityRenderer;
+    private final int[][] targetBatchIds; // by target type, then LOD level
+    private int poopBatchId;
+    private int powerUpBatchId;
+
+    // Trees and props: meshes near the camera, impostors further out
+    private SceneryRenderer sceneryRenderer;
+    private SplatDecals splatDecals;
+    private ParticleSystem particles;
+    private WeatherRenderer weather;
+    private BlobShadows blobShadows;
+    private TrajectoryRibbon trajectory;
+    private DynamicResolution dynamicResolution; // null when the scene is drawn straight to the window
+    private FrameCapture frameCapture;
+    private Minimap minimap;
+
     // Instances
     private ModelInstance groundInstance;
-    private ModelInstance birdInstance;
     private ModelInstance targetMarkerInstance;
 
     // Game objects
     private Bird bird;
+    private final Array<Bird> birds;
+    private BirdReplay recording;
     private PhysicsEngine physics;
     private GameState gameState;
     private GameInputProcessor inputProcessor;
@@ -67,6 +106,7 @@ public class GameScreen implements Screen {
     private GlyphLayout layout;
 
     // Target spawning
+    private TargetSpawner targetSpawner;
     private float targetSpawnTimer;
     private float powerUpSpawnTimer;
 
@@ -83,25 +123,63 @@ public class GameScreen implements Screen {
     private float hitDisplayTime;
     private static final float HIT_DISPLAY_DURATION = 1.5f;
 
+    // Render stats (F3)
+    private boolean showStats;
+    private GLProfiler profiler;
+    private int sceneDrawCalls;
+    private int sceneShaderSwitches;
+    private int drawnCount;
+    private final int[] lodCounts;
+    private int culledCount;
+
+    // Rewind history
+    private RewindBuffer rewindBuffer;
+
     // Landing prediction
-    private Vector3 predictedLanding;
+    private final Vector3 predictedLanding;
+    private final float[] trajectoryPoints;
 
     // Scale multiplier for models
     private static final float MODEL_SCALE = 3f;
 
+    // Minimap dot colours
+    private static final Color MAP_TARGET = new Color(1f, 0.3f, 0.3f, 1f);
+    private static final Color MAP_POWER_UP = new Color(1f, 0.85f, 0.2f, 1f);
+    private static final Color MAP_RIVAL = new Color(0.6f, 0.6f, 0.6f, 1f);
+
     public GameScreen(Main game, BirdType birdType) {
+        this(game, birdType, 0);
+    }
+
+    /**
+     * @param rivalCount number of bot birds competing with the player
+     */
+    public GameScreen(Main game, BirdType birdType, int rivalCount) {
         this.game = game;
         this.birdType = birdType;
-        this.targetModels = new Array<>();
+        this.rivalCount = rivalCount;
+        this.birdLods = new LodChain[BirdType.values().length];
+        this.targetLods = new Array<>();
+        this.targetBatchIds = new int[TargetType.values().length][Constants.LOD_LEVELS];
+        this.lodCounts = new int[Constants.LOD_LEVELS];
+        this.birds = new Array<>();
         this.cameraOffset = new Vector3();
         this.predictedLanding = new Vector3();
+        this.trajectoryPoints = new float[Constants.TRAJECTORY_MAX_POINTS * 3];
         this.hitMessage = "";
     }
 
     @Override
     public void show() {
+        // Start computing spawn points in the background while models are built
+        targetSpawner = new TargetSpawner(ParkLayout.DEFAULT);
+
         // Initialize rendering
-        modelBatch = new ModelBatch();
+        renderableSorter = new RadixRenderableSorter();
+        // Shaders belong to the game, so those compiled during the splash warm-up are reused
+        defaultModelBatch = new ModelBatch(game.getDefaultShaders(), renderableSorter);
+        flatModelBatch = new ModelBatch(game.getFlatShaders(), renderableSorter);
+        modelBatch = Constants.FLAT_SHADING ? flatModelBatch : defaultModelBatch;
         modelBuilder = new ModelBuilder();
         spriteBatch = new SpriteBatch();
         shapeRenderer = new ShapeRenderer();
@@ -114,31 +192,32 @@ public class GameScreen implements Screen {
 
         layout = new GlyphLayout();
 
+        profiler = new GLProfiler(Gdx.graphics);
+
         // Setup camera (third-person behind bird)
         camera = new PerspectiveCamera(67f, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
         camera.near = 1f;
         camera.far = 500f;
         currentCameraAngle = 0;
 
-        // Setup lighting - brighter and more cheerful
-        environment = new Environment();
-        environment.set(new ColorAttribute(ColorAttribute.AmbientLight, 0.6f, 0.6f, 0.6f, 1f));
-        environment.add(new DirectionalLight().set(1f, 0.95f, 0.8f, -0.3f, -1f, -0.5f));
+        // Setup lighting
+        environment = ModelFactory.createEnvironment();
+        modelFactory = new ModelFactory(modelBuilder, environment);
 
         // Create models
         createModels();
 
         // Initialize game state
         gameState = new GameState();
-        physics = new PhysicsEngine(gameState);
+        physics = new PhysicsEngine(gameState, rivalCount + 2);
 
-        // Create bird
-        bird = new Bird(birdType);
-        birdInstance = new ModelInstance(birdModel);
-        bird.setModelInstance(birdInstance);
+        // Create birds
+        createBirds();
 
         // Create ground
         groundInstance = new ModelInstance(groundModel);
+        minimap = new Minimap(ParkLayout.DEFAULT.getSize());
+        minimap.setTerrain(ParkLayout.DEFAULT, groundInstance, modelBatch, environmentFor(groundInstance));
 
         // Create target marker (shows where poop will land)
         targetMarkerInstance = new ModelInstance(targetMarkerModel);
@@ -155,28 +234,141 @@ public class GameScreen implements Screen {
         // Reset timers
         targetSpawnTimer = 0;
         powerUpSpawnTimer = 0;
+
+        rewindBuffer = new RewindBuffer(new RewindBuffer.Simulation() {
+            @Override
+            public void writeState(ByteBuffer out) {
+                writeWorldState(out);
+            }
+
+            @Override
+            public void readState(ByteBuffer in) {
+                readWorldState(in);
+            }
+
+            @Override
+            public void simulate(float delta, float inputX, float inputZ, boolean poopRequested) {
+                simulateTick(delta, inputX, inputZ, poopRequested);
+            }
+        }, Constants.REWIND_MEMORY_BUDGET, Constants.REWIND_KEYFRAME_INTERVAL,
+            Constants.REWIND_FRAME_INTERVAL, Constants.REWIND_MAX_TICKS);
     }
 
     private void createModels() {
         // Ground - much larger and more colorful terrain
-        groundModel = createTerrain();
+        groundModel = modelFactory.buildStatic(createTerrain(), Float.NaN);
 
         // Bird - scaled up
-        birdModel = OrigamiBirdBuilder.buildBird(modelBuilder, birdType);
+        getBirdLods(birdType);
 
         // Poop - scaled up
-        poopModel = PoopModelBuilder.buildPoop(modelBuilder);
+        poopModel = modelFactory.build(PoopModelBuilder.buildPoop(modelBuilder));
+        poopBounds = new ModelBounds(poopModel);
 
         // Targets - all scaled up
         for (TargetType type : TargetType.values()) {
-            targetModels.add(TargetModelBuilder.buildTarget(modelBuilder, type));
+            Model[] levels = new Model[Constants.LOD_LEVELS];
+            for (int lod = 0; lod < levels.length; lod++) {
+                levels[lod] = modelFactory.buildTarget(type, lod);
+            }
+            targetLods.add(new LodChain(levels, Constants.LOD_SCREEN_SIZES, Constants.LOD_HYSTERESIS));
+        }
+
+        // Splats left by landed poops
+        splatDecals = new SplatDecals(PoopModelBuilder.buildSplat(modelBuilder), environment,
+            Constants.SPLAT_CAPACITY);
+        if (Constants.DYNAMIC_RESOLUTION) {
+            dynamicResolution = new DynamicResolution(Constants.DYNAMIC_RESOLUTION_MIN_SCALE, 1f,
+                Constants.TARGET_FRAME_TIME, Constants.DYNAMIC_RESOLUTION_HISTORY);
         }
+        frameCapture = new FrameCapture(game.createFrameReadback(), Gdx.files.local(Constants.CAPTURE_DIRECTORY),
+            Constants.CAPTURE_RING, Constants.CAPTURE_POOL, Constants.CAPTURE_CLIP_INTERVAL, Constants.CAPTURE_CLIP_PNG);
+        trajectory = new TrajectoryRibbon(Constants.TRAJECTORY_MAX_POINTS, Constants.TRAJECTORY_WIDTH,
+            new Color(1f, 0.3f, 0.3f, 0.7f));
+        blobShadows = new BlobShadows(Constants.SHADOW_CAPACITY, Constants.GROUND_LEVEL + Constants.SHADOW_HEIGHT);
+        particles = new ParticleSystem(Constants.PARTICLE_BUDGET, Constants.GROUND_LEVEL,
+            Constants.PARTICLE_FRAME_BUDGET_MS);
 
         // Power-up
-        powerUpModel = PoopModelBuilder.buildPowerUp(modelBuilder);
+        powerUpModel = modelFactory.build(PoopModelBuilder.buildPowerUp(modelBuilder));
+        powerUpBounds = new ModelBounds(powerUpModel);
 
         // Target marker (landing prediction circle)
         targetMarkerModel = createTargetMarker();
+
+        // Models the renderer can't take (too large to batch on the CPU) get id -1 and stay on ModelBatch
+        entityRenderer = EntityRenderers.create();
+        for (int i = 0; i < targetLods.size; i++) {
+            for (int lod = 0; lod < Constants.LOD_LEVELS; lod++) {
+                targetBatchIds[i][lod] = entityRenderer.register(targetLods.get(i).getModel(lod));
+            }
+        }
+        poopBatchId = entityRenderer.register(poopModel);
+        powerUpBatchId = entityRenderer.register(powerUpModel);
+
+        Model[] sceneryModels = new Model[SceneryType.values().length];
+        for (SceneryType type : SceneryType.values()) {
+            sceneryModels[type.ordinal()] = modelFactory.build(SceneryModelBuilder.buildScenery(modelBuilder, type));
+        }
+        Scenery scenery = new Scenery(ParkLayout.DEFAULT, Constants.SCENERY_COUNT, Constants.SCENERY_EXTENT,
+            Constants.SCENERY_CELL_SIZE);
+        sceneryRenderer = new SceneryRenderer(scenery, sceneryModels, entityRenderer, environment,
+            MODEL_SCALE, Constants.SCENERY_NEAR_DISTANCE);
+
+        // Weather, picked at random for each game
+        WeatherRenderer.Weather[] kinds = WeatherRenderer.Weather.values();
+        weather = new WeatherRenderer(Constants.WEATHER_DROPS,
+            new Vector3(Constants.WEATHER_VOLUME_WIDTH, Constants.WEATHER_VOLUME_HEIGHT, Constants.WEATHER_VOLUME_WIDTH),
+            kinds[MathUtils.random(kinds.length - 1)]);
+    }
+
+    private void createBirds() {
+        BirdFlock flock = physics.getFlock();
+
+        // The player is always the first bird
+        flock.add(birdType, BirdFlock.CONTROL_PLAYER, 0, 0);
+
+        // Ghost of the last run with the same bird
+        BirdReplay lastReplay = game.getLastReplay();
+        if (rivalCount == 0 && lastReplay != null && lastReplay.getBirdType() == birdType) {
+            flock.addReplay(birdType, lastReplay);
+        }
+
+        // Bots spread over the park
+        BirdType[] types = BirdType.values();
+        for (int i = 0; i < rivalCount; i++) {
+            flock.add(types[MathUtils.random(types.length - 1)], BirdFlock.CONTROL_BOT,
+                MathUtils.random(-Constants.WORLD_WIDTH / 2, Constants.WORLD_WIDTH / 2),
+                MathUtils.random(-Constants.WORLD_HEIGHT / 2, Constants.WORLD_HEIGHT / 2));
+        }
+
+        for (int i = 0; i < flock.size(); i++) {
+            Bird b = new Bird(flock, i);
+            b.setModelInstances(getBirdLods(flock.getType(i)).createInstances());
+            birds.add(b);
+        }
+        bird = birds.first();
+        recording = new BirdReplay(birdType);
+    }
+
+    private LodChain getBirdLods(BirdType type) {
+        LodChain lods = birdLods[type.ordinal()];
+        if (lods == null) {
+            Model[] levels = new Model[Constants.LOD_LEVELS];
+            for (int lod = 0; lod < levels.length; lod++) {
+                levels[lod] = modelFactory.buildBird(type, lod);
+            }
+            lods = new LodChain(levels, Constants.LOD_SCREEN_SIZES, Constants.LOD_HYSTERESIS);
+            birdLods[type.ordinal()] = lods;
+        }
+        return lods;
+    }
+
+    /**
+     * The environment to render an instance in through ModelBatch; none if its lighting is baked.
+     */
+    private Environment environmentFor(ModelInstance instance) {
+        return LightBaker.isBaked(instance.model) ? null : environment;
     }
 
     private Model createTerrain() {
@@ -190,7 +382,19 @@ public class GameScreen implements Screen {
             com.badlogic.gdx.graphics.VertexAttributes.Usage.Position | com.badlogic.gdx.graphics.VertexAttributes.Usage.Normal,
             grassMaterial);
 
-        float size = Constants.WORLD_WIDTH;
+        ParkLayout park = ParkLayout.DEFAULT;
+        float size = park.getSize();
+
+        // Meadow under the scenery around the park, just below the park grass
+        float meadow = Constants.SCENERY_EXTENT;
+        grassBuilder.rect(
+            new Vector3(-meadow, -0.05f, -meadow),
+            new Vector3(meadow, -0.05f, -meadow),
+            new Vector3(meadow, -0.05f, meadow),
+            new Vector3(-meadow, -0.05f, meadow),
+            new Vector3(0, 1, 0)
+        );
+
         grassBuilder.rect(
             new Vector3(-size, 0, -size),
             new Vector3(size, 0, -size),
@@ -207,7 +411,7 @@ public class GameScreen implements Screen {
             com.badlogic.gdx.graphics.VertexAttributes.Usage.Position | com.badlogic.gdx.graphics.VertexAttributes.Usage.Normal,
             pathMaterial);
 
-        float pathWidth = 8f;
+        float pathWidth = park.getPathWidth();
         float pathY = 0.05f;
 
         // Main horizontal path
@@ -229,7 +433,7 @@ public class GameScreen implements Screen {
         );
 
         // Diagonal paths
-        float diagWidth = 5f;
+        float diagWidth = park.getDiagonalPathWidth();
         pathBuilder.rect(
             new Vector3(-size + diagWidth, pathY, -size),
             new Vector3(-size, pathY, -size + diagWidth),
@@ -246,9 +450,9 @@ public class GameScreen implements Screen {
             com.badlogic.gdx.graphics.VertexAttributes.Usage.Position | com.badlogic.gdx.graphics.VertexAttributes.Usage.Normal,
             waterMaterial);
 
-        float pondX = 30f;
-        float pondZ = 25f;
-        float pondSize = 15f;
+        float pondX = park.getPondX();
+        float pondZ = park.getPondZ();
+        float pondSize = park.getPondSize();
         waterBuilder.rect(
             new Vector3(pondX - pondSize, 0.03f, pondZ - pondSize),
             new Vector3(pondX + pondSize, 0.03f, pondZ - pondSize),
@@ -266,9 +470,9 @@ public class GameScreen implements Screen {
             flowerMaterial);
 
         // Several flower patches
-        addFlowerPatch(flowerBuilder, -35, -30, 8);
-        addFlowerPatch(flowerBuilder, 40, -35, 10);
-        addFlowerPatch(flowerBuilder, -25, 40, 7);
+        for (int i = 0; i < park.getFlowerBedCount(); i++) {
+            addFlowerPatch(flowerBuilder, park.getFlowerBedX(i), park.getFlowerBedZ(i), park.getFlowerBedSize(i));
+        }
 
         return modelBuilder.end();
     }
@@ -287,7 +491,7 @@ public class GameScreen implements Screen {
         modelBuilder.begin();
 
         com.badlogic.gdx.graphics.g3d.Material markerMaterial = new com.badlogic.gdx.graphics.g3d.Material(
-            ColorAttribute.createDiffuse(new Color(1f, 0.3f, 0.3f, 0.7f)));
+            ColorAttribute.createDiffuse(new Color(1f, 0.3f, 0.3f, 0.7f)), new BlendingAttribute());
         com.badlogic.gdx.graphics.g3d.utils.MeshPartBuilder markerBuilder = modelBuilder.part("marker",
             GL20.GL_TRIANGLES,
             com.badlogic.gdx.graphics.VertexAttributes.Usage.Position | com.badlogic.gdx.graphics.VertexAttributes.Usage.Normal,
@@ -320,21 +524,33 @@ public class GameScreen implements Screen {
     }
 
     private void spawnInitialTargets() {
+        targetSpawner.awaitCandidates();
+
         int targetCount = MathUtils.random(Constants.MIN_TARGETS, Constants.MAX_TARGETS);
         TargetType[] types = TargetType.values();
 
         for (int i = 0; i < targetCount; i++) {
-            TargetType type = types[MathUtils.random(types.length - 1)];
-            float x = MathUtils.random(-Constants.WORLD_WIDTH / 2 + 10, Constants.WORLD_WIDTH / 2 - 10);
-            float z = MathUtils.random(-Constants.WORLD_HEIGHT / 2 + 10, Constants.WORLD_HEIGHT / 2 - 10);
+            spawnTarget(types[MathUtils.random(types.length - 1)]);
+        }
+    }
 
-            Target target = new Target(type, x, z);
-            ModelInstance instance = new ModelInstance(targetModels.get(type.ordinal()));
-            instance.transform.setToTranslation(x, 0, z);
-            instance.transform.scale(MODEL_SCALE, MODEL_SCALE, MODEL_SCALE);
-            target.setModelInstance(instance);
-            physics.addTarget(target);
+    private void spawnTarget(TargetType type) {
+        int candidate = targetSpawner.spawn(type);
+        float x;
+        float z;
+        if (candidate >= 0) {
+            x = targetSpawner.getX(candidate);
+            z = targetSpawner.getZ(candidate);
+        } else {
+            // No free spawn point for this type; fall back to anywhere in the park
+            x = MathUtils.random(-Constants.WORLD_WIDTH / 2 + 10, Constants.WORLD_WIDTH / 2 - 10);
+            z = MathUtils.random(-Constants.WORLD_HEIGHT / 2 + 10, Constants.WORLD_HEIGHT / 2 - 10);
         }
+
+        Target target = new Target(type, x, z);
+        target.setSpawnCandidate(candidate);
+        attachTargetInstance(target);
+        physics.addTarget(target);
     }
 
     @Override
@@ -350,29 +566,41 @@ public class GameScreen implements Screen {
             update(delta);
         } else {
             // Transition to game over screen
+            game.setLastReplay(recording);
             game.setScreen(new GameOverScreen(game, gameState, birdType));
             return;
         }
 
         // Clear screen - nice sky blue
-        Gdx.gl.glViewport(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
-        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
+        if (dynamicResolution != null) {
+            dynamicResolution.begin(delta);
+        } else {
+            Gdx.gl.glViewport(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        }
+        // Set every frame, since offscreen passes such as the impostor bake leave their own
         Gdx.gl.glClearColor(0.5f, 0.7f, 0.95f, 1f);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
 
         // Update camera
         updateCamera(delta);
+        particles.update(delta, camera);
+        weather.update(delta, physics.getWind().getVelocity());
 
         // Render 3D
+        profiler.reset();
         modelBatch.begin(camera);
+        drawnCount = 0;
+        for (int i = 0; i < lodCounts.length; i++) {
+            lodCounts[i] = 0;
+        }
+        culledCount = 0;
+        entityRenderer.begin();
+        blobShadows.begin(camera);
 
         // Ground
-        modelBatch.render(groundInstance, environment);
-
-        // Target landing marker
-        if (bird.canPoop()) {
-            targetMarkerInstance.transform.setToTranslation(predictedLanding);
-            modelBatch.render(targetMarkerInstance, environment);
-        }
+        modelBatch.render(groundInstance, environmentFor(groundInstance));
+        modelBatch.render(splatDecals);
+        modelBatch.render(particles);
 
         // Targets
         for (int i = 0; i < physics.getTargets().size; i++) {
@@ -381,7 +609,16 @@ public class GameScreen implements Screen {
                 // Update target model position with scale
                 target.getModelInstance().transform.setToTranslation(target.getPosition());
                 target.getModelInstance().transform.scale(MODEL_SCALE, MODEL_SCALE, MODEL_SCALE);
-                modelBatch.render(target.getModelInstance(), environment);
+                int type = target.getType().ordinal();
+                LodChain lods = targetLods.get(type);
+                target.setLodLevel(lods.selectLevel(target.getLodLevel(), camera, target.getModelInstance().transform));
+                // A level the entity renderer didn't take falls back to the full model on ModelBatch
+                if (submit(target.getModelInstance(), lods.getBounds(), targetBatchIds[type][target.getLodLevel()])) {
+                    lodCounts[target.getLodLevel()]++;
+                }
+                BoundingBox box = lods.getBounds().getBox();
+                addShadow(target.getPosition(), Constants.GROUND_LEVEL,
+                    Math.max(box.getWidth(), box.getDepth()) * 0.5f * MODEL_SCALE);
             }
         }
 
@@ -389,69 +626,211 @@ public class GameScreen implements Screen {
         for (int i = 0; i < physics.getPowerUps().size; i++) {
             PowerUp powerUp = physics.getPowerUps().get(i);
             if (powerUp.getModelInstance() != null) {
-                modelBatch.render(powerUp.getModelInstance(), environment);
+                submit(powerUp.getModelInstance(), powerUpBounds, powerUpBatchId);
             }
         }
 
         // Poops
         for (int i = 0; i < physics.getActivePoops().size; i++) {
             Poop poop = physics.getActivePoops().get(i);
+            if (poop.getModelInstance() == null) {
+                attachPoopInstance(poop);
+            }
             if (poop.getModelInstance() != null) {
                 poop.getModelInstance().transform.setToTranslation(poop.getPosition());
                 poop.getModelInstance().transform.scale(MODEL_SCALE, MODEL_SCALE, MODEL_SCALE);
-                modelBatch.render(poop.getModelInstance(), environment);
+                submit(poop.getModelInstance(), poopBounds, poopBatchId);
+            }
+            if (!poop.isLanded()) {
+                addShadow(poop.getPosition(), poop.getPosition().y, poopBounds.getRadius() * MODEL_SCALE);
             }
         }
 
-        // Bird
-        modelBatch.render(birdInstance, environment);
+        // Birds
+        for (int i = 0; i < birds.size; i++) {
+            Bird b = birds.get(i);
+            LodChain lods = getBirdLods(b.getType());
+            b.setLodLevel(lods.selectLevel(b.getLodLevel(), camera, b.getModelInstance().transform));
+            FlapAttribute.set(b.getModelInstance(), b.getWingAngle());
+            if (submit(b.getModelInstance(), lods.getBounds())) {
+                lodCounts[b.getLodLevel()]++;
+            }
+            addShadow(b.getPosition(), b.getHeight(), lods.getBounds().getRadius() * MODEL_SCALE);
+        }
+
+        // Scenery up close
+        sceneryRenderer.submitNear(camera, entityRenderer, modelBatch, environment);
 
         modelBatch.end();
 
+        entityRenderer.render(camera, environment);
+        sceneryRenderer.renderImpostors(camera);
+        blobShadows.render();
+
+        // Translucent surfaces last, once everything opaque is in the depth buffer whichever
+        // renderer drew it: the landing marker, and the arc down to it with more points the
+        // further there is to fall
+        if (bird.canPoop()) {
+            modelBatch.begin(camera);
+            targetMarkerInstance.transform.setToTranslation(predictedLanding);
+            modelBatch.render(targetMarkerInstance, environment);
+
+            float fall = bird.getPosition().y - Constants.GROUND_LEVEL;
+            int points = MathUtils.clamp(Constants.TRAJECTORY_MIN_POINTS
+                + (int) (fall * Constants.TRAJECTORY_POINTS_PER_UNIT), Constants.TRAJECTORY_MIN_POINTS,
+                Constants.TRAJECTORY_MAX_POINTS);
+            physics.getPredictedTrajectory(bird, points, trajectoryPoints);
+            // End exactly on the marker, which comes from the ballistics table rather than integration
+            trajectoryPoints[points * 3 - 3] = predictedLanding.x;
+            trajectoryPoints[points * 3 - 1] = predictedLanding.z;
+            trajectory.update(trajectoryPoints, points, camera);
+            modelBatch.render(trajectory);
+            modelBatch.end();
+        }
+
+        weather.render(camera, Constants.GROUND_LEVEL);
+        sceneDrawCalls = profiler.getDrawCalls();
+        sceneShaderSwitches = profiler.getShaderSwitches();
+        if (dynamicResolution != null) {
+            dynamicResolution.end(spriteBatch);
+        }
+
         // Render HUD
         renderHUD();
+
+        frameCapture.endFrame();
     }
 
-    private void update(float delta) {
-        gameState.update(delta);
+    /**
+     * Queue a blob shadow on the ground under a position; the higher the caster, the larger and
+     * fainter its shadow.
+     */
+    private void addShadow(Vector3 position, float height, float radius) {
+        float lift = Math.max(0f, height - Constants.GROUND_LEVEL);
+        blobShadows.add(position.x, position.z, radius * (1f + lift * Constants.SHADOW_SPREAD),
+            Constants.SHADOW_ALPHA / (1f + lift * Constants.SHADOW_FADE));
+    }
+
+    /**
+     * Render an instance unless its bounding sphere is outside the camera frustum.
+     *
+     * @return whether it was drawn
+     */
+    private boolean submit(ModelInstance instance, ModelBounds bounds) {
+        return submit(instance, bounds, -1);
+    }
 
+    /**
+     * Like {@link #submit(ModelInstance, ModelBounds)}, but queue the instance on the entity
+     * renderer under {@code batchId} when it took that model.
+     */
+    private boolean submit(ModelInstance instance, ModelBounds bounds, int batchId) {
+        if (!bounds.isVisible(camera.frustum, instance.transform)) {
+            culledCount++;
+            return false;
+        }
+
+        if (batchId >= 0) {
+            entityRenderer.add(batchId, instance.transform);
+        } else {
+            modelBatch.render(instance, environmentFor(instance));
+        }
+        drawnCount++;
+        return true;
+    }
+
+    private void update(float delta) {
         // Process input
         inputProcessor.update();
 
-        // Physics update
-        physics.update(delta, bird, inputProcessor.getInputDirection());
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            showStats = !showStats;
+            if (showStats) {
+                profiler.enable();
+            } else {
+                profiler.disable();
+            }
+        }
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F4)) {
+            modelBatch = modelBatch == flatModelBatch ? defaultModelBatch : flatModelBatch;
+        }
 
-        // Update bird model transform with scale
-        updateBirdTransform();
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F5)) {
+            weather.setWeather(weather.getWeather().next());
+        }
 
-        // Update predicted landing position
-        predictedLanding = ProjectileCalculator.calculateLandingPosition(bird.getPosition(), bird.getVelocity());
-
-        // Handle poop
-        if (inputProcessor.isPoopRequested() && bird.canPoop()) {
-            Poop poop = bird.poop();
-            if (poop != null) {
-                ModelInstance poopInstance = new ModelInstance(poopModel);
-                poopInstance.transform.setToTranslation(poop.getPosition());
-                poopInstance.transform.scale(MODEL_SCALE, MODEL_SCALE, MODEL_SCALE);
-                poop.setModelInstance(poopInstance);
-                physics.addPoop(poop);
-            }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F11)) {
+            frameCapture.setRecording(!frameCapture.isRecording());
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F12)) {
+            frameCapture.requestScreenshot();
+        }
+
+        // Rewind instead of advancing this frame
+        if (Gdx.input.isKeyJustPressed(Input.Keys.R)) {
+            rewindTo(rewindBuffer.tickSecondsAgo(Constants.REWIND_STEP_SECONDS));
             inputProcessor.clearPoopRequest();
+            return;
         }
 
-        // Check for target hits and show feedback
-        for (int i = 0; i < physics.getTargets().size; i++) {
-            Target target = physics.getTargets().get(i);
-            if (target.isHit() && target.getLastHitScore() > 0) {
-                showHit(target.getLastHitZone(), target.getLastHitScore());
+        // Record input and advance the simulation by one tick
+        Vector3 inputDirection = inputProcessor.getInputDirection();
+        boolean poopRequested = inputProcessor.isPoopRequested();
+        rewindBuffer.record(delta, inputDirection.x, inputDirection.z, poopRequested);
+        recording.record(inputDirection.x, inputDirection.z, poopRequested);
+        if (simulateTick(delta, inputDirection.x, inputDirection.z, poopRequested)) {
+            inputProcessor.clearPoopRequest();
+        }
+
+        // Splats and particles are only decoration, so they're left here rather than re-simulated on rewind
+        for (int i = 0; i < physics.getActivePoops().size; i++) {
+            Poop poop = physics.getActivePoops().get(i);
+            if (poop.hasJustLanded()) {
+                float y = addSplat(poop.getLandingX(), poop.getLandingZ());
+                particles.splash(poop.getLandingX(), y, poop.getLandingZ());
             }
         }
+        for (int i = 0; i < physics.getBullseyes().size; i++) {
+            Vector3 p = physics.getBullseyes().get(i).getPosition();
+            particles.confetti(p.x, p.y + 2f, p.z);
+        }
+        for (int i = 0; i < physics.getCollectedPowerUps().size; i++) {
+            Vector3 p = physics.getCollectedPowerUps().get(i).getPosition();
+            particles.feathers(p.x, p.y, p.z);
+        }
+
+        // Update bird model transforms with scale
+        updateBirdTransforms();
+
+        // Update predicted landing position
+        physics.getPredictedLanding(bird, predictedLanding);
+
+        // Show feedback for the player's own hits; rivals' and the ghost's don't count
+        for (int i = 0; i < physics.getLocalHits().size; i++) {
+            Target target = physics.getLocalHits().get(i);
+            showHit(target.getLastHitZone(), target.getLastHitScore());
+        }
 
         // Update hit display
         if (hitDisplayTime > 0) {
             hitDisplayTime -= delta;
         }
+    }
+
+    /**
+     * Advance the world by one tick from recorded input. Everything here must be deterministic
+     * so the rewind buffer can re-simulate it.
+     *
+     * @return true if a requested poop was dropped
+     */
+    private boolean simulateTick(float delta, float inputX, float inputZ, boolean poopRequested) {
+        gameState.update(delta);
+
+        // Physics update; the flock drops the poop if the bird is ready
+        physics.getFlock().setInput(bird.getIndex(), inputX, inputZ, poopRequested);
+        physics.update(delta);
+        boolean pooped = physics.getFlock().hasPooped(bird.getIndex());
 
         // Spawn targets periodically
         targetSpawnTimer += delta;
@@ -466,6 +845,94 @@ public class GameScreen implements Screen {
             powerUpSpawnTimer = 0;
             spawnPowerUp();
         }
+        return pooped;
+    }
+
+    /**
+     * Leave a splat where a poop landed: on top of a static target if it came down inside one's
+     * footprint, otherwise on the ground.
+     *
+     * @return the height the splat was left at
+     */
+    private float addSplat(float x, float z) {
+        float y = Constants.GROUND_LEVEL + Constants.SPLAT_HEIGHT;
+        for (int i = 0; i < physics.getTargets().size; i++) {
+            Target target = physics.getTargets().get(i);
+            if (!target.getType().isStatic()) continue;
+
+            // Static targets are only translated and scaled, never turned
+            BoundingBox box = targetLods.get(target.getType().ordinal()).getBounds().getBox();
+            Vector3 position = target.getPosition();
+            float localX = (x - position.x) / MODEL_SCALE;
+            float localZ = (z - position.z) / MODEL_SCALE;
+            if (localX >= box.min.x && localX <= box.max.x && localZ >= box.min.z && localZ <= box.max.z) {
+                y = Math.max(y, position.y + box.max.y * MODEL_SCALE + 0.02f);
+            }
+        }
+        splatDecals.add(x, y, z, MODEL_SCALE);
+        return y;
+    }
+
+    private void rewindTo(long tick) {
+        if (rewindBuffer.restore(tick)) {
+            recording.truncate((int) rewindBuffer.getCurrentTick());
+            updateBirdTransforms();
+            physics.getPredictedLanding(bird, predictedLanding);
+            Gdx.app.debug("Rewind", "Restored tick " + tick + " in " + rewindBuffer.getLastRestoreMillis()
+                + " ms (" + rewindBuffer.getLastRestoreTicks() + " ticks re-simulated, "
+                + rewindBuffer.getUsedBytes() + "/" + rewindBuffer.getMemoryBudget() + " bytes)");
+            showHit("REWIND", 0);
+        }
+    }
+
+    private void writeWorldState(ByteBuffer out) {
+        // RNG first so restoring entities (whose constructors roll dice) can't disturb it
+        RandomXS128 random = (RandomXS128) MathUtils.random;
+        out.putLong(random.getState(0));
+        out.putLong(random.getState(1));
+        out.putFloat(targetSpawnTimer);
+        out.putFloat(powerUpSpawnTimer);
+        physics.writeState(out);
+    }
+
+    private void readWorldState(ByteBuffer in) {
+        long seed0 = in.getLong();
+        long seed1 = in.getLong();
+        targetSpawnTimer = in.getFloat();
+        powerUpSpawnTimer = in.getFloat();
+        physics.readState(in);
+
+        // Entities come back without model instances (poops get theirs when rendered)
+        for (int i = 0; i < physics.getTargets().size; i++) {
+            attachTargetInstance(physics.getTargets().get(i));
+        }
+        for (int i = 0; i < physics.getPowerUps().size; i++) {
+            attachPowerUpInstance(physics.getPowerUps().get(i));
+        }
+        targetSpawner.rebuild(physics.getTargets());
+
+        ((RandomXS128) MathUtils.random).setState(seed0, seed1);
+    }
+
+    private void attachPoopInstance(Poop poop) {
+        ModelInstance poopInstance = new ModelInstance(poopModel);
+        poopInstance.transform.setToTranslation(poop.getPosition());
+        poopInstance.transform.scale(MODEL_SCALE, MODEL_SCALE, MODEL_SCALE);
+        poop.setModelInstance(poopInstance);
+    }
+
+    private void attachTargetInstance(Target target) {
+        ModelInstance instance = new ModelInstance(targetLods.get(target.getType().ordinal()).getModel(0));
+        instance.transform.setToTranslation(target.getPosition());
+        instance.transform.scale(MODEL_SCALE, MODEL_SCALE, MODEL_SCALE);
+        target.setModelInstance(instance);
+    }
+
+    private void attachPowerUpInstance(PowerUp powerUp) {
+        ModelInstance instance = new ModelInstance(powerUpModel);
+        instance.transform.setToTranslation(powerUp.getPosition().x, 8f, powerUp.getPosition().z);
+        instance.transform.scale(MODEL_SCALE * 2, MODEL_SCALE * 2, MODEL_SCALE * 2);
+        powerUp.setModelInstance(instance);
     }
 
     private void showHit(String zone, int score) {
@@ -511,7 +978,14 @@ public class GameScreen implements Screen {
         camera.update();
     }
 
-    private void updateBirdTransform() {
+    private void updateBirdTransforms() {
+        for (int i = 0; i < birds.size; i++) {
+            updateBirdTransform(birds.get(i));
+        }
+    }
+
+    private void updateBirdTransform(Bird bird) {
+        ModelInstance birdInstance = bird.getModelInstance();
         Vector3 pos = bird.getPosition();
         float rotation = bird.getRotationAngle();
 
@@ -539,6 +1013,15 @@ public class GameScreen implements Screen {
         font.setColor(Color.WHITE);
         font.draw(spriteBatch, "Score: " + gameState.getScore(), 20, screenHeight - 20);
 
+        // Best rival (below score)
+        if (birds.size > 1) {
+            int best = 0;
+            for (int i = 1; i < birds.size; i++) {
+                best = Math.max(best, birds.get(i).getScore());
+            }
+            font.draw(spriteBatch, "Rival best: " + best, 20, screenHeight - 55);
+        }
+
         // Time remaining (top-center)
         int seconds = (int) gameState.getTimeRemaining();
         String timeText = String.format("Time: %d:%02d", seconds / 60, seconds % 60);
@@ -555,11 +1038,65 @@ public class GameScreen implements Screen {
         layout.setText(font, windText);
         font.draw(spriteBatch, windText, screenWidth - layout.width - 20, screenHeight - 55);
 
+        // Render stats (bottom-right)
+        if (showStats) {
+            StringBuilder statsText = new StringBuilder("Drawn: ").append(drawnCount)
+                .append("  Culled: ").append(culledCount).append("  LOD:");
+            for (int i = 0; i < lodCounts.length; i++) {
+                statsText.append(i == 0 ? " " : "/").append(lodCounts[i]);
+            }
+            layout.setText(font, statsText);
+            font.draw(spriteBatch, statsText, screenWidth - layout.width - 20, 40);
+
+            String batchedText = "Batched: " + entityRenderer.getInstanceCount()
+                + " in " + entityRenderer.getDrawCalls() + " draws  Scenery: " + sceneryRenderer.getNearCount()
+                + " near, " + sceneryRenderer.getImpostorCount() + " impostors in "
+                + sceneryRenderer.getDrawCalls() + " draws  Splats: " + splatDecals.getCount() + "/"
+                + splatDecals.getCapacity() + "  Particles: " + particles.getCount() + "/" + particles.getLimit()
+                + String.format(" (%.2f ms)", particles.getLastUpdateMillis());
+            layout.setText(font, batchedText);
+            font.draw(spriteBatch, batchedText, screenWidth - layout.width - 20, 75);
+
+            String glText = "Shader: " + (modelBatch == flatModelBatch ? "flat" : "default") + " (F4)"
+                + "  Scene GL draws: " + sceneDrawCalls + "  Shader switches: " + sceneShaderSwitches
+                + "  Merged parts: " + modelFactory.getPartsBefore() + " -> " + modelFactory.getPartsAfter();
+            layout.setText(font, glText);
+            font.draw(spriteBatch, glText, screenWidth - layout.width - 20, 110);
+
+            String sortText = "Sorted state changes: " + renderableSorter.getShaderChanges() + " shader, "
+                + renderableSorter.getMaterialChanges() + " material, " + renderableSorter.getMeshChanges() + " mesh"
+                + "  Weather: " + weather.getWeather().getDisplayName() + " (F5) " + weather.getDropCount()
+                + " drops in " + weather.getDrawCalls() + " draws  Shadows: " + blobShadows.getCount();
+            layout.setText(font, sortText);
+            font.draw(spriteBatch, sortText, screenWidth - layout.width - 20, 145);
+
+            if (Constants.COMPACT_VERTICES) {
+                String vertexText = "Vertex memory: " + modelFactory.getBytesBefore() / 1024 + " KB -> "
+                    + modelFactory.getBytesAfter() / 1024 + " KB";
+                layout.setText(font, vertexText);
+                font.draw(spriteBatch, vertexText, screenWidth - layout.width - 20, 180);
+            }
+
+            if (dynamicResolution != null) {
+                String resolutionText = String.format("Resolution: %.0f%% (%s %.1f ms, budget %.1f ms)",
+                    dynamicResolution.getScale() * 100, dynamicResolution.isGpuTimed() ? "GPU" : "frame",
+                    dynamicResolution.getAverageFrameTime() * 1000, dynamicResolution.getBudget() * 1000);
+                layout.setText(font, resolutionText);
+                font.draw(spriteBatch, resolutionText, screenWidth - layout.width - 20, 215);
+            }
+
+            String captureText = String.format("Capture: %s (F11, F12 shot) %.2f ms, %d written, %d dropped",
+                frameCapture.isRecording() ? "recording" : "off", frameCapture.getLastCostMillis(),
+                frameCapture.getWrittenCount(), frameCapture.getDroppedCount());
+            layout.setText(font, captureText);
+            font.draw(spriteBatch, captureText, screenWidth - layout.width - 20, 250);
+        }
+
         // Hit feedback (center of screen)
         if (hitDisplayTime > 0) {
             float alpha = Math.min(1f, hitDisplayTime / 0.5f);
             bigFont.setColor(1f, 1f, 0f, alpha);
-            String feedbackText = hitMessage + " +" + hitScore;
+            String feedbackText = hitScore > 0 ? hitMessage + " +" + hitScore : hitMessage;
             layout.setText(bigFont, feedbackText);
             bigFont.draw(spriteBatch, feedbackText,
                 (screenWidth - layout.width) / 2,
@@ -575,6 +1112,23 @@ public class GameScreen implements Screen {
             font.draw(spriteBatch, "Reloading...", 20, 60);
         }
 
+        // Minimap (bottom-left, above the cooldown bar)
+        minimap.begin(spriteBatch, 20, 90, Constants.MINIMAP_SIZE);
+        for (int i = 0; i < physics.getTargets().size; i++) {
+            Vector3 pos = physics.getTargets().get(i).getPosition();
+            minimap.dot(spriteBatch, pos.x, pos.z, MAP_TARGET, 4f);
+        }
+        for (int i = 0; i < physics.getPowerUps().size; i++) {
+            Vector3 pos = physics.getPowerUps().get(i).getPosition();
+            minimap.dot(spriteBatch, pos.x, pos.z, MAP_POWER_UP, 4f);
+        }
+        for (int i = 1; i < birds.size; i++) {
+            Vector3 pos = birds.get(i).getPosition();
+            minimap.dot(spriteBatch, pos.x, pos.z, MAP_RIVAL, 4f);
+        }
+        minimap.dot(spriteBatch, bird.getPosition().x, bird.getPosition().z, Color.WHITE, 6f);
+        minimap.end(spriteBatch);
+
         spriteBatch.end();
 
         // Cooldown bar
@@ -611,16 +1165,7 @@ public class GameScreen implements Screen {
         if (physics.getTargets().size >= Constants.MAX_TARGETS) return;
 
         TargetType[] types = TargetType.values();
-        TargetType type = types[MathUtils.random(types.length - 1)];
-        float x = MathUtils.random(-Constants.WORLD_WIDTH / 2 + 10, Constants.WORLD_WIDTH / 2 - 10);
-        float z = MathUtils.random(-Constants.WORLD_HEIGHT / 2 + 10, Constants.WORLD_HEIGHT / 2 - 10);
-
-        Target target = new Target(type, x, z);
-        ModelInstance instance = new ModelInstance(targetModels.get(type.ordinal()));
-        instance.transform.setToTranslation(x, 0, z);
-        instance.transform.scale(MODEL_SCALE, MODEL_SCALE, MODEL_SCALE);
-        target.setModelInstance(instance);
-        physics.addTarget(target);
+        spawnTarget(types[MathUtils.random(types.length - 1)]);
     }
 
     private void spawnPowerUp() {
@@ -631,10 +1176,7 @@ public class GameScreen implements Screen {
         float z = MathUtils.random(-Constants.WORLD_HEIGHT / 2 + 15, Constants.WORLD_HEIGHT / 2 - 15);
 
         PowerUp powerUp = new PowerUp(type, x, z);
-        ModelInstance instance = new ModelInstance(powerUpModel);
-        instance.transform.setToTranslation(x, 8f, z);
-        instance.transform.scale(MODEL_SCALE * 2, MODEL_SCALE * 2, MODEL_SCALE * 2);
-        powerUp.setModelInstance(instance);
+        attachPowerUpInstance(powerUp);
         physics.addPowerUp(powerUp);
     }
 
@@ -644,6 +1186,9 @@ public class GameScreen implements Screen {
         camera.viewportHeight = height;
         camera.update();
         inputProcessor.updateScreenCenter();
+        if (dynamicResolution != null) {
+            dynamicResolution.resize(width, height);
+        }
     }
 
     @Override
@@ -663,19 +1208,36 @@ public class GameScreen implements Screen {
 
     @Override
     public void dispose() {
-        modelBatch.dispose();
+        // The model batches are left alone: disposing them would dispose the game's shaders
         spriteBatch.dispose();
         shapeRenderer.dispose();
         font.dispose();
         bigFont.dispose();
 
         groundModel.dispose();
-        birdModel.dispose();
+        for (LodChain lods : birdLods) {
+            if (lods != null) {
+                lods.dispose();
+            }
+        }
         poopModel.dispose();
-        for (int i = 0; i < targetModels.size; i++) {
-            targetModels.get(i).dispose();
+        for (int i = 0; i < targetLods.size; i++) {
+            targetLods.get(i).dispose();
         }
         powerUpModel.dispose();
         targetMarkerModel.dispose();
+        sceneryRenderer.dispose();
+        splatDecals.dispose();
+        particles.dispose();
+        weather.dispose();
+        blobShadows.dispose();
+        trajectory.dispose();
+        frameCapture.dispose();
+        minimap.dispose();
+        if (dynamicResolution != null) {
+            dynamicResolution.dispose();
+        }
+        entityRenderer.dispose();
+        profiler.disable();
     }
 }
@@ -8,8 +8,12 @@ import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.viewport.ExtendViewport;
 import ape.poopybird.Main;
+import ape.poopybird.entities.BirdType;
+import ape.poopybird.graphics.ShaderWarmup;
+import ape.poopybird.physics.BallisticsTable;
 import ape.poopybird.util.Constants;
 
 public class SplashScreen implements Screen {
@@ -19,6 +23,8 @@ public class SplashScreen implements Screen {
     private final BitmapFont subtitleFont;
     private final GlyphLayout layout;
     private float elapsedTime;
+    private ShaderWarmup warmup;
+    private int ballisticsBuilt;
 
     private final OrthographicCamera camera;
     private final ExtendViewport viewport;
@@ -48,14 +54,26 @@ public class SplashScreen implements Screen {
     @Override
     public void show() {
         elapsedTime = 0;
+        warmup = new ShaderWarmup(game.getFlatShaders(), game.getDefaultShaders());
+        ballisticsBuilt = 0;
     }
 
     @Override
     public void render(float delta) {
         elapsedTime += delta;
 
-        // Transition after splash duration
-        if (elapsedTime >= Constants.SPLASH_DURATION) {
+        // Build every bird's ballistics table, so no poop builds one mid-game, then warm up
+        // shaders, a slice at a time, and move on once it's all done
+        BirdType[] types = BirdType.values();
+        long sliceEnd = TimeUtils.nanoTime() + (long) (Constants.WARMUP_SLICE_MS * 1000000);
+        while (ballisticsBuilt < types.length && TimeUtils.nanoTime() < sliceEnd) {
+            BallisticsTable.get(types[ballisticsBuilt++].getPoopDrag());
+        }
+        while (ballisticsBuilt == types.length && !warmup.step() && TimeUtils.nanoTime() < sliceEnd) {
+            // Keep going until the slice is used up
+        }
+        if (ballisticsBuilt == types.length && warmup.isDone()) {
+            warmup.dispose();
             game.setScreen(new MainMenuScreen(game));
             return;
         }
@@ -87,6 +105,13 @@ public class SplashScreen implements Screen {
             (VIRTUAL_WIDTH - layout.width) / 2,
             VIRTUAL_HEIGHT / 2 - 40);
 
+        // Warm-up progress
+        String progress = "Loading... " + Math.round(warmup.getProgress() * 100) + "%";
+        layout.setText(subtitleFont, progress);
+        subtitleFont.draw(batch, progress,
+            (VIRTUAL_WIDTH - layout.width) / 2,
+            VIRTUAL_HEIGHT / 2 - 100);
+
         batch.end();
     }
 
@@ -0,0 +1,121 @@
+package ape.poopybird.ui;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Disposable;
+import ape.poopybird.world.ParkLayout;
+
+/**
+ * Top-down map of the park with dots for what's on it, north (-Z) up.
+ *
+ * The terrain is drawn once from overhead into a texture and only drawn again when the layout
+ * changes; each frame the map is that texture plus one sprite per dot, drawn in the caller's
+ * SpriteBatch pass. Dots beyond the edge are pinned to it, so nothing is ever off the map.
+ */
+public class Minimap implements Disposable {
+    private static final int TEXTURE_SIZE = 256;
+    private static final int DOT_TEXTURE_SIZE = 16;
+
+    private final float extent;
+    private final FrameBuffer frameBuffer;
+    private final TextureRegion background;
+    private final Texture dot;
+    private final OrthographicCamera camera;
+    private ParkLayout layout;
+
+    private float mapX;
+    private float mapY;
+    private float mapSize;
+
+    /**
+     * @param extent half the width of the square of world the map shows, centred on the origin
+     */
+    public Minimap(float extent) {
+        this.extent = extent;
+        frameBuffer = new FrameBuffer(Pixmap.Format.RGB888, TEXTURE_SIZE, TEXTURE_SIZE, true);
+        frameBuffer.getColorBufferTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        background = new TextureRegion(frameBuffer.getColorBufferTexture());
+        background.flip(false, true); // framebuffer textures are upside down
+
+        // Looking straight down with -Z up leaves +X to the right
+        camera = new OrthographicCamera(extent * 2, extent * 2);
+        camera.position.set(0f, 100f, 0f);
+        camera.direction.set(0f, -1f, 0f);
+        camera.up.set(0f, 0f, -1f);
+        camera.near = 1f;
+        camera.far = 200f;
+        camera.update();
+
+        Pixmap pixmap = new Pixmap(DOT_TEXTURE_SIZE, DOT_TEXTURE_SIZE, Pixmap.Format.RGBA8888);
+        pixmap.setColor(Color.WHITE);
+        pixmap.fillCircle(DOT_TEXTURE_SIZE / 2, DOT_TEXTURE_SIZE / 2, DOT_TEXTURE_SIZE / 2 - 1);
+        dot = new Texture(pixmap);
+        dot.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        pixmap.dispose();
+    }
+
+    /**
+     * Draw the terrain of a layout into the map, unless the map already shows that layout.
+     *
+     * @param environment the terrain's lighting, or null if it's baked in
+     */
+    public void setTerrain(ParkLayout layout, ModelInstance terrain, ModelBatch modelBatch, Environment environment) {
+        if (layout == this.layout) return;
+        this.layout = layout;
+
+        // The terrain reaches past the map's edges, so whatever colour is cleared to never shows
+        frameBuffer.begin();
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
+        modelBatch.begin(camera);
+        modelBatch.render(terrain, environment);
+        modelBatch.end();
+        frameBuffer.end();
+    }
+
+    /**
+     * Draw the map's background; dots added after it, in the same batch pass, go on top.
+     */
+    public void begin(SpriteBatch batch, float x, float y, float size) {
+        mapX = x;
+        mapY = y;
+        mapSize = size;
+        batch.setColor(Color.WHITE);
+        batch.draw(background, x, y, size, size);
+    }
+
+    /**
+     * Draw a dot at a point on the ground.
+     *
+     * @param radius in screen pixels
+     */
+    public void dot(SpriteBatch batch, float worldX, float worldZ, Color color, float radius) {
+        float u = MathUtils.clamp((worldX + extent) / (extent * 2), 0f, 1f);
+        float v = MathUtils.clamp((extent - worldZ) / (extent * 2), 0f, 1f);
+        batch.setColor(color);
+        batch.draw(dot, mapX + u * mapSize - radius, mapY + v * mapSize - radius, radius * 2, radius * 2);
+    }
+
+    /**
+     * Put the batch's colour back after the dots.
+     */
+    public void end(SpriteBatch batch) {
+        batch.setColor(Color.WHITE);
+    }
+
+    @Override
+    public void dispose() {
+        frameBuffer.dispose();
+        dot.dispose();
+    }
+}
@@ -5,7 +5,7 @@ public final class Constants {
 
     // Game timing
     public static final float GAME_DURATION = 90f;
-    public static final float SPLASH_DURATION = 1f;
+    public static final float WARMUP_SLICE_MS = 12f; // shader warm-up work per splash frame
 
     // World dimensions
     public static final float WORLD_WIDTH = 100f;
@@ -18,10 +18,14 @@ public final class Constants {
 
     // Physics
     public static final float GRAVITY = 9.8f;
+    public static final float POOP_DRAG = 0.02f; // quadratic drag per metre, for a bird of scale 1
 
     // Wind
     public static final float MAX_WIND_SPEED = 5f;
     public static final float WIND_CHANGE_INTERVAL = 10f;
+    public static final int WIND_GRID_SIZE = 17;
+    public static final int WIND_ROWS_PER_UPDATE = 2;
+    public static final float WIND_GUST_STRENGTH = 2.5f;
 
     // Power-ups
     public static final float POWERUP_SPAWN_INTERVAL = 15f;
@@ -33,6 +37,61 @@ public final class Constants {
     public static final int MAX_TARGETS = 15;
     public static final float TARGET_SPAWN_INTERVAL = 5f;
 
+    // Rewind
+    public static final int REWIND_MEMORY_BUDGET = 1024 * 1024;
+    public static final int REWIND_MAX_TICKS = 600; // ~10 s at 60 fps
+    public static final int REWIND_KEYFRAME_INTERVAL = 60;
+    public static final int REWIND_FRAME_INTERVAL = 6;
+    public static final float REWIND_STEP_SECONDS = 5f;
+
+    // Flock attack mode
+    public static final int FLOCK_ATTACK_BIRDS = 200;
+
+    // Rendering
+    public static final boolean COMPACT_VERTICES = true; // quantised positions, byte normals, welded vertices
+    public static final boolean BAKE_STATIC_LIGHTING = true; // light and AO in vertex colours for terrain and static targets
+    public static final float BAKE_OCCLUSION_DISTANCE = 1.5f; // gaps narrower than this darken
+    public static final boolean FLAT_SHADING = true; // minimal per-vertex lit shader instead of the default (F4 toggles)
+    public static final int LOD_LEVELS = 3;
+    public static final float[] LOD_SCREEN_SIZES = {0.08f, 0.03f}; // fraction of screen height to drop a level below
+    public static final float LOD_HYSTERESIS = 0.15f;
+    public static final int SPLAT_CAPACITY = 3000; // oldest splat decal is reused past this
+    public static final float SPLAT_HEIGHT = 0.07f; // above the ground, clear of paths and flower beds
+    public static final int PARTICLE_BUDGET = 4096; // effect particles alive at once, across all effects
+    public static final float PARTICLE_FRAME_BUDGET_MS = 1f; // fewer particles are allowed while updates overrun this
+    public static final int WEATHER_DROPS = 60000; // raindrops; snow and leaves use a fraction
+    public static final float WEATHER_VOLUME_WIDTH = 60f; // box of weather kept around the camera
+    public static final float WEATHER_VOLUME_HEIGHT = 40f;
+    public static final int SHADOW_CAPACITY = 1024; // blob shadows drawn per frame
+    public static final float SHADOW_HEIGHT = 0.04f; // above the ground, under splats
+    public static final float SHADOW_ALPHA = 0.45f; // darkness of a shadow cast from ground level
+    public static final float SHADOW_SPREAD = 0.02f; // shadow grows by this fraction per unit of height
+    public static final float SHADOW_FADE = 0.03f; // and fades by this
+    public static final int TRAJECTORY_MIN_POINTS = 8; // in the predicted poop arc, from just above the ground
+    public static final int TRAJECTORY_MAX_POINTS = 64;
+    public static final float TRAJECTORY_POINTS_PER_UNIT = 1f; // of fall height
+    public static final float TRAJECTORY_WIDTH = 0.3f;
+    public static final boolean DYNAMIC_RESOLUTION = true; // draw the scene below window resolution when frames run long
+    public static final float DYNAMIC_RESOLUTION_MIN_SCALE = 0.5f;
+    public static final float TARGET_FRAME_TIME = 1f / 60f;
+    public static final int DYNAMIC_RESOLUTION_HISTORY = 120; // scale samples kept, two a second
+
+    // Frame capture (F11 clip, F12 screenshot)
+    public static final String CAPTURE_DIRECTORY = "captures";
+    public static final int CAPTURE_RING = 3; // captured frames are read back this many frames minus one later
+    public static final int CAPTURE_POOL = 4; // frames waiting to be written before more are dropped
+    public static final int CAPTURE_CLIP_INTERVAL = 2; // clips keep every second frame
+    public static final boolean CAPTURE_CLIP_PNG = false; // raw RGBA clip frames are far cheaper to write
+
+    // Minimap
+    public static final float MINIMAP_SIZE = 200f; // on-screen side in pixels
+
+    // Decorative scenery
+    public static final int SCENERY_COUNT = 20000;
+    public static final float SCENERY_EXTENT = 300f; // half extent, centred on the park
+    public static final float SCENERY_CELL_SIZE = 25f;
+    public static final float SCENERY_NEAR_DISTANCE = 45f; // closer than this: meshes, else impostors
+
     // UI
     public static final int VIRTUAL_WIDTH = 640;
     public static final int VIRTUAL_HEIGHT = 480;
@@ -1,5 +1,7 @@
 package ape.poopybird.util;
 
+import java.nio.ByteBuffer;
+
 public class GameState {
     private int score;
     private float timeRemaining;
@@ -75,6 +77,22 @@ public class GameState {
         return hitCount;
     }
 
+    public void writeState(ByteBuffer out) {
+        out.putInt(score);
+        out.putFloat(timeRemaining);
+        out.put((byte) (gameOver ? 1 : 0));
+        out.putInt(poopCount);
+        out.putInt(hitCount);
+    }
+
+    public void readState(ByteBuffer in) {
+        score = in.getInt();
+        timeRemaining = in.getFloat();
+        gameOver = in.get() != 0;
+        poopCount = in.getInt();
+        hitCount = in.getInt();
+    }
+
     public float getAccuracy() {
         if (poopCount == 0) return 0f;
         return (float) hitCount / poopCount * 100f;
@@ -0,0 +1,106 @@
+package ape.poopybird.world;
+
+import ape.poopybird.util.Constants;
+
+/**
+ * Static layout of the park terrain: grass extent, paths, pond and flower beds.
+ * Shared by the terrain builder and anything that needs to avoid or draw those areas.
+ */
+public class ParkLayout {
+
+    public static final ParkLayout DEFAULT = new ParkLayout(
+        Constants.WORLD_WIDTH, 8f, 5f,
+        30f, 25f, 15f,
+        new float[] {
+            -35, -30, 8,
+            40, -35, 10,
+            -25, 40, 7
+        });
+
+    private final float size;
+    private final float pathWidth;
+    private final float diagonalPathWidth;
+    private final float pondX;
+    private final float pondZ;
+    private final float pondSize;
+    private final float[] flowerBeds;
+
+    /**
+     * @param size              half extent of the grass
+     * @param pathWidth         width of the axis-aligned paths through the centre
+     * @param diagonalPathWidth offset of the diagonal path's edges from the x = z line
+     * @param flowerBeds        (x, z, halfSize) triples
+     */
+    public ParkLayout(float size, float pathWidth, float diagonalPathWidth,
+                      float pondX, float pondZ, float pondSize, float[] flowerBeds) {
+        this.size = size;
+        this.pathWidth = pathWidth;
+        this.diagonalPathWidth = diagonalPathWidth;
+        this.pondX = pondX;
+        this.pondZ = pondZ;
+        this.pondSize = pondSize;
+        this.flowerBeds = flowerBeds;
+    }
+
+    /**
+     * Distance from a point to the nearest path or the pond. Negative inside them.
+     */
+    public float clearance(float x, float z) {
+        float halfPath = pathWidth / 2;
+        float clearance = Math.abs(z) - halfPath;
+        clearance = Math.min(clearance, Math.abs(x) - halfPath);
+        clearance = Math.min(clearance, (Math.abs(x - z) - diagonalPathWidth) / (float) Math.sqrt(2));
+
+        float dx = Math.abs(x - pondX) - pondSize;
+        float dz = Math.abs(z - pondZ) - pondSize;
+        float pondDistance;
+        if (dx > 0 || dz > 0) {
+            float ox = Math.max(dx, 0);
+            float oz = Math.max(dz, 0);
+            pondDistance = (float) Math.sqrt(ox * ox + oz * oz);
+        } else {
+            pondDistance = Math.max(dx, dz);
+        }
+        return Math.min(clearance, pondDistance);
+    }
+
+    public float getSize() {
+        return size;
+    }
+
+    public float getPathWidth() {
+        return pathWidth;
+    }
+
+    public float getDiagonalPathWidth() {
+        return diagonalPathWidth;
+    }
+
+    public float getPondX() {
+        return pondX;
+    }
+
+    public float getPondZ() {
+        return pondZ;
+    }
+
+    public float getPondSize() {
+        return pondSize;
+    }
+
+    public int getFlowerBedCount() {
+        return flowerBeds.length / 3;
+    }
+
+    public float getFlowerBedX(int index) {
+        return flowerBeds[index * 3];
+    }
+
+    public float getFlowerBedZ(int index) {
+        return flowerBeds[index * 3 + 1];
+    }
+
+    public float getFlowerBedSize(int index) {
+        return flowerBeds[index * 3 + 2];
+    }
+}
@@ -0,0 +1,174 @@
+package ape.poopybird.world;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+
+/**
+ * Positions of the decorative trees and props in and around a {@link ParkLayout}.
+ *
+ * Items are scattered with a fixed seed so every run looks the same, kept off the park's paths,
+ * pond and flower beds, and thinned out inside the park so targets stay visible. They are
+ * stored sorted by square grid cell so renderers can visit only the cells near the camera.
+ */
+public class Scenery {
+    private static final float PARK_DENSITY = 0.15f; // fraction of the items landing in the park that are kept
+    private static final float PATH_CLEARANCE = 3f;
+    private static final float LAMP_CLEARANCE = 6f;
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final int count;
+    private final float[] x;
+    private final float[] z;
+    private final float[] scale;
+    private final float[] rotation;
+    private final byte[] types;
+
+    private final float extent;
+    private final float cellSize;
+    private final int cellsPerSide;
+    private final int[] cellStart;
+
+    /**
+     * @param extent   half extent of the square the scenery covers, centred on the park
+     * @param cellSize edge length of a grid cell
+     */
+    public Scenery(ParkLayout park, int count, float extent, float cellSize) {
+        this.extent = extent;
+        this.cellSize = cellSize;
+        this.cellsPerSide = MathUtils.ceil(extent * 2 / cellSize);
+
+        RandomXS128 random = new RandomXS128(SEED);
+        float[] px = new float[count];
+        float[] pz = new float[count];
+        byte[] pt = new byte[count];
+        int placed = 0;
+        while (placed < count) {
+            float cx = (random.nextFloat() * 2 - 1) * extent;
+            float cz = (random.nextFloat() * 2 - 1) * extent;
+            SceneryType type = pickType(park, cx, cz, random);
+            if (type == null) continue;
+
+            px[placed] = cx;
+            pz[placed] = cz;
+            pt[placed] = (byte) type.ordinal();
+            placed++;
+        }
+
+        // Counting sort into grid cells
+        int cells = cellsPerSide * cellsPerSide;
+        int[] cellOf = new int[count];
+        cellStart = new int[cells + 1];
+        for (int i = 0; i < count; i++) {
+            cellOf[i] = cellIndex(cellCoordinate(px[i]), cellCoordinate(pz[i]));
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < cells; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] next = new int[cells];
+        System.arraycopy(cellStart, 0, next, 0, cells);
+
+        this.count = count;
+        x = new float[count];
+        z = new float[count];
+        scale = new float[count];
+        rotation = new float[count];
+        types = new byte[count];
+        for (int i = 0; i < count; i++) {
+            int slot = next[cellOf[i]]++;
+            x[slot] = px[i];
+            z[slot] = pz[i];
+            types[slot] = pt[i];
+            scale[slot] = 0.8f + random.nextFloat() * 0.5f;
+            rotation[slot] = random.nextFloat() * 360f;
+        }
+    }
+
+    /**
+     * What to place at a point, or null to leave it empty.
+     */
+    private static SceneryType pickType(ParkLayout park, float x, float z, RandomXS128 random) {
+        float size = park.getSize();
+        boolean inPark = Math.abs(x) < size && Math.abs(z) < size;
+        if (inPark) {
+            if (random.nextFloat() > PARK_DENSITY) return null;
+
+            float clearance = park.clearance(x, z);
+            if (clearance < PATH_CLEARANCE) return null;
+            for (int i = 0; i < park.getFlowerBedCount(); i++) {
+                float bed = park.getFlowerBedSize(i) + PATH_CLEARANCE;
+                if (Math.abs(x - park.getFlowerBedX(i)) < bed && Math.abs(z - park.getFlowerBedZ(i)) < bed) {
+                    return null;
+                }
+            }
+            if (clearance < LAMP_CLEARANCE) return SceneryType.LAMP_POST;
+        }
+
+        float roll = random.nextFloat();
+        if (roll < 0.45f) return SceneryType.ROUND_TREE;
+        if (roll < 0.8f) return SceneryType.PINE_TREE;
+        if (roll < 0.92f) return SceneryType.BUSH;
+        return SceneryType.ROCK;
+    }
+
+    /**
+     * Grid coordinate of a world position along one axis, clamped to the grid.
+     */
+    public int cellCoordinate(float position) {
+        return MathUtils.clamp((int) ((position + extent) / cellSize), 0, cellsPerSide - 1);
+    }
+
+    public int cellIndex(int cellX, int cellZ) {
+        return cellZ * cellsPerSide + cellX;
+    }
+
+    /**
+     * First item in a cell; the cell's items run up to {@link #getCellEnd}.
+     */
+    public int getCellStart(int cell) {
+        return cellStart[cell];
+    }
+
+    public int getCellEnd(int cell) {
+        return cellStart[cell + 1];
+    }
+
+    public int getCellsPerSide() {
+        return cellsPerSide;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public float getX(int item) {
+        return x[item];
+    }
+
+    public float getZ(int item) {
+        return z[item];
+    }
+
+    public float getScale(int item) {
+        return scale[item];
+    }
+
+    /**
+     * Rotation about the Y axis in degrees.
+     */
+    public float getRotation(int item) {
+        return rotation[item];
+    }
+
+    public SceneryType getType(int item) {
+        return SceneryType.values()[types[item]];
+    }
+
+    public int getTypeIndex(int item) {
+        return types[item];
+    }
+}
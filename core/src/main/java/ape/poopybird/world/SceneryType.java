@@ -0,0 +1,12 @@
+package ape.poopybird.world;
+
+/**
+ * Kinds of decorative object placed around the park by {@link Scenery}.
+ */
+public enum SceneryType {
+    ROUND_TREE,
+    PINE_TREE,
+    BUSH,
+    ROCK,
+    LAMP_POST
+}
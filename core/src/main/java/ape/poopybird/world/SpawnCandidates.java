@@ -0,0 +1,213 @@
+package ape.poopybird.world;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+import ape.poopybird.entities.TargetType;
+import ape.poopybird.util.Constants;
+
+import java.util.Arrays;
+
+/**
+ * Poisson-disk distributed spawn points for a {@link ParkLayout}, computed once per layout on a
+ * background thread and shared by every game on that layout.
+ *
+ * Points are at least the smallest target outer radius apart and keep clear of the pond and
+ * paths. For each point we also store its neighbours within the largest outer radius, so
+ * occupying a point only touches those neighbours at runtime.
+ */
+public class SpawnCandidates {
+
+    private static final AsyncExecutor executor = new AsyncExecutor(1, "SpawnCandidates");
+    private static final ObjectMap<ParkLayout, AsyncResult<SpawnCandidates>> cache = new ObjectMap<>();
+
+    private static final int BRIDSON_ATTEMPTS = 30;
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    private final float[] x;
+    private final float[] z;
+    private final float[] clearance;
+    private final int[] neighborStart;
+    private final int[] neighborIndex;
+    private final float[] neighborDistance;
+
+    /**
+     * Start (or reuse) the background computation for a layout. Call on the render thread.
+     */
+    public static AsyncResult<SpawnCandidates> request(final ParkLayout layout) {
+        AsyncResult<SpawnCandidates> result = cache.get(layout);
+        if (result == null) {
+            result = executor.submit(new AsyncTask<SpawnCandidates>() {
+                @Override
+                public SpawnCandidates call() {
+                    return new SpawnCandidates(layout);
+                }
+            });
+            cache.put(layout, result);
+        }
+        return result;
+    }
+
+    private SpawnCandidates(ParkLayout layout) {
+        float minSpacing = Float.MAX_VALUE;
+        float maxRadius = 0;
+        float minFootprint = Float.MAX_VALUE;
+        for (TargetType type : TargetType.values()) {
+            minSpacing = Math.min(minSpacing, type.getOuterRadius());
+            maxRadius = Math.max(maxRadius, type.getOuterRadius());
+            minFootprint = Math.min(minFootprint, type.getCenterRadius());
+        }
+
+        float halfExtent = Math.min(Constants.WORLD_WIDTH, Constants.WORLD_HEIGHT) / 2 - 10;
+        FloatArray points = sample(halfExtent, minSpacing);
+
+        // Keep points that at least the smallest target fits at
+        FloatArray kept = new FloatArray();
+        FloatArray keptClearance = new FloatArray();
+        for (int i = 0; i < points.size; i += 2) {
+            float c = layout.clearance(points.get(i), points.get(i + 1));
+            if (c >= minFootprint) {
+                kept.add(points.get(i), points.get(i + 1));
+                keptClearance.add(c);
+            }
+        }
+
+        int count = keptClearance.size;
+        x = new float[count];
+        z = new float[count];
+        clearance = keptClearance.toArray();
+        for (int i = 0; i < count; i++) {
+            x[i] = kept.get(i * 2);
+            z[i] = kept.get(i * 2 + 1);
+        }
+
+        // Neighbour lists (including the point itself) within the largest outer radius
+        neighborStart = new int[count + 1];
+        IntArray indices = new IntArray();
+        FloatArray distances = new FloatArray();
+        for (int i = 0; i < count; i++) {
+            neighborStart[i] = indices.size;
+            for (int j = 0; j < count; j++) {
+                float dx = x[i] - x[j];
+                float dz = z[i] - z[j];
+                float distance = (float) Math.sqrt(dx * dx + dz * dz);
+                if (distance <= maxRadius) {
+                    indices.add(j);
+                    distances.add(distance);
+                }
+            }
+        }
+        neighborStart[count] = indices.size;
+        neighborIndex = indices.toArray();
+        neighborDistance = distances.toArray();
+    }
+
+    /**
+     * Bridson's algorithm over the square [-halfExtent, halfExtent]^2.
+     */
+    private static FloatArray sample(float halfExtent, float radius) {
+        RandomXS128 random = new RandomXS128(SEED);
+        float cellSize = radius / (float) Math.sqrt(2);
+        int gridSize = (int) Math.ceil(halfExtent * 2 / cellSize);
+        int[] grid = new int[gridSize * gridSize];
+        Arrays.fill(grid, -1);
+
+        FloatArray points = new FloatArray();
+        IntArray active = new IntArray();
+
+        addPoint(points, active, grid, gridSize, cellSize, halfExtent,
+            (random.nextFloat() * 2 - 1) * halfExtent, (random.nextFloat() * 2 - 1) * halfExtent);
+
+        while (active.size > 0) {
+            int activeIndex = random.nextInt(active.size);
+            int point = active.get(activeIndex);
+            float px = points.get(point * 2);
+            float pz = points.get(point * 2 + 1);
+
+            boolean found = false;
+            for (int attempt = 0; attempt < BRIDSON_ATTEMPTS; attempt++) {
+                float angle = random.nextFloat() * (float) Math.PI * 2;
+                float distance = radius * (1 + random.nextFloat());
+                float cx = px + (float) Math.cos(angle) * distance;
+                float cz = pz + (float) Math.sin(angle) * distance;
+                if (cx < -halfExtent || cx > halfExtent || cz < -halfExtent || cz > halfExtent) continue;
+                if (isFar(points, grid, gridSize, cellSize, halfExtent, cx, cz, radius)) {
+                    addPoint(points, active, grid, gridSize, cellSize, halfExtent, cx, cz);
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                active.removeIndex(activeIndex);
+            }
+        }
+        return points;
+    }
+
+    private static void addPoint(FloatArray points, IntArray active, int[] grid, int gridSize,
+                                 float cellSize, float halfExtent, float px, float pz) {
+        int index = points.size / 2;
+        points.add(px, pz);
+        active.add(index);
+        grid[cell(pz, cellSize, halfExtent, gridSize) * gridSize + cell(px, cellSize, halfExtent, gridSize)] = index;
+    }
+
+    private static boolean isFar(FloatArray points, int[] grid, int gridSize, float cellSize, float halfExtent,
+                                 float px, float pz, float radius) {
+        int col = cell(px, cellSize, halfExtent, gridSize);
+        int row = cell(pz, cellSize, halfExtent, gridSize);
+        for (int r = Math.max(0, row - 2); r <= Math.min(gridSize - 1, row + 2); r++) {
+            for (int c = Math.max(0, col - 2); c <= Math.min(gridSize - 1, col + 2); c++) {
+                int other = grid[r * gridSize + c];
+                if (other < 0) continue;
+                float dx = points.get(other * 2) - px;
+                float dz = points.get(other * 2 + 1) - pz;
+                if (dx * dx + dz * dz < radius * radius) return false;
+            }
+        }
+        return true;
+    }
+
+    private static int cell(float value, float cellSize, float halfExtent, int gridSize) {
+        return Math.min(gridSize - 1, (int) ((value + halfExtent) / cellSize));
+    }
+
+    public int size() {
+        return x.length;
+    }
+
+    public float getX(int index) {
+        return x[index];
+    }
+
+    public float getZ(int index) {
+        return z[index];
+    }
+
+    /**
+     * Distance from the point to the nearest path or the pond.
+     */
+    public float getClearance(int index) {
+        return clearance[index];
+    }
+
+    public int getNeighborStart(int index) {
+        return neighborStart[index];
+    }
+
+    public int getNeighborEnd(int index) {
+        return neighborStart[index + 1];
+    }
+
+    public int getNeighbor(int slot) {
+        return neighborIndex[slot];
+    }
+
+    public float getNeighborDistance(int slot) {
+        return neighborDistance[slot];
+    }
+}
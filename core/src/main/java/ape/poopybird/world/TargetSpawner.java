@@ -0,0 +1,143 @@
+package ape.poopybird.world;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import ape.poopybird.entities.Target;
+import ape.poopybird.entities.TargetType;
+
+/**
+ * Picks target positions from precomputed {@link SpawnCandidates}.
+ *
+ * Each target type keeps its own list of free candidate indices, limited to points where the
+ * type's footprint (its centre radius) clears the pond and paths. Picking is a random index into
+ * that list; occupying a point swap-removes it and every neighbour inside either target's outer
+ * radius from each type's list, so no two targets' outer rings contain each other's centre.
+ */
+public class TargetSpawner {
+    private final AsyncResult<SpawnCandidates> pending;
+    private SpawnCandidates candidates;
+
+    // Per type: free candidate indices, and each candidate's position in that list (-1 if taken)
+    private int[][] free;
+    private int[][] freePosition;
+    private int[] freeCount;
+
+    public TargetSpawner(ParkLayout layout) {
+        this.pending = SpawnCandidates.request(layout);
+    }
+
+    /**
+     * Block until the candidate set is ready. Only needed before the very first spawns.
+     */
+    public void awaitCandidates() {
+        if (candidates == null) {
+            init(pending.get());
+        }
+    }
+
+    private boolean ready() {
+        if (candidates == null && pending.isDone()) {
+            init(pending.get());
+        }
+        return candidates != null;
+    }
+
+    private void init(SpawnCandidates candidates) {
+        this.candidates = candidates;
+        int typeCount = TargetType.values().length;
+        free = new int[typeCount][candidates.size()];
+        freePosition = new int[typeCount][candidates.size()];
+        freeCount = new int[typeCount];
+        reset();
+    }
+
+    /**
+     * Mark every candidate free again.
+     */
+    public void reset() {
+        if (candidates == null) return;
+
+        TargetType[] types = TargetType.values();
+        for (int t = 0; t < types.length; t++) {
+            float footprint = types[t].getCenterRadius();
+            freeCount[t] = 0;
+            for (int i = 0; i < candidates.size(); i++) {
+                if (candidates.getClearance(i) >= footprint) {
+                    freePosition[t][i] = freeCount[t];
+                    free[t][freeCount[t]++] = i;
+                } else {
+                    freePosition[t][i] = -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Choose and occupy a free candidate for a type.
+     *
+     * @return the candidate index, or -1 if none is free (or the set is still being computed)
+     */
+    public int spawn(TargetType type) {
+        if (!ready()) return -1;
+
+        int t = type.ordinal();
+        if (freeCount[t] == 0) return -1;
+
+        int candidate = free[t][MathUtils.random(freeCount[t] - 1)];
+        occupy(candidate, type);
+        return candidate;
+    }
+
+    private void occupy(int candidate, TargetType type) {
+        TargetType[] types = TargetType.values();
+        float radius = type.getOuterRadius();
+        for (int slot = candidates.getNeighborStart(candidate); slot < candidates.getNeighborEnd(candidate); slot++) {
+            int neighbor = candidates.getNeighbor(slot);
+            float distance = candidates.getNeighborDistance(slot);
+            for (int t = 0; t < types.length; t++) {
+                if (distance <= Math.max(radius, types[t].getOuterRadius())) {
+                    remove(t, neighbor);
+                }
+            }
+        }
+    }
+
+    private void remove(int t, int candidate) {
+        int position = freePosition[t][candidate];
+        if (position < 0) return;
+
+        int last = free[t][--freeCount[t]];
+        free[t][position] = last;
+        freePosition[t][last] = position;
+        freePosition[t][candidate] = -1;
+    }
+
+    /**
+     * Rebuild occupancy from existing targets, in spawn order, so the free lists end up exactly
+     * as they were when those targets were spawned.
+     */
+    public void rebuild(Array<Target> targets) {
+        if (!ready()) return;
+
+        reset();
+        for (int i = 0; i < targets.size; i++) {
+            Target target = targets.get(i);
+            if (target.getSpawnCandidate() >= 0) {
+                occupy(target.getSpawnCandidate(), target.getType());
+            }
+        }
+    }
+
+    public float getX(int candidate) {
+        return candidates.getX(candidate);
+    }
+
+    public float getZ(int candidate) {
+        return candidates.getZ(candidate);
+    }
+
+    public int getFreeCount(TargetType type) {
+        return candidates == null ? 0 : freeCount[type.ordinal()];
+    }
+}
@@ -2,7 +2,9 @@ package ape.poopybird.lwjgl3;
 
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import ape.poopybird.Main;
+import ape.poopybird.graphics.FrameReadback;
 
 /** Launches the desktop (LWJGL3) application. */
 public class Lwjgl3Launcher {
@@ -12,12 +14,25 @@ public class Lwjgl3Launcher {
     }
 
     private static Lwjgl3Application createApplication() {
-        return new Lwjgl3Application(new Main(), getDefaultConfiguration());
+        // GL 3.2 always has pixel buffer objects, so screenshots and clips never wait on the GPU
+        Main game = new Main(new FrameReadback.Factory() {
+            @Override
+            public FrameReadback create() {
+                return new PixelBufferReadback();
+            }
+        });
+        return new Lwjgl3Application(game, getDefaultConfiguration());
     }
 
     private static Lwjgl3ApplicationConfiguration getDefaultConfiguration() {
         Lwjgl3ApplicationConfiguration configuration = new Lwjgl3ApplicationConfiguration();
         configuration.setTitle("poopybird");
+        //// GL 3.2 enables instanced rendering. Core profiles (required on macOS) only accept GLSL 1.50,
+        //// so GLSL 1.x shaders are translated by prepending a version line and a few defines.
+        configuration.setOpenGLEmulation(Lwjgl3ApplicationConfiguration.GLEmulation.GL30, 3, 2);
+        ShaderProgram.prependVertexCode = "#version 150\n#define attribute in\n#define varying out\n";
+        ShaderProgram.prependFragmentCode = "#version 150\n#define varying in\n#define texture2D texture\n"
+            + "#define gl_FragColor fragColor\nout vec4 fragColor;\n";
         //// Vsync limits the frames per second to what your hardware can display, and helps eliminate
         //// screen tearing. This setting doesn't always work on Linux, so the line after is a safeguard.
         configuration.useVsync(true);
@@ -0,0 +1,69 @@
+package ape.poopybird.lwjgl3;
+
+import ape.poopybird.graphics.FrameReadback;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL21;
+import org.lwjgl.opengl.GL30;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link FrameReadback} through pixel buffer objects, which libGDX's own GL binding can't reach.
+ *
+ * Capturing starts an asynchronous glReadPixels of the window into a slot's buffer and returns
+ * at once; by the time the slot is read the transfer is done, so mapping the buffer doesn't wait
+ * and reading is a plain memory copy.
+ */
+public class PixelBufferReadback implements FrameReadback {
+    private int[] buffers;
+    private int width;
+    private int height;
+
+    @Override
+    public void allocate(int slots, int width, int height) {
+        dispose();
+        this.width = width;
+        this.height = height;
+        buffers = new int[slots];
+        for (int i = 0; i < slots; i++) {
+            buffers[i] = GL15.glGenBuffers();
+            GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, buffers[i]);
+            GL15.glBufferData(GL21.GL_PIXEL_PACK_BUFFER, (long) width * height * 4, GL15.GL_STREAM_READ);
+        }
+        GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, 0);
+    }
+
+    @Override
+    public void capture(int slot) {
+        GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, buffers[slot]);
+        GL11.glPixelStorei(GL11.GL_PACK_ALIGNMENT, 1);
+        GL11.glReadPixels(0, 0, width, height, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, 0L);
+        GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, 0);
+    }
+
+    @Override
+    public void read(int slot, ByteBuffer pixels) {
+        int size = width * height * 4;
+        GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, buffers[slot]);
+        ByteBuffer mapped = GL30.glMapBufferRange(GL21.GL_PIXEL_PACK_BUFFER, 0, size, GL30.GL_MAP_READ_BIT);
+        pixels.clear();
+        if (mapped != null) {
+            mapped.limit(size);
+            pixels.put(mapped);
+            GL15.glUnmapBuffer(GL21.GL_PIXEL_PACK_BUFFER);
+        }
+        pixels.position(0);
+        GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, 0);
+    }
+
+    @Override
+    public void dispose() {
+        if (buffers != null) {
+            for (int buffer : buffers) {
+                GL15.glDeleteBuffers(buffer);
+            }
+            buffers = null;
+        }
+    }
+}